@@ -0,0 +1,159 @@
+package org.bettingengine.bettingengine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The aggregation hot paths in isolation: average/median over a column (sorted copy vs {@link QuantileSketch}),
+ * folding matches, best-hero ranking, hero matrices, in-play timeline queries over every match, and the Monte Carlo
+ * tournament simulator per worker count (its speed-up is the time at parallelism=1 over the time at N; pass
+ * {@code -p parallelism=1,2,...,<cores>} to cover the machine).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Column {
+        @Param({"1000", "100000"})
+        int size;
+
+        IntArray values;
+        QuantileSketch sketch;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom rnd = new SplittableRandom(1L);
+            values = new IntArray(size);
+            sketch = new QuantileSketch(4096);
+            for (int i = 0; i < size; i++) {
+                int v = rnd.nextInt(1500, 3600);
+                values.add(v);
+                sketch.add(v);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Matches {
+        @Param({"100", "1000"})
+        int matches;
+
+        List<Match> typed;
+        TeamAggregator aggregated;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            Path file = Files.createTempFile("bench-agg-", ".json");
+            try {
+                new SyntheticTeamData(36, matches, 0, 0, 0, 1L).write(file);
+                typed = new TeamMatchesReader(false).read(file, TeamMatchesReader.ANY_LEAGUE).matches();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+            aggregated = new TeamAggregator(36);
+            aggregated.acceptAll(typed);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Timelines {
+        @Param({"1000", "5000"})
+        int matches;
+
+        MatchTimelineIndex index;
+        long[] ids;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            Path file = Files.createTempFile("bench-timeline-", ".json");
+            try {
+                new SyntheticTeamData(36, matches, 3, 3, 0, 1L).write(file);
+                index = MatchTimelineIndex.build(new TeamMatchesReader(true).read(file, TeamMatchesReader.ANY_LEAGUE).matches());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+            ids = index.matchIdsOf(36);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Simulation {
+        @Param({"1", "2", "4", "8"})
+        int parallelism;
+
+        TournamentSimulator simulator;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int[][] groups = new int[2][8];
+            Map<Integer, Double> winRates = new HashMap<>();
+            for (int g = 0; g < 2; g++) {
+                for (int i = 0; i < 8; i++) {
+                    groups[g][i] = 100 * g + i + 1;
+                    winRates.put(groups[g][i], 0.8 - i * 0.05);
+                }
+            }
+            simulator = new TournamentSimulator(new TournamentFormat(groups, 2, 4, 3, 5), WinProbabilitySource.fromWinRates(winRates));
+        }
+    }
+
+    @Benchmark
+    public double average(Column c) {
+        return c.values.average();
+    }
+
+    @Benchmark
+    public double median(Column c) {
+        return c.values.median();
+    }
+
+    @Benchmark
+    public double sketchMedian(Column c) {
+        return c.sketch.median();
+    }
+
+    @Benchmark
+    public Map<String, Object> aggregateTeam(Matches m) {
+        TeamAggregator agg = new TeamAggregator(36);
+        agg.acceptAll(m.typed);
+        return agg.teamAggregates();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> bestHeroes(Matches m) {
+        return m.aggregated.playerAggregates();
+    }
+
+    @Benchmark
+    public HeroMatrices heroMatrices(Matches m) {
+        return HeroMatrices.build(m.typed);
+    }
+
+    /** First blood, first tower and gold fed before minute 10 for every match. */
+    @Benchmark
+    public long timelineQueries(Timelines t) {
+        long acc = 0L;
+        for (long id : t.ids) {
+            acc += t.index.firstBloodTeam(id) + t.index.firstTowerTime(id) + t.index.goldFedBeforeMinute(id, 36, 10);
+        }
+        return acc;
+    }
+
+    /** 100k 16-team tournaments (two groups of 8 into an 8-team playoff) on {@code parallelism} workers. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TournamentOdds simulateTournaments(Simulation s) {
+        return s.simulator.simulate(100_000, s.parallelism, 42L);
+    }
+}
@@ -0,0 +1,62 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end analysis of one raw team file: the tree-based {@link TeamJsonAnalyzer#analyzeTeamFile}, the streaming
+ * variant, and serializing the analyzed result the way the analyzer writes it (indented).
+ * {@code events} is the per-player count of kill and death events; item purchases are twice that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class AnalyzerBenchmark {
+
+    @Param({"100", "1000"})
+    int matches;
+
+    @Param({"0", "10"})
+    int events;
+
+    private final TeamJsonAnalyzer analyzer = new TeamJsonAnalyzer();
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private Path file;
+    private Map<String, Object> analyzed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Files.createTempFile("bench-team-", ".json");
+        new SyntheticTeamData(36, matches, events, events, events * 2, 1L).write(file);
+        analyzed = analyzer.analyzeTeamFile(file, SyntheticTeamData.LEAGUE_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Map<String, Object> analyzeTeamFile() throws Exception {
+        return analyzer.analyzeTeamFile(file, SyntheticTeamData.LEAGUE_ID);
+    }
+
+    @Benchmark
+    public Map<String, Object> analyzeTeamFileStreaming() throws Exception {
+        return analyzer.analyzeTeamFileStreaming(file, SyntheticTeamData.LEAGUE_ID);
+    }
+
+    @Benchmark
+    public byte[] serializeAnalyzed() throws Exception {
+        return mapper.writeValueAsBytes(analyzed);
+    }
+}
@@ -0,0 +1,55 @@
+package org.bettingengine.bettingengine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/** Bulk team dump through the RestClient path against {@link FakeStratzServer}, by latency and concurrency limit. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchBenchmark {
+
+    @Param({"0", "25"})
+    int latencyMs;
+
+    @Param({"1", "8"})
+    int maxInFlight;
+
+    private static final List<Integer> TEAMS = IntStream.rangeClosed(1, 16).boxed().toList();
+
+    private FakeStratzServer stratz;
+    private TournamentTeamPlaysParserImpl parser;
+    private Path outDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stratz = FakeStratzServer.start().defaultMatches(50).latency(Duration.ofMillis(latencyMs), Duration.ZERO);
+        parser = new TournamentTeamPlaysParserImpl(stratz.restClient());
+        parser.setRateLimiter(new TokenBucketRateLimiter(1_000_000, 1_000_000, Duration.ofSeconds(1)));
+        parser.setMaxInFlight(maxInFlight);
+        outDir = Files.createTempDirectory("bench-fetch-");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        stratz.close();
+        try (var files = Files.list(outDir)) {
+            for (Path p : files.toList()) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(outDir);
+    }
+
+    @Benchmark
+    public BulkDumpResult dumpSixteenTeams() {
+        return parser.dumpTeamsRawJson(TEAMS, 50, 0, outDir, DumpProgressListener.NONE);
+    }
+}
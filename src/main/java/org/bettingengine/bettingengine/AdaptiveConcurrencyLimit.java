@@ -0,0 +1,61 @@
+package org.bettingengine.bettingengine;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD window on concurrent requests: halves whenever a call is throttled or fails, grows by one after
+ * {@code limit} consecutive successes, never leaves [1, max]. Like {@link TokenBucketRateLimiter} it blocks on a
+ * ReentrantLock condition, so it is safe for virtual threads.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final int max;
+    private int limit, inUse, successes;
+
+    public AdaptiveConcurrencyLimit(int max) {
+        if (max < 1) throw new IllegalArgumentException("max must be >= 1");
+        this.max = max;
+        this.limit = max;
+    }
+
+    /** Block until a slot is free under the current window. */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inUse >= limit) released.await();
+            inUse++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Return a slot; {@code backOff} shrinks the window, otherwise a success counts towards growing it. */
+    public void release(boolean backOff) {
+        lock.lock();
+        try {
+            inUse--;
+            if (backOff) {
+                limit = Math.max(1, limit / 2);
+                successes = 0;
+            } else if (++successes >= limit && limit < max) {
+                limit++;
+                successes = 0;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
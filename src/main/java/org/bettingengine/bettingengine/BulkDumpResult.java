@@ -0,0 +1,11 @@
+package org.bettingengine.bettingengine;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/** Outcome of a bulk team dump: written files and per-team failures, both keyed by team id (input order). */
+public record BulkDumpResult(Map<Integer, Path> written, Map<Integer, Throwable> failures, Duration elapsed) {
+
+    public boolean hasFailures() { return !failures.isEmpty(); }
+}
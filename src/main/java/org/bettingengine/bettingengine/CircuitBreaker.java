@@ -0,0 +1,100 @@
+package org.bettingengine.bettingengine;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consecutive-failure circuit breaker. CLOSED lets every call through; {@code failureThreshold} failures in a row
+ * open it for {@code openDuration}, during which calls are refused at once; afterwards a single trial call is let
+ * through (HALF_OPEN) and its outcome closes or re-opens the circuit. A trial that ends without an outcome
+ * (interrupted, cancelled, or failed on our side) must be handed back with {@link #release}.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Thrown instead of calling while the circuit is open; an IOException so RestClient reports it as ResourceAccessException. */
+    public static class OpenException extends IOException {
+        public OpenException(String message) { super(message); }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Permission to call; throws {@link OpenException} while open (or while the half-open trial is running).
+     * Returns true when this call is the half-open trial.
+     */
+    public boolean acquirePermission() throws OpenException {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && trialInFlight)) {
+                throw new OpenException("STRATZ circuit open after " + consecutiveFailures + " consecutive failures");
+            }
+            if (state != State.HALF_OPEN) return false;
+            trialInFlight = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+            trialInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                trialInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hand back a half-open trial without an outcome, so the next call becomes the trial. */
+    public void release() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) trialInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
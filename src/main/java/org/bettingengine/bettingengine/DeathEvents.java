@@ -0,0 +1,91 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/** A player's playbackData.deathEvents as parallel columns, one array per field. */
+public final class DeathEvents {
+
+    public static final DeathEvents EMPTY = new DeathEvents(new int[0], new int[0], new int[0], new int[0], new int[0],
+            new boolean[0], new int[0], new int[0]);
+
+    private final int[] time, attacker, goldFed, xpFed, goldLost;
+    private final boolean[] isFeed;
+    private final int[] positionX, positionY;
+
+    public DeathEvents(int[] time, int[] attacker, int[] goldFed, int[] xpFed, int[] goldLost, boolean[] isFeed,
+                       int[] positionX, int[] positionY) {
+        int n = time.length;
+        if (attacker.length != n || goldFed.length != n || xpFed.length != n || goldLost.length != n
+                || isFeed.length != n || positionX.length != n || positionY.length != n) {
+            throw new IllegalArgumentException("column lengths differ");
+        }
+        this.time = time;
+        this.attacker = attacker;
+        this.goldFed = goldFed;
+        this.xpFed = xpFed;
+        this.goldLost = goldLost;
+        this.isFeed = isFeed;
+        this.positionX = positionX;
+        this.positionY = positionY;
+    }
+
+    public int size() { return time.length; }
+
+    public boolean isEmpty() { return time.length == 0; }
+
+    public int time(int i) { return time[i]; }
+
+    public int attacker(int i) { return attacker[i]; }
+
+    public int goldFed(int i) { return goldFed[i]; }
+
+    public int xpFed(int i) { return xpFed[i]; }
+
+    public int goldLost(int i) { return goldLost[i]; }
+
+    public boolean isFeed(int i) { return isFeed[i]; }
+
+    public int positionX(int i) { return positionX[i]; }
+
+    public int positionY(int i) { return positionY[i]; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DeathEvents d && Arrays.equals(time, d.time) && Arrays.equals(attacker, d.attacker)
+                && Arrays.equals(goldFed, d.goldFed) && Arrays.equals(xpFed, d.xpFed) && Arrays.equals(goldLost, d.goldLost)
+                && Arrays.equals(isFeed, d.isFeed) && Arrays.equals(positionX, d.positionX) && Arrays.equals(positionY, d.positionY);
+    }
+
+    @Override
+    public int hashCode() { return 31 * Arrays.hashCode(time) + Arrays.hashCode(goldFed); }
+
+    @Override
+    public String toString() { return "DeathEvents[time=" + Arrays.toString(time) + ", goldFed=" + Arrays.toString(goldFed) + "]"; }
+
+    /** Appends events one by one. */
+    public static final class Builder {
+        private final IntArray time = new IntArray(), attacker = new IntArray(), goldFed = new IntArray(),
+                xpFed = new IntArray(), goldLost = new IntArray(), isFeed = new IntArray(),
+                positionX = new IntArray(), positionY = new IntArray();
+
+        public Builder add(int t, int attackerId, int gold, int xp, int lost, boolean feed, int x, int y) {
+            time.add(t);
+            attacker.add(attackerId);
+            goldFed.add(gold);
+            xpFed.add(xp);
+            goldLost.add(lost);
+            isFeed.add(feed ? 1 : 0);
+            positionX.add(x);
+            positionY.add(y);
+            return this;
+        }
+
+        public DeathEvents build() {
+            if (time.isEmpty()) return EMPTY;
+            boolean[] feed = new boolean[isFeed.size()];
+            for (int i = 0; i < feed.length; i++) feed[i] = isFeed.get(i) != 0;
+            return new DeathEvents(time.toArray(), attacker.toArray(), goldFed.toArray(), xpFed.toArray(), goldLost.toArray(),
+                    feed, positionX.toArray(), positionY.toArray());
+        }
+    }
+}
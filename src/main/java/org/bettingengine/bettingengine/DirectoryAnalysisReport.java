@@ -0,0 +1,12 @@
+package org.bettingengine.bettingengine;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/** Summary of a directory analysis: written files and failures, both in (sorted) input order. */
+public record DirectoryAnalysisReport(List<Path> written, Map<Path, Throwable> failures, Duration elapsed) {
+
+    public boolean hasFailures() { return !failures.isEmpty(); }
+}
@@ -0,0 +1,13 @@
+package org.bettingengine.bettingengine;
+
+import java.nio.file.Path;
+
+/** Callback for bulk dumps; invoked once per team as soon as that team finishes (in completion order). */
+@FunctionalInterface
+public interface DumpProgressListener {
+
+    DumpProgressListener NONE = (teamId, file, error, completed, total) -> {};
+
+    /** Exactly one of {@code file} / {@code error} is non-null. */
+    void onTeamDone(int teamId, Path file, Throwable error, int completed, int total);
+}
@@ -0,0 +1,386 @@
+package org.bettingengine.bettingengine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Glicko-2 ratings per team and per player, replayed over matches in (startDateTime, id) order.
+ * Every match is its own rating period; idle time between matches inflates RD by one volatility step per
+ * {@code ratingPeriodSeconds}. Players are rated against the opposing roster's average rating.
+ * Updates are incremental: a match is applied only when it is newer than the last match applied for each of its
+ * two teams, so new results never require a full replay and a late result between other teams still counts. One
+ * older than a team's latest applied match is dropped, as that team's rating has already moved on.
+ * Ratings live in primitive arrays behind id -> slot maps; queries take a read lock and allocate nothing, so many
+ * matchups can be priced concurrently.
+ *
+ * @see <a href="http://www.glicko.net/glicko/glicko2.pdf">Glickman, Example of the Glicko-2 system</a>
+ */
+public class Glicko2RatingEngine {
+
+    public static final double DEFAULT_RATING = 1500.0;
+    public static final double DEFAULT_RD = 350.0;
+    public static final double DEFAULT_VOLATILITY = 0.06;
+    public static final double DEFAULT_TAU = 0.5;
+    public static final long DEFAULT_RATING_PERIOD_SECONDS = 7L * 24 * 3600;
+
+    private static final double SCALE = 173.7178;
+    private static final double EPSILON = 0.000001;
+    private static final double MAX_PHI = DEFAULT_RD / SCALE;
+
+    /** Rating in the original Glicko scale. */
+    public record Rating(double rating, double rd, double volatility) {}
+
+    private final double tau;
+    private final long ratingPeriodSeconds;
+    private final RatingPool teams;
+    private final RatingPool players;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int appliedMatches;
+
+    public Glicko2RatingEngine() {
+        this(DEFAULT_TAU, DEFAULT_RATING_PERIOD_SECONDS);
+    }
+
+    public Glicko2RatingEngine(double tau, long ratingPeriodSeconds) {
+        this.tau = tau;
+        this.ratingPeriodSeconds = ratingPeriodSeconds;
+        this.teams = new RatingPool();
+        this.players = new RatingPool();
+    }
+
+    private Glicko2RatingEngine(Glicko2RatingEngine other) {
+        this.tau = other.tau;
+        this.ratingPeriodSeconds = other.ratingPeriodSeconds;
+        this.teams = new RatingPool(other.teams);
+        this.players = new RatingPool(other.players);
+        this.appliedMatches = other.appliedMatches;
+    }
+
+    /** An independent copy, including each team's last applied match, to apply further matches to. */
+    public Glicko2RatingEngine copy() {
+        lock.readLock().lock();
+        try {
+            return new Glicko2RatingEngine(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- updates ----------
+
+    /**
+     * Apply every match newer than both its teams' last applied match, in (startDateTime, id) order.
+     * Others are ignored (they are either already applied or arrived too late to replay).
+     * Returns how many were applied.
+     */
+    public int applyAll(Collection<Match> matches) {
+        List<Match> fresh = new ArrayList<>(matches.size());
+        lock.readLock().lock();
+        try {
+            for (Match m : matches) if (isFresh(m)) fresh.add(m);
+        } finally {
+            lock.readLock().unlock();
+        }
+        fresh.sort(Comparator.comparingLong(Match::startDateTime).thenComparingLong(Match::id));
+
+        int applied = 0;
+        for (Match m : fresh) if (apply(m)) applied++;
+        return applied;
+    }
+
+    /** Apply one match; false when it lacks a team or a result, or is not newer than both teams' last match. */
+    public boolean apply(Match m) {
+        if (m.radiantTeamId() == 0 || m.direTeamId() == 0 || !m.hasResult()) return false;
+        lock.writeLock().lock();
+        try {
+            if (!isFresh(m)) return false;
+            appliedMatches++;
+
+            long t = m.startDateTime();
+            double sRad = m.didRadiantWin() ? 1.0 : 0.0;
+
+            // Teams: one game against each other, both computed from pre-match values
+            int rad = teams.slot(m.radiantTeamId(), t, ratingPeriodSeconds);
+            int dir = teams.slot(m.direTeamId(), t, ratingPeriodSeconds);
+            teams.lastMatch[rad] = m.id();
+            teams.lastMatch[dir] = m.id();
+            double radMu = teams.mu[rad], radPhi = teams.phi[rad];
+            double dirMu = teams.mu[dir], dirPhi = teams.phi[dir];
+            teams.update(rad, dirMu, dirPhi, sRad, tau);
+            teams.update(dir, radMu, radPhi, 1.0 - sRad, tau);
+
+            // Players: against the opposing roster's mean mu / rms phi
+            List<PlayerPerformance> ps = m.players();
+            int n = ps.size();
+            if (n == 0) return true;
+            int[] slots = new int[n];
+            double radSumMu = 0, radSumPhi2 = 0, dirSumMu = 0, dirSumPhi2 = 0;
+            int radN = 0, dirN = 0;
+            for (int i = 0; i < n; i++) {
+                PlayerPerformance p = ps.get(i);
+                if (p.steamAccountId() == 0L || !p.hasSide()) { slots[i] = -1; continue; } // isRadiant means nothing
+                int s = players.slot(p.steamAccountId(), t, ratingPeriodSeconds);
+                slots[i] = s;
+                if (p.isRadiant()) { radSumMu += players.mu[s]; radSumPhi2 += players.phi[s] * players.phi[s]; radN++; }
+                else { dirSumMu += players.mu[s]; dirSumPhi2 += players.phi[s] * players.phi[s]; dirN++; }
+            }
+            if (radN == 0 || dirN == 0) return true;
+            double radAvgMu = radSumMu / radN, radAvgPhi = Math.sqrt(radSumPhi2 / radN);
+            double dirAvgMu = dirSumMu / dirN, dirAvgPhi = Math.sqrt(dirSumPhi2 / dirN);
+            for (int i = 0; i < n; i++) {
+                if (slots[i] < 0) continue;
+                boolean isRad = ps.get(i).isRadiant();
+                players.update(slots[i], isRad ? dirAvgMu : radAvgMu, isRad ? dirAvgPhi : radAvgPhi, isRad ? sRad : 1.0 - sRad, tau);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Newer than the last applied match of both teams, by (startDateTime, id). */
+    private boolean isFresh(Match m) {
+        return teams.isBefore(teams.find(m.radiantTeamId()), m) && teams.isBefore(teams.find(m.direTeamId()), m);
+    }
+
+    // ---------- queries ----------
+
+    /** P(teamA beats teamB); unknown teams use the default rating. */
+    public double winProbability(int teamA, int teamB) {
+        lock.readLock().lock();
+        try {
+            int a = teams.find(teamA), b = teams.find(teamB);
+            return expected(a >= 0 ? teams.mu[a] : 0.0, a >= 0 ? teams.phi[a] : MAX_PHI,
+                    b >= 0 ? teams.mu[b] : 0.0, b >= 0 ? teams.phi[b] : MAX_PHI);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** P(roster A beats roster B) from player ratings (mean mu, rms phi per roster). */
+    public double winProbabilityByPlayers(long[] rosterA, long[] rosterB) {
+        lock.readLock().lock();
+        try {
+            double muA = 0, phi2A = 0, muB = 0, phi2B = 0;
+            for (long id : rosterA) { int s = players.find(id); double phi = s >= 0 ? players.phi[s] : MAX_PHI; muA += s >= 0 ? players.mu[s] : 0.0; phi2A += phi * phi; }
+            for (long id : rosterB) { int s = players.find(id); double phi = s >= 0 ? players.phi[s] : MAX_PHI; muB += s >= 0 ? players.mu[s] : 0.0; phi2B += phi * phi; }
+            if (rosterA.length == 0 || rosterB.length == 0) return 0.5;
+            return expected(muA / rosterA.length, Math.sqrt(phi2A / rosterA.length), muB / rosterB.length, Math.sqrt(phi2B / rosterB.length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Rating teamRating(int teamId) {
+        lock.readLock().lock();
+        try {
+            return teams.rating(teams.find(teamId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Rating playerRating(long steamAccountId) {
+        lock.readLock().lock();
+        try {
+            return players.rating(players.find(steamAccountId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int appliedMatches() {
+        lock.readLock().lock();
+        try {
+            return appliedMatches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int teamCount() {
+        lock.readLock().lock();
+        try {
+            return teams.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int playerCount() {
+        lock.readLock().lock();
+        try {
+            return players.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Team ids in slot order (first-seen order). */
+    public long[] teamIds() {
+        lock.readLock().lock();
+        try {
+            return Arrays.copyOf(teams.ids, teams.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Glicko-2 math ----------
+
+    /**
+     * Rating-period update of one competitor against several opponents (Glickman's step-by-step algorithm).
+     * Scores are 1 (win), 0.5 (draw), 0 (loss).
+     */
+    public static Rating update(Rating r, Rating[] opponents, double[] scores, double tau) {
+        double mu = (r.rating() - DEFAULT_RATING) / SCALE, phi = r.rd() / SCALE;
+        double vInv = 0.0, deltaSum = 0.0;
+        for (int j = 0; j < opponents.length; j++) {
+            double muJ = (opponents[j].rating() - DEFAULT_RATING) / SCALE, phiJ = opponents[j].rd() / SCALE;
+            double g = g(phiJ), e = e(mu, muJ, g);
+            vInv += g * g * e * (1 - e);
+            deltaSum += g * (scores[j] - e);
+        }
+        if (opponents.length == 0) {
+            return new Rating(r.rating(), Math.sqrt(phi * phi + r.volatility() * r.volatility()) * SCALE, r.volatility());
+        }
+        double v = 1.0 / vInv;
+        double sigma = newVolatility(phi, r.volatility(), v * deltaSum, v, tau);
+        double phiStar = Math.sqrt(phi * phi + sigma * sigma);
+        double phiNew = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / v);
+        double muNew = mu + phiNew * phiNew * deltaSum;
+        return new Rating(muNew * SCALE + DEFAULT_RATING, phiNew * SCALE, sigma);
+    }
+
+    private static double g(double phi) {
+        return 1.0 / Math.sqrt(1.0 + 3.0 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    private static double e(double mu, double muJ, double gJ) {
+        return 1.0 / (1.0 + Math.exp(-gJ * (mu - muJ)));
+    }
+
+    /** Expected score of A vs B with both uncertainties folded into g. */
+    private static double expected(double muA, double phiA, double muB, double phiB) {
+        return e(muA, muB, g(Math.sqrt(phiA * phiA + phiB * phiB)));
+    }
+
+    /** Step 5 of the algorithm: Illinois-method root finding for the new volatility. */
+    private static double newVolatility(double phi, double sigma, double delta, double v, double tau) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi, delta2 = delta * delta;
+        double A = a, B;
+        if (delta2 > phi2 + v) {
+            B = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phi2, delta2, v, tau) < 0) k++;
+            B = a - k * tau;
+        }
+        double fA = f(A, a, phi2, delta2, v, tau), fB = f(B, a, phi2, delta2, v, tau);
+        while (Math.abs(B - A) > EPSILON) {
+            double C = A + (A - B) * fA / (fB - fA);
+            double fC = f(C, a, phi2, delta2, v, tau);
+            if (fC * fB <= 0) { A = B; fA = fB; } else { fA = fA / 2.0; }
+            B = C;
+            fB = fC;
+        }
+        return Math.exp(A / 2.0);
+    }
+
+    private static double f(double x, double a, double phi2, double delta2, double v, double tau) {
+        double ex = Math.exp(x);
+        double d = phi2 + v + ex;
+        return ex * (delta2 - phi2 - v - ex) / (2.0 * d * d) - (x - a) / (tau * tau);
+    }
+
+    // ---------- storage ----------
+
+    /** Struct-of-arrays rating table in the Glicko-2 (mu/phi) scale. */
+    private static final class RatingPool {
+        final LongIntMap slotById;
+        long[] ids = new long[64];
+        double[] mu = new double[64], phi = new double[64], sigma = new double[64];
+        long[] lastPlayed = new long[64], lastMatch = new long[64]; // (startDateTime, id) of the last applied match
+        int size;
+
+        RatingPool() {
+            slotById = new LongIntMap(256);
+        }
+
+        RatingPool(RatingPool other) {
+            slotById = new LongIntMap(other.slotById);
+            ids = other.ids.clone();
+            mu = other.mu.clone();
+            phi = other.phi.clone();
+            sigma = other.sigma.clone();
+            lastPlayed = other.lastPlayed.clone();
+            lastMatch = other.lastMatch.clone();
+            size = other.size;
+        }
+
+        int find(long id) { return id == 0L ? -1 : slotById.get(id); }
+
+        /** Whether slot s (-1: unseen) last played before m; ties on start time go by match id. */
+        boolean isBefore(int s, Match m) {
+            return s < 0 || lastPlayed[s] < m.startDateTime() || (lastPlayed[s] == m.startDateTime() && lastMatch[s] < m.id());
+        }
+
+        /**
+         * Slot for id (created on first sight) with RD inflated for the rating periods it sat out. A player may
+         * appear in a late match older than their last one; that inflates nothing and keeps the later time.
+         */
+        int slot(long id, long now, long periodSeconds) {
+            int s = slotById.get(id);
+            if (s == LongIntMap.MISSING) {
+                if (size == ids.length) grow();
+                s = size++;
+                slotById.put(id, s);
+                ids[s] = id;
+                mu[s] = 0.0;
+                phi[s] = MAX_PHI;
+                sigma[s] = DEFAULT_VOLATILITY;
+                lastPlayed[s] = now;
+                lastMatch[s] = Long.MIN_VALUE;
+            } else if (periodSeconds > 0 && now > lastPlayed[s]) {
+                long idle = (now - lastPlayed[s]) / periodSeconds;
+                if (idle > 0) phi[s] = Math.min(MAX_PHI, Math.sqrt(phi[s] * phi[s] + idle * sigma[s] * sigma[s]));
+            }
+            lastPlayed[s] = Math.max(lastPlayed[s], now);
+            return s;
+        }
+
+        /** Single-opponent rating period, written in place. */
+        void update(int s, double oppMu, double oppPhi, double score, double tau) {
+            double g = g(oppPhi), e = e(mu[s], oppMu, g);
+            double v = 1.0 / (g * g * e * (1 - e));
+            double delta = v * g * (score - e);
+            double newSigma = newVolatility(phi[s], sigma[s], delta, v, tau);
+            double phiStar = Math.sqrt(phi[s] * phi[s] + newSigma * newSigma);
+            double newPhi = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / v);
+            mu[s] += newPhi * newPhi * g * (score - e);
+            phi[s] = newPhi;
+            sigma[s] = newSigma;
+        }
+
+        Rating rating(int s) {
+            if (s < 0) return new Rating(DEFAULT_RATING, DEFAULT_RD, DEFAULT_VOLATILITY);
+            return new Rating(mu[s] * SCALE + DEFAULT_RATING, phi[s] * SCALE, sigma[s]);
+        }
+
+        private void grow() {
+            int n = ids.length << 1;
+            ids = Arrays.copyOf(ids, n);
+            mu = Arrays.copyOf(mu, n);
+            phi = Arrays.copyOf(phi, n);
+            sigma = Arrays.copyOf(sigma, n);
+            lastPlayed = Arrays.copyOf(lastPlayed, n);
+            lastMatch = Arrays.copyOf(lastMatch, n);
+        }
+    }
+}
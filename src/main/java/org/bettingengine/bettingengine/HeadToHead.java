@@ -0,0 +1,14 @@
+package org.bettingengine.bettingengine;
+
+/**
+ * Head-to-head record between two teams, from {@code teamA}'s point of view. {@code matches} also counts matches
+ * without a result, which add to neither side's wins.
+ */
+public record HeadToHead(int teamA, int teamB, int matches, int winsA, int winsB, long lastStartDateTime) {
+
+    /** A's share of the decided matches; 0 when none was decided. */
+    public double winRateA() {
+        int decided = winsA + winsB;
+        return decided > 0 ? (double) winsA / decided : 0.0;
+    }
+}
@@ -0,0 +1,236 @@
+package org.bettingengine.bettingengine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Dense hero pick / win counts over deduplicated matches, for draft-phase pricing: per hero, hero-vs-hero (faced each
+ * other) and hero-with-hero (same side), each a flat {@code int[]} indexed {@code a * capacity + b} by hero id, so
+ * every query is O(1) array reads. A large batch is counted on a fork-join pool in disjoint slices whose partial
+ * matrices are then summed; later batches fold in incrementally and matches already counted are skipped by id.
+ * Not thread-safe while being updated; read-only use after that is safe.
+ */
+public class HeroMatrices {
+
+    /** Matches per fork-join leaf. */
+    private static final int SLICE = 512;
+
+    private final LongIntMap seen;
+    private int capacity;
+    private int matches;
+    private int[] picks, wins;
+    private int[] vsGames, vsWins;     // [a][b]: a faced b / a beat b
+    private int[] withGames, withWins; // [a][b]: a and b on the same side / and won; symmetric
+
+    public HeroMatrices() { this(160); }
+
+    public HeroMatrices(int capacity) {
+        seen = new LongIntMap(1024);
+        allocate(Math.max(1, capacity));
+    }
+
+    private HeroMatrices(HeroMatrices other) {
+        seen = new LongIntMap(other.seen);
+        capacity = other.capacity;
+        matches = other.matches;
+        picks = other.picks.clone();
+        wins = other.wins.clone();
+        vsGames = other.vsGames.clone();
+        vsWins = other.vsWins.clone();
+        withGames = other.withGames.clone();
+        withWins = other.withWins.clone();
+    }
+
+    /** Count {@code ms} on the common fork-join pool. */
+    public static HeroMatrices build(Collection<Match> ms) {
+        HeroMatrices h = new HeroMatrices();
+        h.acceptAll(ms, ForkJoinPool.commonPool());
+        return h;
+    }
+
+    /** An independent copy to fold further matches into while this one keeps serving reads. */
+    public HeroMatrices copy() {
+        return new HeroMatrices(this);
+    }
+
+    /** Count one match unless its id was already counted; returns whether it was new. */
+    public boolean accept(Match m) {
+        if (!claim(m)) return false;
+        grow(maxHeroId(m) + 1);
+        count(m);
+        matches++;
+        return true;
+    }
+
+    public int acceptAll(Collection<Match> ms) {
+        return acceptAll(ms, ForkJoinPool.commonPool());
+    }
+
+    /** Fold in the new matches of {@code ms}, counting them in parallel on {@code pool}; returns how many were new. */
+    public int acceptAll(Collection<Match> ms, ForkJoinPool pool) {
+        List<Match> fresh = new ArrayList<>(ms.size());
+        int maxHero = 0;
+        for (Match m : ms) {
+            if (!claim(m)) continue;
+            fresh.add(m);
+            maxHero = Math.max(maxHero, maxHeroId(m));
+        }
+        if (fresh.isEmpty()) return 0;
+        grow(maxHero + 1);
+        if (fresh.size() <= SLICE) {
+            for (Match m : fresh) count(m);
+        } else {
+            add(pool.invoke(new CountTask(fresh, 0, fresh.size(), capacity)));
+        }
+        matches += fresh.size();
+        return fresh.size();
+    }
+
+    public int matchCount() { return matches; }
+
+    /** Hero ids below this are addressable; higher ids read as never picked. */
+    public int capacity() { return capacity; }
+
+    public int picks(int hero) { return in(hero) ? picks[hero] : 0; }
+
+    public int wins(int hero) { return in(hero) ? wins[hero] : 0; }
+
+    /** {@code NaN} when never picked. */
+    public double winRate(int hero) { return rate(wins(hero), picks(hero)); }
+
+    public int gamesAgainst(int a, int b) { return in(a) && in(b) ? vsGames[a * capacity + b] : 0; }
+
+    public int winsAgainst(int a, int b) { return in(a) && in(b) ? vsWins[a * capacity + b] : 0; }
+
+    /** Share of the games where {@code a} faced {@code b} that {@code a}'s side won; {@code NaN} when they never met. */
+    public double winRateAgainst(int a, int b) { return rate(winsAgainst(a, b), gamesAgainst(a, b)); }
+
+    public int gamesWith(int a, int b) { return in(a) && in(b) ? withGames[a * capacity + b] : 0; }
+
+    public int winsWith(int a, int b) { return in(a) && in(b) ? withWins[a * capacity + b] : 0; }
+
+    /** Win rate of sides that had both heroes; {@code NaN} when never drafted together. */
+    public double winRateWith(int a, int b) { return rate(winsWith(a, b), gamesWith(a, b)); }
+
+    // ---------- helpers ----------
+
+    private boolean claim(Match m) {
+        if (m.id() == 0L || seen.containsKey(m.id())) return false;
+        seen.put(m.id(), 1);
+        return true;
+    }
+
+    private boolean in(int hero) { return hero > 0 && hero < capacity; }
+
+    private static double rate(int wins, int games) { return games == 0 ? Double.NaN : wins / (double) games; }
+
+    private static int maxHeroId(Match m) {
+        int max = 0;
+        for (PlayerPerformance p : m.players()) max = Math.max(max, p.heroId());
+        return max;
+    }
+
+    private void count(Match m) {
+        if (!m.hasResult()) return;
+        List<PlayerPerformance> players = m.players();
+        int[] radiant = new int[players.size()], dire = new int[players.size()];
+        int nr = 0, nd = 0;
+        for (PlayerPerformance p : players) {
+            if (p.heroId() <= 0 || !p.hasSide()) continue;
+            if (p.isRadiant()) radiant[nr++] = p.heroId(); else dire[nd++] = p.heroId();
+        }
+        countSide(radiant, nr, dire, nd, m.didRadiantWin());
+        countSide(dire, nd, radiant, nr, !m.didRadiantWin());
+    }
+
+    /** Everything seen from one side: its picks, its pairs, and its heroes against every enemy hero. */
+    private void countSide(int[] side, int n, int[] enemies, int ne, boolean won) {
+        int w = won ? 1 : 0;
+        for (int i = 0; i < n; i++) {
+            int a = side[i], row = a * capacity;
+            picks[a]++;
+            wins[a] += w;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                withGames[row + side[j]]++;
+                withWins[row + side[j]] += w;
+            }
+            for (int j = 0; j < ne; j++) {
+                vsGames[row + enemies[j]]++;
+                vsWins[row + enemies[j]] += w;
+            }
+        }
+    }
+
+    private void allocate(int cap) {
+        capacity = cap;
+        picks = new int[cap];
+        wins = new int[cap];
+        vsGames = new int[cap * cap];
+        vsWins = new int[cap * cap];
+        withGames = new int[cap * cap];
+        withWins = new int[cap * cap];
+    }
+
+    /** Re-lay the matrices out for a larger hero id space (new heroes are released a few times a year). */
+    private void grow(int needed) {
+        if (needed <= capacity) return;
+        int old = capacity;
+        int[] p = picks, w = wins, vg = vsGames, vw = vsWins, wg = withGames, ww = withWins;
+        allocate(Math.max(needed, old + (old >> 2)));
+        System.arraycopy(p, 0, picks, 0, old);
+        System.arraycopy(w, 0, wins, 0, old);
+        for (int a = 0; a < old; a++) {
+            System.arraycopy(vg, a * old, vsGames, a * capacity, old);
+            System.arraycopy(vw, a * old, vsWins, a * capacity, old);
+            System.arraycopy(wg, a * old, withGames, a * capacity, old);
+            System.arraycopy(ww, a * old, withWins, a * capacity, old);
+        }
+    }
+
+    /** Sum a partial of the same capacity into this one. */
+    private void add(HeroMatrices other) {
+        addInto(picks, other.picks);
+        addInto(wins, other.wins);
+        addInto(vsGames, other.vsGames);
+        addInto(vsWins, other.vsWins);
+        addInto(withGames, other.withGames);
+        addInto(withWins, other.withWins);
+    }
+
+    private static void addInto(int[] into, int[] from) {
+        for (int i = 0; i < into.length; i++) into[i] += from[i];
+    }
+
+    /** Counts a slice of already-deduplicated matches into a private partial; halves are summed on the way up. */
+    private static final class CountTask extends RecursiveTask<HeroMatrices> {
+        private final List<Match> ms;
+        private final int from, to, capacity;
+
+        CountTask(List<Match> ms, int from, int to, int capacity) {
+            this.ms = ms;
+            this.from = from;
+            this.to = to;
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected HeroMatrices compute() {
+            if (to - from <= SLICE) {
+                HeroMatrices partial = new HeroMatrices(capacity);
+                for (int i = from; i < to; i++) partial.count(ms.get(i));
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(ms, from, mid, capacity);
+            left.fork();
+            HeroMatrices right = new CountTask(ms, mid, to, capacity).compute();
+            HeroMatrices merged = left.join();
+            merged.add(right);
+            return merged;
+        }
+    }
+}
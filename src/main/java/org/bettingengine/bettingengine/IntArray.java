@@ -0,0 +1,56 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/** Growable int column; replaces List<Integer> in aggregates so per-match stats are never boxed. */
+public final class IntArray {
+
+    private int[] data;
+    private int size;
+
+    public IntArray() { this(16); }
+
+    public IntArray(int capacity) { this.data = new int[Math.max(1, capacity)]; }
+
+    public void add(int v) {
+        if (size == data.length) data = Arrays.copyOf(data, size << 1);
+        data[size++] = v;
+    }
+
+    public int get(int i) {
+        if (i >= size) throw new IndexOutOfBoundsException(i);
+        return data[i];
+    }
+
+    public void set(int i, int v) {
+        if (i >= size) throw new IndexOutOfBoundsException(i);
+        data[i] = v;
+    }
+
+    /** Forget the contents, keeping the capacity (scratch buffers reused per record). */
+    public void clear() { size = 0; }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public long sum() {
+        long s = 0L;
+        for (int i = 0; i < size; i++) s += data[i];
+        return s;
+    }
+
+    public double average() {
+        return size == 0 ? 0.0 : sum() / (double) size;
+    }
+
+    /** Exact median (mean of the two middle values for even sizes); sorts a copy. */
+    public double median() {
+        if (size == 0) return 0.0;
+        int[] s = Arrays.copyOf(data, size);
+        Arrays.sort(s);
+        return (size % 2 == 1) ? s[size / 2] : (s[size / 2 - 1] + s[size / 2]) / 2.0;
+    }
+
+    public int[] toArray() { return Arrays.copyOf(data, size); }
+}
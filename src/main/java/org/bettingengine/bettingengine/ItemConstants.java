@@ -0,0 +1,57 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The STRATZ item table ({@code constants.items}: id, internal name, display name). It used to ride along in
+ * every team response; now it is fetched once by {@link TournamentTeamPlaysParserImpl#itemConstants} and kept in
+ * outDir/.constants/items.json. Lookups for unknown ids fall back to "item#&lt;id&gt;".
+ */
+public class ItemConstants {
+
+    public record Item(int id, String name, String displayName) {}
+
+    private final Map<Integer, Item> byId;
+    private final Map<String, Integer> idByName;
+    private final long fetchedAtMillis;
+
+    ItemConstants(Map<Integer, Item> byId, long fetchedAtMillis) {
+        this.byId = Map.copyOf(byId);
+        Map<String, Integer> names = new HashMap<>();
+        for (Item it : byId.values()) if (it.name() != null) names.put(it.name(), it.id());
+        this.idByName = Map.copyOf(names);
+        this.fetchedAtMillis = fetchedAtMillis;
+    }
+
+    /** From a {@code constants} node ({"items":[...]}), or from the items array itself. */
+    public static ItemConstants fromJson(JsonNode constants, long fetchedAtMillis) {
+        JsonNode items = constants.isArray() ? constants : constants.path("items");
+        Map<Integer, Item> byId = new HashMap<>();
+        for (JsonNode it : items) {
+            int id = it.path("id").asInt();
+            if (id == 0) continue;
+            byId.put(id, new Item(id, it.path("name").asText(null), it.path("displayName").asText(null)));
+        }
+        return new ItemConstants(byId, fetchedAtMillis);
+    }
+
+    public Item item(int id) { return byId.get(id); }
+
+    /** Id of an internal name such as "item_black_king_bar"; 0 when unknown. */
+    public int idOf(String name) {
+        Integer id = idByName.get(name);
+        return id != null ? id : 0;
+    }
+
+    public String displayName(int id) {
+        Item it = byId.get(id);
+        return it != null && it.displayName() != null ? it.displayName() : "item#" + id;
+    }
+
+    public int size() { return byId.size(); }
+
+    public long fetchedAtMillis() { return fetchedAtMillis; }
+}
@@ -0,0 +1,54 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/**
+ * A player's stats.itemPurchases as parallel columns: game time (seconds, negative before the horn) and STRATZ
+ * item id.
+ */
+public final class ItemPurchases {
+
+    public static final ItemPurchases EMPTY = new ItemPurchases(new int[0], new int[0]);
+
+    private final int[] time, itemId;
+
+    public ItemPurchases(int[] time, int[] itemId) {
+        if (itemId.length != time.length) throw new IllegalArgumentException("column lengths differ");
+        this.time = time;
+        this.itemId = itemId;
+    }
+
+    public int size() { return time.length; }
+
+    public boolean isEmpty() { return time.length == 0; }
+
+    public int time(int i) { return time[i]; }
+
+    public int itemId(int i) { return itemId[i]; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ItemPurchases p && Arrays.equals(time, p.time) && Arrays.equals(itemId, p.itemId);
+    }
+
+    @Override
+    public int hashCode() { return 31 * Arrays.hashCode(time) + Arrays.hashCode(itemId); }
+
+    @Override
+    public String toString() { return "ItemPurchases[time=" + Arrays.toString(time) + ", itemId=" + Arrays.toString(itemId) + "]"; }
+
+    /** Appends purchases one by one. */
+    public static final class Builder {
+        private final IntArray time = new IntArray(), itemId = new IntArray();
+
+        public Builder add(int t, int item) {
+            time.add(t);
+            itemId.add(item);
+            return this;
+        }
+
+        public ItemPurchases build() {
+            return time.isEmpty() ? EMPTY : new ItemPurchases(time.toArray(), itemId.toArray());
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.bettingengine.bettingengine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Item purchase timings over deduplicated matches read with the timeline. For every (hero, item) pair the first
+ * purchase time of each player-match is kept in a primitive column with a {@link QuantileSketch} beside it, and
+ * for every team and player a sketch of "time to first core item" (sketches count pre-horn purchases as 0).
+ * Item ids are interned once against the shared {@link ItemConstants} dictionary into dense slots, so the
+ * per-purchase loop touches only int arrays and open-addressing maps; nothing is boxed.
+ * Not thread-safe while being updated; read-only use after that is safe.
+ */
+public class ItemTimings {
+
+    /** Internal names of the items counted as "core" when no explicit list is given. */
+    public static final List<String> DEFAULT_CORE_ITEMS = List.of(
+            "item_blink", "item_black_king_bar", "item_bfury", "item_manta", "item_radiance", "item_desolator",
+            "item_maelstrom", "item_hand_of_midas", "item_force_staff", "item_glimmer_cape", "item_spirit_vessel");
+
+    private final ItemConstants items;
+    private final LongIntMap seen = new LongIntMap(1024);
+
+    // item id -> dense slot, and the per-slot scratch used while reading one player's purchases
+    private final LongIntMap itemSlots = new LongIntMap(512);
+    private final IntArray itemIdBySlot = new IntArray(512);
+    private int[] slotStamp = new int[512], slotFirstTime = new int[512];
+    private boolean[] coreSlot = new boolean[512];
+    private final IntArray touched = new IntArray(64);
+    private int stamp;
+
+    // (hero, item) -> column
+    private final LongIntMap pairSlots = new LongIntMap(4096);
+    private final List<IntArray> pairTimes = new ArrayList<>();
+    private final List<QuantileSketch> pairSketches = new ArrayList<>();
+    private final IntArray pairHero = new IntArray(), pairItem = new IntArray();
+
+    // time to first core item, and player-matches that never got one
+    private final LongIntMap teamSlots = new LongIntMap(64), playerSlots = new LongIntMap(256);
+    private final List<QuantileSketch> teamCore = new ArrayList<>(), playerCore = new ArrayList<>();
+    private final IntArray teamNoCore = new IntArray(), playerNoCore = new IntArray();
+
+    private int matches;
+    private long purchases;
+
+    /** Core items are {@link #DEFAULT_CORE_ITEMS}. */
+    public ItemTimings(ItemConstants items) {
+        this(items, DEFAULT_CORE_ITEMS);
+    }
+
+    /** @param coreItems internal item names; names unknown to {@code items} are ignored */
+    public ItemTimings(ItemConstants items, Collection<String> coreItems) {
+        this.items = items;
+        for (String name : coreItems) {
+            int id = items.idOf(name);
+            if (id != 0) coreSlot[itemSlot(id)] = true;
+        }
+    }
+
+    /** Fold in one match unless its id was already counted; returns whether it was new. */
+    public boolean accept(Match m) {
+        if (m.id() == 0L || seen.containsKey(m.id())) return false;
+        seen.put(m.id(), 1);
+        matches++;
+        for (PlayerPerformance p : m.players()) {
+            if (p.itemPurchases().isEmpty() || !p.hasSide()) continue;
+            int team = p.isRadiant() ? m.radiantTeamId() : m.direTeamId();
+            acceptPlayer(p, team);
+        }
+        return true;
+    }
+
+    /**
+     * Fold in a team file's matches; rejects a file fetched without item purchases (see
+     * {@link TeamQueryProfile#includesTimeline}), whose players would otherwise count as never buying a core item.
+     */
+    public int acceptAll(TeamMatches team) {
+        if (!team.profile().includesTimeline()) {
+            throw new IllegalArgumentException("Team " + team.teamId() + " was fetched with " + team.profile() + ", without item purchases");
+        }
+        return acceptAll(team.matches());
+    }
+
+    /** Returns how many of {@code ms} were new. */
+    public int acceptAll(Collection<Match> ms) {
+        int added = 0;
+        for (Match m : ms) if (accept(m)) added++;
+        return added;
+    }
+
+    public int matchCount() { return matches; }
+
+    /** Every purchase event seen, repeats included. */
+    public long purchaseCount() { return purchases; }
+
+    /** First-purchase times of {@code itemId} on {@code heroId}, one per player-match; null when never bought. */
+    public QuantileSketch timing(int heroId, int itemId) {
+        int slot = pairSlots.get(pairKey(heroId, itemId));
+        return slot == LongIntMap.MISSING ? null : pairSketches.get(slot);
+    }
+
+    /** The raw column behind {@link #timing} (copy, insertion order); empty when never bought. */
+    public int[] times(int heroId, int itemId) {
+        int slot = pairSlots.get(pairKey(heroId, itemId));
+        return slot == LongIntMap.MISSING ? new int[0] : pairTimes.get(slot).toArray();
+    }
+
+    /**
+     * Items bought on {@code heroId} in at least {@code minCount} player-matches, earliest median first, with the
+     * p25 / p50 / p75 / p90 first-purchase times.
+     */
+    public List<Map<String, Object>> heroItemTimings(int heroId, int minCount) {
+        List<Integer> slots = new ArrayList<>();
+        for (int s = 0, n = pairHero.size(); s < n; s++) {
+            if (pairHero.get(s) == heroId && pairSketches.get(s).count() >= minCount) slots.add(s);
+        }
+        slots.sort((a, b) -> Double.compare(pairSketches.get(a).median(), pairSketches.get(b).median()));
+        List<Map<String, Object>> out = new ArrayList<>(slots.size());
+        for (int s : slots) {
+            int itemId = pairItem.get(s);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("itemId", itemId);
+            row.put("itemName", items.displayName(itemId));
+            row.put("purchases", pairSketches.get(s).count());
+            row.putAll(percentiles(pairSketches.get(s)));
+            out.add(row);
+        }
+        return out;
+    }
+
+    /** Time to first core item over the team's player-matches; null for an unknown team. */
+    public QuantileSketch teamTimeToCore(int teamId) {
+        int slot = teamSlots.get(teamId);
+        return slot == LongIntMap.MISSING ? null : teamCore.get(slot);
+    }
+
+    /** Time to first core item over the player's matches; null for an unknown player. */
+    public QuantileSketch playerTimeToCore(long steamAccountId) {
+        int slot = playerSlots.get(steamAccountId);
+        return slot == LongIntMap.MISSING ? null : playerCore.get(slot);
+    }
+
+    /** Percentiles of a team's time to core plus how many player-matches ended without one; null when unknown. */
+    public Map<String, Object> teamCoreSummary(int teamId) {
+        int slot = teamSlots.get(teamId);
+        return slot == LongIntMap.MISSING ? null : coreSummary(teamCore.get(slot), teamNoCore.get(slot));
+    }
+
+    public Map<String, Object> playerCoreSummary(long steamAccountId) {
+        int slot = playerSlots.get(steamAccountId);
+        return slot == LongIntMap.MISSING ? null : coreSummary(playerCore.get(slot), playerNoCore.get(slot));
+    }
+
+    // ---------- helpers ----------
+
+    private void acceptPlayer(PlayerPerformance p, int teamId) {
+        // first purchase per item, via a stamp per dense item slot instead of a per-player set
+        stamp++;
+        touched.clear();
+        int firstCore = Integer.MAX_VALUE;
+        ItemPurchases ps = p.itemPurchases();
+        for (int i = 0, n = ps.size(); i < n; i++) {
+            int itemId = ps.itemId(i), time = ps.time(i);
+            if (itemId == 0) continue;
+            purchases++;
+            int slot = itemSlot(itemId);
+            if (slotStamp[slot] != stamp) {
+                slotStamp[slot] = stamp;
+                slotFirstTime[slot] = time;
+                touched.add(slot);
+            } else if (time < slotFirstTime[slot]) {
+                slotFirstTime[slot] = time;
+            }
+            if (coreSlot[slot] && time < firstCore) firstCore = time;
+        }
+
+        if (p.heroId() != 0) {
+            for (int i = 0, n = touched.size(); i < n; i++) {
+                int slot = touched.get(i);
+                int pair = pairSlot(p.heroId(), itemIdOfSlot(slot));
+                pairTimes.get(pair).add(slotFirstTime[slot]);
+                pairSketches.get(pair).add(slotFirstTime[slot]);
+            }
+        }
+
+        if (teamId != 0) recordCore(teamSlots, teamCore, teamNoCore, teamId, firstCore);
+        if (p.steamAccountId() != 0L) recordCore(playerSlots, playerCore, playerNoCore, p.steamAccountId(), firstCore);
+    }
+
+    private static void recordCore(LongIntMap slots, List<QuantileSketch> sketches, IntArray noCore, long key, int firstCore) {
+        int slot = slots.get(key);
+        if (slot == LongIntMap.MISSING) {
+            slot = sketches.size();
+            slots.put(key, slot);
+            sketches.add(new QuantileSketch(4096));
+            noCore.add(0);
+        }
+        if (firstCore != Integer.MAX_VALUE) sketches.get(slot).add(firstCore);
+        else noCore.set(slot, noCore.get(slot) + 1);
+    }
+
+    private int itemSlot(int itemId) {
+        int slot = itemSlots.get(itemId);
+        if (slot != LongIntMap.MISSING) return slot;
+        slot = itemIdBySlot.size();
+        itemSlots.put(itemId, slot);
+        itemIdBySlot.add(itemId);
+        if (slot == slotStamp.length) {
+            slotStamp = Arrays.copyOf(slotStamp, slot << 1);
+            slotFirstTime = Arrays.copyOf(slotFirstTime, slot << 1);
+            coreSlot = Arrays.copyOf(coreSlot, slot << 1);
+        }
+        return slot;
+    }
+
+    private int itemIdOfSlot(int slot) { return itemIdBySlot.get(slot); }
+
+    private int pairSlot(int heroId, int itemId) {
+        long key = pairKey(heroId, itemId);
+        int slot = pairSlots.get(key);
+        if (slot != LongIntMap.MISSING) return slot;
+        slot = pairTimes.size();
+        pairSlots.put(key, slot);
+        pairTimes.add(new IntArray(8));
+        pairSketches.add(new QuantileSketch(4096));
+        pairHero.add(heroId);
+        pairItem.add(itemId);
+        return slot;
+    }
+
+    private static long pairKey(int heroId, int itemId) {
+        return ((long) heroId << 32) | (itemId & 0xffffffffL);
+    }
+
+    private static Map<String, Object> coreSummary(QuantileSketch sketch, int withoutCore) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("withCore", sketch.count());
+        out.put("withoutCore", withoutCore);
+        out.putAll(percentiles(sketch));
+        return out;
+    }
+
+    private static Map<String, Object> percentiles(QuantileSketch s) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("p25", s.quantile(0.25));
+        out.put("p50", s.median());
+        out.put("p75", s.quantile(0.75));
+        out.put("p90", s.quantile(0.90));
+        return out;
+    }
+}
@@ -0,0 +1,51 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/** A player's playbackData.killEvents as parallel columns: game time (seconds) and the hero id killed. */
+public final class KillEvents {
+
+    public static final KillEvents EMPTY = new KillEvents(new int[0], new int[0]);
+
+    private final int[] time, target;
+
+    public KillEvents(int[] time, int[] target) {
+        if (target.length != time.length) throw new IllegalArgumentException("column lengths differ");
+        this.time = time;
+        this.target = target;
+    }
+
+    public int size() { return time.length; }
+
+    public boolean isEmpty() { return time.length == 0; }
+
+    public int time(int i) { return time[i]; }
+
+    public int target(int i) { return target[i]; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof KillEvents k && Arrays.equals(time, k.time) && Arrays.equals(target, k.target);
+    }
+
+    @Override
+    public int hashCode() { return 31 * Arrays.hashCode(time) + Arrays.hashCode(target); }
+
+    @Override
+    public String toString() { return "KillEvents[time=" + Arrays.toString(time) + ", target=" + Arrays.toString(target) + "]"; }
+
+    /** Appends events one by one. */
+    public static final class Builder {
+        private final IntArray time = new IntArray(), target = new IntArray();
+
+        public Builder add(int t, int targetHero) {
+            time.add(t);
+            target.add(targetHero);
+            return this;
+        }
+
+        public KillEvents build() {
+            return time.isEmpty() ? EMPTY : new KillEvents(time.toArray(), target.toArray());
+        }
+    }
+}
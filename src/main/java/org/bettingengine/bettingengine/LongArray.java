@@ -0,0 +1,33 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/** Growable long column (match ids, steam ids); the long counterpart of {@link IntArray}. */
+public final class LongArray {
+
+    private long[] data;
+    private int size;
+
+    public LongArray() { this(16); }
+
+    public LongArray(int capacity) { this.data = new long[Math.max(1, capacity)]; }
+
+    public void add(long v) {
+        if (size == data.length) data = Arrays.copyOf(data, size << 1);
+        data[size++] = v;
+    }
+
+    public long get(int i) {
+        if (i >= size) throw new IndexOutOfBoundsException(i);
+        return data[i];
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /** Backing array; only the first {@link #size()} entries are valid. */
+    long[] raw() { return data; }
+
+    public long[] toArray() { return Arrays.copyOf(data, size); }
+}
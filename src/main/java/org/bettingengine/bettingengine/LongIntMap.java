@@ -0,0 +1,87 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long -> int map (linear probing, power-of-two table) for id -> slot lookups without boxing.
+ * Key 0 is reserved as the empty marker; STRATZ never uses 0 as a match or steam id.
+ */
+public final class LongIntMap {
+
+    public static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size, mask, resizeAt;
+
+    public LongIntMap() { this(64); }
+
+    public LongIntMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, (int) (expected / 0.6f)) - 1) << 1;
+        allocate(cap);
+    }
+
+    /** An independent copy of {@code other}. */
+    public LongIntMap(LongIntMap other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+        mask = other.mask;
+        resizeAt = other.resizeAt;
+    }
+
+    public int get(long key) {
+        if (key == 0L) return MISSING;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == 0L) return MISSING;
+        }
+    }
+
+    public boolean containsKey(long key) { return get(key) != MISSING; }
+
+    /** Returns the previous value or {@link #MISSING}. */
+    public int put(long key, int value) {
+        if (key == 0L) throw new IllegalArgumentException("key 0 is reserved");
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                int prev = values[i];
+                values[i] = value;
+                return prev;
+            }
+            if (k == 0L) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size >= resizeAt) rehash();
+                return MISSING;
+            }
+        }
+    }
+
+    public int size() { return size; }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0L) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.6f);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,33 @@
+package org.bettingengine.bettingengine;
+
+import java.util.List;
+
+/**
+ * One entry of team.matches in the GetTeamWithMatches response, flattened to primitives.
+ * {@code towerDeaths} is empty unless the file was fetched with an objectives profile (see {@link TeamQueryProfile}).
+ * Missing scalars read as 0 / false; missing team or league ids are 0 (never a valid STRATZ id). The exceptions are
+ * what the aggregates must tell apart: a missing durationSeconds reads as -1, and {@code hasResult} is false when
+ * didRadiantWin was missing (didRadiantWin then reads false and means nothing).
+ */
+public record Match(long id, long startDateTime, int durationSeconds, boolean didRadiantWin,
+                    int radiantTeamId, String radiantTeamName, int direTeamId, String direTeamName,
+                    int leagueId,
+                    int towerStatusRadiant, int towerStatusDire, int barracksStatusRadiant, int barracksStatusDire,
+                    List<TowerDeath> towerDeaths, List<PlayerPerformance> players, boolean hasResult) {
+
+    /** A match with a known result. */
+    public Match(long id, long startDateTime, int durationSeconds, boolean didRadiantWin,
+                 int radiantTeamId, String radiantTeamName, int direTeamId, String direTeamName,
+                 int leagueId,
+                 int towerStatusRadiant, int towerStatusDire, int barracksStatusRadiant, int barracksStatusDire,
+                 List<TowerDeath> towerDeaths, List<PlayerPerformance> players) {
+        this(id, startDateTime, durationSeconds, didRadiantWin, radiantTeamId, radiantTeamName, direTeamId, direTeamName,
+                leagueId, towerStatusRadiant, towerStatusDire, barracksStatusRadiant, barracksStatusDire,
+                towerDeaths, players, true);
+    }
+
+    /** Whether {@code teamId} won this match; only meaningful if the team played in it and {@link #hasResult}. */
+    public boolean isWinFor(int teamId) {
+        return teamId == radiantTeamId ? didRadiantWin : teamId == direTeamId && !didRadiantWin;
+    }
+}
@@ -0,0 +1,181 @@
+package org.bettingengine.bettingengine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Match-id keyed index over a raw directory. Every match appears in both teams' raw files; here it is stored once
+ * and each team keeps a primitive list of its match ids, so lookups by id are O(1) and cross-team stats never
+ * double count. Not thread-safe while being built or extended; read-only use after that is safe.
+ */
+public class MatchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchIndex.class);
+
+    private final List<Match> matches = new ArrayList<>();
+    private final LongIntMap slotById = new LongIntMap(1024);
+    private final Map<Integer, LongArray> idsByTeam = new HashMap<>();
+    private final Map<Integer, String> teamNames = new HashMap<>();
+
+    /**
+     * Index every raw team file (*.json, not *-analyzed.json) and binary store (*.bems) of {@code rawDir}.
+     * A team that has both forms contributes the same match ids twice, which the index collapses.
+     */
+    public static MatchIndex build(Path rawDir, boolean includeTimeline) throws IOException {
+        return build(rawDir, includeTimeline, null);
+    }
+
+    /**
+     * As {@link #build(Path, boolean)}, reading what {@code needed} fetches and leaving out raw files fetched with a
+     * profile that does not cover it (their matches would read as having no events). Binary stores carry no profile
+     * and are always indexed.
+     */
+    public static MatchIndex build(Path rawDir, TeamQueryProfile needed) throws IOException {
+        return build(rawDir, needed.includesTimeline(), needed);
+    }
+
+    private static MatchIndex build(Path rawDir, boolean includeTimeline, TeamQueryProfile needed) throws IOException {
+        MatchIndex index = new MatchIndex();
+        TeamMatchesReader reader = new TeamMatchesReader(includeTimeline);
+        List<Path> files;
+        try (Stream<Path> s = Files.list(rawDir)) {
+            files = s.filter(p -> {
+                String n = p.getFileName().toString();
+                return (n.endsWith(".json") && !n.endsWith("-analyzed.json")) || n.endsWith(MatchStore.EXTENSION);
+            }).sorted().toList();
+        }
+        for (Path f : files) {
+            if (f.getFileName().toString().endsWith(MatchStore.EXTENSION)) {
+                try (MatchStoreReader store = MatchStoreReader.open(f)) {
+                    for (int i = 0, n = store.matchCount(); i < n; i++) {
+                        if (!index.contains(store.matchId(i))) index.add(store.match(i, includeTimeline));
+                    }
+                }
+            } else {
+                TeamQueryProfile profile = needed != null ? reader.profileOf(f) : null;
+                if (profile != null && !profile.covers(needed)) {
+                    log.warn("Not indexing {}: fetched with {}, which lacks what {} needs", f.getFileName(), profile, needed);
+                    continue;
+                }
+                // the opponent's file already contributed shared matches: skip them at the id token
+                index.addAll(reader.read(f, TeamMatchesReader.ANY_LEAGUE, index::contains).matches());
+            }
+        }
+        return index;
+    }
+
+    /** Add a match unless its id is already indexed; returns whether it was new. */
+    public boolean add(Match m) {
+        if (m.id() == 0L || slotById.containsKey(m.id())) return false;
+        slotById.put(m.id(), matches.size());
+        matches.add(m);
+        if (m.radiantTeamId() != 0) {
+            idsByTeam.computeIfAbsent(m.radiantTeamId(), k -> new LongArray()).add(m.id());
+            if (m.radiantTeamName() != null) teamNames.putIfAbsent(m.radiantTeamId(), m.radiantTeamName());
+        }
+        if (m.direTeamId() != 0) {
+            idsByTeam.computeIfAbsent(m.direTeamId(), k -> new LongArray()).add(m.id());
+            if (m.direTeamName() != null) teamNames.putIfAbsent(m.direTeamId(), m.direTeamName());
+        }
+        return true;
+    }
+
+    /** Returns how many of {@code ms} were new. */
+    public int addAll(List<Match> ms) {
+        int added = 0;
+        for (Match m : ms) if (add(m)) added++;
+        return added;
+    }
+
+    public boolean contains(long matchId) { return slotById.containsKey(matchId); }
+
+    /** O(1); null when unknown. */
+    public Match get(long matchId) {
+        int slot = slotById.get(matchId);
+        return slot == LongIntMap.MISSING ? null : matches.get(slot);
+    }
+
+    public int size() { return matches.size(); }
+
+    /** Every match once, in insertion order. */
+    public List<Match> all() { return List.copyOf(matches); }
+
+    /** Every match once, ordered by (startDateTime, id). */
+    public List<Match> chronological() {
+        List<Match> sorted = new ArrayList<>(matches);
+        sorted.sort(Comparator.comparingLong(Match::startDateTime).thenComparingLong(Match::id));
+        return sorted;
+    }
+
+    /** Match ids of a team (copy); empty when unknown. */
+    public long[] matchIdsOf(int teamId) {
+        LongArray ids = idsByTeam.get(teamId);
+        return ids != null ? ids.toArray() : new long[0];
+    }
+
+    /** A team's matches, optionally restricted to one league ({@link TeamMatchesReader#ANY_LEAGUE} for all). */
+    public List<Match> matchesOf(int teamId, int leagueId) {
+        LongArray ids = idsByTeam.get(teamId);
+        if (ids == null) return List.of();
+        List<Match> out = new ArrayList<>(ids.size());
+        for (int i = 0, n = ids.size(); i < n; i++) {
+            Match m = get(ids.get(i));
+            if (leagueId == TeamMatchesReader.ANY_LEAGUE || m.leagueId() == leagueId) out.add(m);
+        }
+        return out;
+    }
+
+    public int[] teamIds() {
+        int[] ids = idsByTeam.keySet().stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    public String teamName(int teamId) { return teamNames.get(teamId); }
+
+    /** Matches between two teams; walks the shorter of the two id lists. */
+    public List<Match> headToHeadMatches(int teamA, int teamB) {
+        LongArray a = idsByTeam.get(teamA), b = idsByTeam.get(teamB);
+        if (a == null || b == null) return List.of();
+        LongArray shorter = a.size() <= b.size() ? a : b;
+        int other = shorter == a ? teamB : teamA;
+        List<Match> out = new ArrayList<>();
+        for (int i = 0, n = shorter.size(); i < n; i++) {
+            Match m = get(shorter.get(i));
+            if (m.radiantTeamId() == other || m.direTeamId() == other) out.add(m);
+        }
+        return out;
+    }
+
+    public HeadToHead headToHead(int teamA, int teamB) {
+        int winsA = 0, winsB = 0;
+        long last = 0L;
+        List<Match> ms = headToHeadMatches(teamA, teamB);
+        for (Match m : ms) {
+            if (m.hasResult()) {
+                if (m.isWinFor(teamA)) winsA++; else winsB++;
+            }
+            last = Math.max(last, m.startDateTime());
+        }
+        return new HeadToHead(teamA, teamB, ms.size(), winsA, winsB, last);
+    }
+
+    /** Team id -> indexed match count, ascending by team id. */
+    public Map<Integer, Integer> matchCountsByTeam() {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        for (int id : teamIds()) out.put(id, idsByTeam.get(id).size());
+        return out;
+    }
+}
@@ -0,0 +1,84 @@
+package org.bettingengine.bettingengine;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary columnar match store (*.bems) written by {@link MatchStoreWriter}
+ * and memory-mapped by {@link MatchStoreReader}.
+ *
+ * <pre>
+ * header   : magic:int version:int teamId:int teamNameRef:int teamTagRef:int rowCounts:int[Table] columnCount:int
+ * directory: columnCount x (columnOrdinal:int offset:long byteLength:long)
+ * columns  : little-endian, 8-byte aligned, one contiguous array each
+ * </pre>
+ *
+ * Rows are grouped in tables; child tables are addressed through CSR offset columns
+ * (e.g. players of match i are rows [M_PLAYER_OFFSET[i], M_PLAYER_OFFSET[i+1]) ).
+ * String columns hold refs into the STRING table; -1 means null.
+ */
+public final class MatchStore {
+
+    public static final int MAGIC = 0x534D4542; // "BEMS"
+    public static final int VERSION = 1;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final String EXTENSION = ".bems";
+    public static final int NULL_REF = -1;
+
+    public enum Table { MATCH, PLAYER, TOWER_DEATH, KILL, DEATH, PURCHASE, STRING, STRING_BYTES }
+
+    public enum Type {
+        BYTE(1), INT(4), LONG(8);
+        final int width;
+        Type(int width) { this.width = width; }
+    }
+
+    public enum Column {
+        M_ID(Table.MATCH, Type.LONG), M_START(Table.MATCH, Type.LONG), M_DURATION(Table.MATCH, Type.INT),
+        M_RADIANT_WIN(Table.MATCH, Type.BYTE), // 1 radiant won, 0 dire won, -1 no result
+        M_RAD_TEAM(Table.MATCH, Type.INT), M_RAD_NAME(Table.MATCH, Type.INT),
+        M_DIRE_TEAM(Table.MATCH, Type.INT), M_DIRE_NAME(Table.MATCH, Type.INT),
+        M_LEAGUE(Table.MATCH, Type.INT),
+        M_TOWER_RAD(Table.MATCH, Type.INT), M_TOWER_DIRE(Table.MATCH, Type.INT),
+        M_RAX_RAD(Table.MATCH, Type.INT), M_RAX_DIRE(Table.MATCH, Type.INT),
+        M_PLAYER_OFFSET(Table.MATCH, Type.INT, true), M_TOWER_OFFSET(Table.MATCH, Type.INT, true),
+
+        P_FLAGS(Table.PLAYER, Type.BYTE), // bit0 isRadiant, bit1 isVictory, bit2 side missing
+        P_KILLS(Table.PLAYER, Type.INT), P_DEATHS(Table.PLAYER, Type.INT), P_ASSISTS(Table.PLAYER, Type.INT),
+        P_GPM(Table.PLAYER, Type.INT), P_XPM(Table.PLAYER, Type.INT), P_NETWORTH(Table.PLAYER, Type.INT),
+        P_HERO(Table.PLAYER, Type.INT), P_HERO_NAME(Table.PLAYER, Type.INT),
+        P_STEAM(Table.PLAYER, Type.LONG), P_PRO_NAME(Table.PLAYER, Type.INT),
+        P_KILL_OFFSET(Table.PLAYER, Type.INT, true), P_DEATH_OFFSET(Table.PLAYER, Type.INT, true),
+        P_PURCHASE_OFFSET(Table.PLAYER, Type.INT, true),
+
+        T_TIME(Table.TOWER_DEATH, Type.INT), T_NPC(Table.TOWER_DEATH, Type.INT), T_RADIANT(Table.TOWER_DEATH, Type.BYTE),
+
+        K_TIME(Table.KILL, Type.INT), K_TARGET(Table.KILL, Type.INT),
+
+        D_TIME(Table.DEATH, Type.INT), D_ATTACKER(Table.DEATH, Type.INT), D_GOLD_FED(Table.DEATH, Type.INT),
+        D_XP_FED(Table.DEATH, Type.INT), D_GOLD_LOST(Table.DEATH, Type.INT), D_FEED(Table.DEATH, Type.BYTE),
+        D_X(Table.DEATH, Type.INT), D_Y(Table.DEATH, Type.INT),
+
+        I_TIME(Table.PURCHASE, Type.INT), I_ITEM(Table.PURCHASE, Type.INT),
+
+        S_OFFSET(Table.STRING, Type.INT, true), S_BYTES(Table.STRING_BYTES, Type.BYTE);
+
+        public final Table table;
+        public final Type type;
+        /** CSR offset columns have rows(table) + 1 entries. */
+        public final boolean offsets;
+
+        Column(Table table, Type type) { this(table, type, false); }
+        Column(Table table, Type type, boolean offsets) { this.table = table; this.type = type; this.offsets = offsets; }
+    }
+
+    static final byte FLAG_RADIANT = 1, FLAG_VICTORY = 2, FLAG_NO_SIDE = 4;
+    static final byte NO_RESULT = -1;
+
+    static int headerBytes() {
+        return 4 * 5 + 4 * Table.values().length + 4;
+    }
+
+    static long align8(long v) { return (v + 7) & ~7L; }
+
+    private MatchStore() {}
+}
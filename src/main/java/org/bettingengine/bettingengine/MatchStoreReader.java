@@ -0,0 +1,223 @@
+package org.bettingengine.bettingengine;
+
+import org.bettingengine.bettingengine.MatchStore.Column;
+import org.bettingengine.bettingengine.MatchStore.Table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-maps a {@link MatchStore} file and exposes its columns as zero-copy buffer views.
+ * Column views are plain {@link IntBuffer}/{@link LongBuffer}/{@link ByteBuffer} slices of the mapping;
+ * use absolute {@code get(i)} so views can be shared between threads.
+ */
+public class MatchStoreReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int teamId, teamNameRef, teamTagRef;
+    private final int[] rows = new int[Table.values().length];
+    private final ByteBuffer[] columns = new ByteBuffer[Column.values().length];
+
+    // shared read-only views (absolute gets only), resolved once per column
+    private final IntBuffer[] intViews = new IntBuffer[Column.values().length];
+    private final LongBuffer[] longViews = new LongBuffer[Column.values().length];
+    private final ByteBuffer[] byteViews = new ByteBuffer[Column.values().length];
+
+    // hot columns, resolved once
+    private final LongBuffer matchIds, matchStarts;
+    private final IntBuffer playerOffsets, towerOffsets, killOffsets, deathOffsets, purchaseOffsets, stringOffsets;
+    private final ByteBuffer stringBytes;
+    private final String[] stringCache; // decoded lazily; a racy double decode is harmless
+
+    public static MatchStoreReader open(Path file) throws IOException {
+        return new MatchStoreReader(file);
+    }
+
+    private MatchStoreReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            map.order(MatchStore.ORDER);
+            if (map.getInt(0) != MatchStore.MAGIC) throw new IOException("Not a match store: " + file);
+            if (map.getInt(4) != MatchStore.VERSION) throw new IOException("Unsupported match store version " + map.getInt(4) + ": " + file);
+            teamId = map.getInt(8);
+            teamNameRef = map.getInt(12);
+            teamTagRef = map.getInt(16);
+            int pos = 20;
+            for (int t = 0; t < rows.length; t++, pos += 4) rows[t] = map.getInt(pos);
+            int columnCount = map.getInt(pos);
+            pos += 4;
+            for (int i = 0; i < columnCount; i++, pos += 20) {
+                int ordinal = map.getInt(pos);
+                long offset = map.getLong(pos + 4);
+                long length = map.getLong(pos + 12);
+                if (ordinal < columns.length) {
+                    columns[ordinal] = map.slice((int) offset, (int) length).order(MatchStore.ORDER);
+                }
+            }
+            for (Column c : Column.values()) {
+                if (columns[c.ordinal()] == null) continue;
+                switch (c.type) {
+                    case INT -> intViews[c.ordinal()] = intColumn(c);
+                    case LONG -> longViews[c.ordinal()] = longColumn(c);
+                    case BYTE -> byteViews[c.ordinal()] = byteColumn(c);
+                }
+            }
+            // a missing hot column fails here, with the channel still closed below
+            matchIds = longColumn(Column.M_ID);
+            matchStarts = longColumn(Column.M_START);
+            playerOffsets = intColumn(Column.M_PLAYER_OFFSET);
+            towerOffsets = intColumn(Column.M_TOWER_OFFSET);
+            killOffsets = intColumn(Column.P_KILL_OFFSET);
+            deathOffsets = intColumn(Column.P_DEATH_OFFSET);
+            purchaseOffsets = intColumn(Column.P_PURCHASE_OFFSET);
+            stringOffsets = intColumn(Column.S_OFFSET);
+            stringBytes = byteColumn(Column.S_BYTES);
+            stringCache = new String[rows[Table.STRING.ordinal()]];
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // ---------- column views ----------
+    public IntBuffer intColumn(Column c) {
+        requireType(c, MatchStore.Type.INT);
+        return columns[c.ordinal()].duplicate().order(MatchStore.ORDER).asIntBuffer();
+    }
+
+    public LongBuffer longColumn(Column c) {
+        requireType(c, MatchStore.Type.LONG);
+        return columns[c.ordinal()].duplicate().order(MatchStore.ORDER).asLongBuffer();
+    }
+
+    public ByteBuffer byteColumn(Column c) {
+        requireType(c, MatchStore.Type.BYTE);
+        return columns[c.ordinal()].duplicate();
+    }
+
+    public int rows(Table t) { return rows[t.ordinal()]; }
+
+    public int matchCount() { return rows[Table.MATCH.ordinal()]; }
+
+    public int teamId() { return teamId; }
+
+    public String teamName() { return string(teamNameRef); }
+
+    public String teamTag() { return string(teamTagRef); }
+
+    public long matchId(int i) { return matchIds.get(i); }
+
+    public long matchStart(int i) { return matchStarts.get(i); }
+
+    /** Player rows of match i are [playerStart(i), playerStart(i + 1)). */
+    public int playerStart(int i) { return playerOffsets.get(i); }
+
+    public String string(int ref) {
+        if (ref < 0) return null;
+        String cached = stringCache[ref];
+        if (cached != null) return cached;
+        int from = stringOffsets.get(ref), to = stringOffsets.get(ref + 1);
+        byte[] utf8 = new byte[to - from];
+        stringBytes.get(from, utf8);
+        return stringCache[ref] = new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // ---------- materialisation ----------
+    /** Build the typed match at row i (events only when {@code includeTimeline}). */
+    public Match match(int i, boolean includeTimeline) {
+        IntBuffer tTime = ints(Column.T_TIME), tNpc = ints(Column.T_NPC);
+        ByteBuffer tRad = bytes(Column.T_RADIANT);
+        int t0 = towerOffsets.get(i), t1 = towerOffsets.get(i + 1);
+        List<TowerDeath> towers = new ArrayList<>(t1 - t0);
+        for (int t = t0; t < t1; t++) towers.add(new TowerDeath(tTime.get(t), tNpc.get(t), tRad.get(t) != 0));
+
+        int p0 = playerOffsets.get(i), p1 = playerOffsets.get(i + 1);
+        List<PlayerPerformance> players = new ArrayList<>(p1 - p0);
+        for (int p = p0; p < p1; p++) players.add(player(p, includeTimeline));
+
+        byte result = bytes(Column.M_RADIANT_WIN).get(i);
+        return new Match(matchIds.get(i), matchStarts.get(i), ints(Column.M_DURATION).get(i),
+                result == 1,
+                ints(Column.M_RAD_TEAM).get(i), string(ints(Column.M_RAD_NAME).get(i)),
+                ints(Column.M_DIRE_TEAM).get(i), string(ints(Column.M_DIRE_NAME).get(i)),
+                ints(Column.M_LEAGUE).get(i),
+                ints(Column.M_TOWER_RAD).get(i), ints(Column.M_TOWER_DIRE).get(i),
+                ints(Column.M_RAX_RAD).get(i), ints(Column.M_RAX_DIRE).get(i),
+                towers, players, result != MatchStore.NO_RESULT);
+    }
+
+    /** All matches, optionally restricted to one league ({@link TeamMatchesReader#ANY_LEAGUE} for all). */
+    public List<Match> matches(int leagueId, boolean includeTimeline) {
+        IntBuffer league = ints(Column.M_LEAGUE);
+        List<Match> out = new ArrayList<>();
+        for (int i = 0, n = matchCount(); i < n; i++) {
+            if (leagueId != TeamMatchesReader.ANY_LEAGUE && league.get(i) != leagueId) continue;
+            out.add(match(i, includeTimeline));
+        }
+        return out;
+    }
+
+    private PlayerPerformance player(int p, boolean includeTimeline) {
+        byte flags = bytes(Column.P_FLAGS).get(p);
+        KillEvents kills = KillEvents.EMPTY;
+        DeathEvents deaths = DeathEvents.EMPTY;
+        ItemPurchases purchases = ItemPurchases.EMPTY;
+        if (includeTimeline) {
+            // one bulk copy per column slice, no object per event
+            int k0 = killOffsets.get(p), k1 = killOffsets.get(p + 1);
+            if (k1 > k0) kills = new KillEvents(slice(Column.K_TIME, k0, k1), slice(Column.K_TARGET, k0, k1));
+            int d0 = deathOffsets.get(p), d1 = deathOffsets.get(p + 1);
+            if (d1 > d0) {
+                byte[] feedBytes = new byte[d1 - d0];
+                bytes(Column.D_FEED).get(d0, feedBytes);
+                boolean[] feed = new boolean[feedBytes.length];
+                for (int d = 0; d < feed.length; d++) feed[d] = feedBytes[d] != 0;
+                deaths = new DeathEvents(slice(Column.D_TIME, d0, d1), slice(Column.D_ATTACKER, d0, d1),
+                        slice(Column.D_GOLD_FED, d0, d1), slice(Column.D_XP_FED, d0, d1), slice(Column.D_GOLD_LOST, d0, d1),
+                        feed, slice(Column.D_X, d0, d1), slice(Column.D_Y, d0, d1));
+            }
+            int i0 = purchaseOffsets.get(p), i1 = purchaseOffsets.get(p + 1);
+            if (i1 > i0) purchases = new ItemPurchases(slice(Column.I_TIME, i0, i1), slice(Column.I_ITEM, i0, i1));
+        }
+        return new PlayerPerformance((flags & MatchStore.FLAG_RADIANT) != 0, (flags & MatchStore.FLAG_VICTORY) != 0,
+                ints(Column.P_KILLS).get(p), ints(Column.P_DEATHS).get(p), ints(Column.P_ASSISTS).get(p),
+                ints(Column.P_GPM).get(p), ints(Column.P_XPM).get(p), ints(Column.P_NETWORTH).get(p),
+                ints(Column.P_HERO).get(p), string(ints(Column.P_HERO_NAME).get(p)),
+                longs(Column.P_STEAM).get(p), string(ints(Column.P_PRO_NAME).get(p)),
+                kills, deaths, purchases, (flags & MatchStore.FLAG_NO_SIDE) == 0);
+    }
+
+    private IntBuffer ints(Column c) { return intViews[c.ordinal()]; }
+
+    /** Rows [from, to) of an int column. */
+    private int[] slice(Column c, int from, int to) {
+        int[] out = new int[to - from];
+        ints(c).get(from, out);
+        return out;
+    }
+
+    private LongBuffer longs(Column c) { return longViews[c.ordinal()]; }
+
+    private ByteBuffer bytes(Column c) { return byteViews[c.ordinal()]; }
+
+    private void requireType(Column c, MatchStore.Type type) {
+        if (c.type != type) throw new IllegalArgumentException(c + " is " + c.type + ", not " + type);
+        if (columns[c.ordinal()] == null) throw new IllegalStateException("Column " + c + " missing from store");
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // the mapping itself stays valid until GC'd, as with any MappedByteBuffer
+    }
+}
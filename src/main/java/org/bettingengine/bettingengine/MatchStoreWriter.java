@@ -0,0 +1,211 @@
+package org.bettingengine.bettingengine;
+
+import org.bettingengine.bettingengine.MatchStore.Column;
+import org.bettingengine.bettingengine.MatchStore.Table;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates typed matches into primitive columns and writes them as one {@link MatchStore} file.
+ * Strings (team, hero and pro names) are interned into a single string table.
+ */
+public class MatchStoreWriter {
+
+    private final Map<Column, IntArray> ints = new EnumMap<>(Column.class);
+    private final Map<Column, LongArray> longs = new EnumMap<>(Column.class);
+    private final Map<Column, ByteArrayOutputStream> bytes = new EnumMap<>(Column.class);
+    private final int[] rows = new int[Table.values().length];
+
+    private final Map<String, Integer> stringRefs = new HashMap<>();
+    private final IntArray stringOffsets = new IntArray();
+    private final ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+
+    private int teamId;
+    private int teamNameRef = MatchStore.NULL_REF, teamTagRef = MatchStore.NULL_REF;
+
+    public MatchStoreWriter() {
+        for (Column c : Column.values()) {
+            switch (c.type) {
+                case INT -> ints.put(c, new IntArray());
+                case LONG -> longs.put(c, new LongArray());
+                case BYTE -> bytes.put(c, new ByteArrayOutputStream());
+            }
+        }
+        stringOffsets.add(0);
+        for (Column c : Column.values()) {
+            if (c.offsets && c != Column.S_OFFSET) ints.get(c).add(0);
+        }
+    }
+
+    public MatchStoreWriter team(int teamId, String name, String tag) {
+        this.teamId = teamId;
+        this.teamNameRef = intern(name);
+        this.teamTagRef = intern(tag);
+        return this;
+    }
+
+    public void addAll(List<Match> matches) {
+        for (Match m : matches) add(m);
+    }
+
+    public void add(Match m) {
+        longs.get(Column.M_ID).add(m.id());
+        longs.get(Column.M_START).add(m.startDateTime());
+        ints.get(Column.M_DURATION).add(m.durationSeconds());
+        bytes.get(Column.M_RADIANT_WIN).write(!m.hasResult() ? MatchStore.NO_RESULT : m.didRadiantWin() ? 1 : 0);
+        ints.get(Column.M_RAD_TEAM).add(m.radiantTeamId());
+        ints.get(Column.M_RAD_NAME).add(intern(m.radiantTeamName()));
+        ints.get(Column.M_DIRE_TEAM).add(m.direTeamId());
+        ints.get(Column.M_DIRE_NAME).add(intern(m.direTeamName()));
+        ints.get(Column.M_LEAGUE).add(m.leagueId());
+        ints.get(Column.M_TOWER_RAD).add(m.towerStatusRadiant());
+        ints.get(Column.M_TOWER_DIRE).add(m.towerStatusDire());
+        ints.get(Column.M_RAX_RAD).add(m.barracksStatusRadiant());
+        ints.get(Column.M_RAX_DIRE).add(m.barracksStatusDire());
+
+        for (TowerDeath t : m.towerDeaths()) {
+            ints.get(Column.T_TIME).add(t.time());
+            ints.get(Column.T_NPC).add(t.npcId());
+            bytes.get(Column.T_RADIANT).write(t.isRadiant() ? 1 : 0);
+        }
+        rows[Table.TOWER_DEATH.ordinal()] += m.towerDeaths().size();
+        ints.get(Column.M_TOWER_OFFSET).add(rows[Table.TOWER_DEATH.ordinal()]);
+
+        for (PlayerPerformance p : m.players()) addPlayer(p);
+        rows[Table.PLAYER.ordinal()] += m.players().size();
+        ints.get(Column.M_PLAYER_OFFSET).add(rows[Table.PLAYER.ordinal()]);
+
+        rows[Table.MATCH.ordinal()]++;
+    }
+
+    private void addPlayer(PlayerPerformance p) {
+        bytes.get(Column.P_FLAGS).write((p.isRadiant() ? MatchStore.FLAG_RADIANT : 0) | (p.isVictory() ? MatchStore.FLAG_VICTORY : 0)
+                | (p.hasSide() ? 0 : MatchStore.FLAG_NO_SIDE));
+        ints.get(Column.P_KILLS).add(p.kills());
+        ints.get(Column.P_DEATHS).add(p.deaths());
+        ints.get(Column.P_ASSISTS).add(p.assists());
+        ints.get(Column.P_GPM).add(p.goldPerMinute());
+        ints.get(Column.P_XPM).add(p.experiencePerMinute());
+        ints.get(Column.P_NETWORTH).add(p.networth());
+        ints.get(Column.P_HERO).add(p.heroId());
+        ints.get(Column.P_HERO_NAME).add(intern(p.heroName()));
+        longs.get(Column.P_STEAM).add(p.steamAccountId());
+        ints.get(Column.P_PRO_NAME).add(intern(p.proName()));
+
+        KillEvents k = p.killEvents();
+        for (int i = 0; i < k.size(); i++) {
+            ints.get(Column.K_TIME).add(k.time(i));
+            ints.get(Column.K_TARGET).add(k.target(i));
+        }
+        rows[Table.KILL.ordinal()] += k.size();
+        ints.get(Column.P_KILL_OFFSET).add(rows[Table.KILL.ordinal()]);
+
+        DeathEvents d = p.deathEvents();
+        for (int i = 0; i < d.size(); i++) {
+            ints.get(Column.D_TIME).add(d.time(i));
+            ints.get(Column.D_ATTACKER).add(d.attacker(i));
+            ints.get(Column.D_GOLD_FED).add(d.goldFed(i));
+            ints.get(Column.D_XP_FED).add(d.xpFed(i));
+            ints.get(Column.D_GOLD_LOST).add(d.goldLost(i));
+            bytes.get(Column.D_FEED).write(d.isFeed(i) ? 1 : 0);
+            ints.get(Column.D_X).add(d.positionX(i));
+            ints.get(Column.D_Y).add(d.positionY(i));
+        }
+        rows[Table.DEATH.ordinal()] += d.size();
+        ints.get(Column.P_DEATH_OFFSET).add(rows[Table.DEATH.ordinal()]);
+
+        ItemPurchases ip = p.itemPurchases();
+        for (int i = 0; i < ip.size(); i++) {
+            ints.get(Column.I_TIME).add(ip.time(i));
+            ints.get(Column.I_ITEM).add(ip.itemId(i));
+        }
+        rows[Table.PURCHASE.ordinal()] += ip.size();
+        ints.get(Column.P_PURCHASE_OFFSET).add(rows[Table.PURCHASE.ordinal()]);
+    }
+
+    public int matchCount() { return rows[Table.MATCH.ordinal()]; }
+
+    /** Write everything added so far; goes through a ".part" sibling so readers never map a half-written file. */
+    public Path write(Path out) throws IOException {
+        rows[Table.STRING.ordinal()] = stringOffsets.size() - 1;
+        rows[Table.STRING_BYTES.ordinal()] = stringBytes.size();
+
+        Column[] columns = Column.values();
+        long[] offsets = new long[columns.length];
+        long[] lengths = new long[columns.length];
+        long pos = MatchStore.align8(MatchStore.headerBytes() + columns.length * (4L + 8L + 8L));
+        for (Column c : columns) {
+            lengths[c.ordinal()] = (long) columnRows(c) * c.type.width;
+            offsets[c.ordinal()] = pos;
+            pos = MatchStore.align8(pos + lengths[c.ordinal()]);
+        }
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        Path part = out.resolveSibling(out.getFileName() + ".part");
+        try {
+            try (FileChannel ch = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate((int) offsets[0]).order(MatchStore.ORDER);
+                header.putInt(MatchStore.MAGIC).putInt(MatchStore.VERSION).putInt(teamId).putInt(teamNameRef).putInt(teamTagRef);
+                for (int r : rows) header.putInt(r);
+                header.putInt(columns.length);
+                for (Column c : columns) header.putInt(c.ordinal()).putLong(offsets[c.ordinal()]).putLong(lengths[c.ordinal()]);
+                header.position(header.capacity()).flip();
+                writeFully(ch, header, 0L);
+
+                for (Column c : columns) writeFully(ch, encode(c), offsets[c.ordinal()]);
+            }
+            Files.move(part, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        return out;
+    }
+
+    private int columnRows(Column c) {
+        if (c == Column.S_OFFSET) return stringOffsets.size();
+        if (c == Column.S_BYTES) return stringBytes.size();
+        return rows[c.table.ordinal()] + (c.offsets ? 1 : 0);
+    }
+
+    private ByteBuffer encode(Column c) {
+        int n = columnRows(c);
+        ByteBuffer buf = ByteBuffer.allocate(n * c.type.width).order(MatchStore.ORDER);
+        switch (c.type) {
+            case INT -> {
+                IntArray src = c == Column.S_OFFSET ? stringOffsets : ints.get(c);
+                for (int i = 0; i < n; i++) buf.putInt(src.get(i));
+            }
+            case LONG -> buf.asLongBuffer().put(longs.get(c).raw(), 0, n);
+            case BYTE -> buf.put(c == Column.S_BYTES ? stringBytes.toByteArray() : bytes.get(c).toByteArray());
+        }
+        buf.clear();
+        return buf;
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) position += ch.write(buf, position);
+    }
+
+    private int intern(String s) {
+        if (s == null) return MatchStore.NULL_REF;
+        return stringRefs.computeIfAbsent(s, k -> {
+            byte[] utf8 = k.getBytes(StandardCharsets.UTF_8);
+            stringBytes.writeBytes(utf8);
+            stringOffsets.add(stringBytes.size());
+            return stringOffsets.size() - 2;
+        });
+    }
+}
@@ -0,0 +1,320 @@
+package org.bettingengine.bettingengine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Time-sorted in-game events of many matches in flat primitive columns, for in-play questions (first blood, first
+ * tower, first Roshan, gold fed before minute N) asked over thousands of matches. Each {@link Kind} is stored
+ * separately as one CSR block: per match a slice of event times (ascending) with the crediting team and an actor
+ * id in parallel arrays, so "first X" is the slice head and "how many / how much before t" is a binary search.
+ * Matches are found by binary search over the sorted match ids. Immutable after {@link #build}.
+ * <p>
+ * Kills come from the victims' deathEvents (which carry goldFed), or from killEvents when a file has no deaths;
+ * players without a known side are left out. Towers, barracks and Roshan all come from towerDeaths: buildings by
+ * npcId range, Roshan as npcId 133/134 with isRadiant naming the killing side (the ids TeamJsonAnalyzer names).
+ * Needs matches read with the timeline (deaths) and an objectives profile (towerDeaths); see {@link TeamQueryProfile}.
+ * {@link #build(Path)} leaves out files fetched with a lighter profile, so their matches are unknown ({@link #contains}
+ * is false) rather than read as having no kills, towers or Roshan.
+ */
+public final class MatchTimelineIndex {
+
+    /** What an event is; each kind has its own column block. */
+    public enum Kind {
+        /** Hero kill; team = killer's team, actor = victim hero id. */
+        KILL,
+        /** Tower destroyed; team = the side that did not own it, actor = npcId. */
+        TOWER,
+        /** Barracks destroyed; as TOWER. */
+        BARRACKS,
+        /** Roshan killed; team = the killing side, actor = npcId. */
+        ROSHAN
+    }
+
+    /** Returned for a time or team when the event never happened (or the match / data is unknown). */
+    public static final int NONE = -1;
+    /** Team argument meaning "both sides". */
+    public static final int ANY_TEAM = 0;
+
+    private final long[] matchIds;      // ascending
+    private final int[] radiantTeams, direTeams;
+    private final Column[] columns;
+    private final Map<Integer, int[]> slotsByTeam;
+
+    /** One kind's events: slice {@code [offsets[s], offsets[s + 1])} belongs to match slot s. */
+    private static final class Column {
+        final int[] offsets;
+        final int[] time, team, actor;
+        final long[] cumGold; // KILL only: gold fed up to and including each event, restarting per match
+
+        Column(int[] offsets, int[] time, int[] team, int[] actor, long[] cumGold) {
+            this.offsets = offsets;
+            this.time = time;
+            this.team = team;
+            this.actor = actor;
+            this.cumGold = cumGold;
+        }
+    }
+
+    private MatchTimelineIndex(long[] matchIds, int[] radiantTeams, int[] direTeams, Column[] columns, Map<Integer, int[]> slotsByTeam) {
+        this.matchIds = matchIds;
+        this.radiantTeams = radiantTeams;
+        this.direTeams = direTeams;
+        this.columns = columns;
+        this.slotsByTeam = slotsByTeam;
+    }
+
+    /** Index every FULL_TIMELINE raw team file and every store of {@code rawDir}, reading the timeline. */
+    public static MatchTimelineIndex build(Path rawDir) throws IOException {
+        return build(MatchIndex.build(rawDir, TeamQueryProfile.FULL_TIMELINE).all());
+    }
+
+    /** Duplicate match ids keep the first occurrence; matches without events get empty slices. */
+    public static MatchTimelineIndex build(Collection<Match> matches) {
+        Match[] sorted = matches.stream().filter(m -> m.id() != 0L).toArray(Match[]::new);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.id(), b.id()));
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (n == 0 || sorted[n - 1].id() != sorted[i].id()) sorted[n++] = sorted[i];
+        }
+
+        long[] ids = new long[n];
+        int[] radiant = new int[n], dire = new int[n];
+        Builder[] builders = new Builder[Kind.values().length];
+        for (Kind k : Kind.values()) builders[k.ordinal()] = new Builder(n, k == Kind.KILL);
+        Map<Integer, IntArray> teamSlots = new HashMap<>();
+
+        for (int s = 0; s < n; s++) {
+            Match m = sorted[s];
+            ids[s] = m.id();
+            radiant[s] = m.radiantTeamId();
+            dire[s] = m.direTeamId();
+            if (m.radiantTeamId() != 0) teamSlots.computeIfAbsent(m.radiantTeamId(), k -> new IntArray()).add(s);
+            if (m.direTeamId() != 0 && m.direTeamId() != m.radiantTeamId()) teamSlots.computeIfAbsent(m.direTeamId(), k -> new IntArray()).add(s);
+            collectKills(m, builders[Kind.KILL.ordinal()]);
+            for (TowerDeath t : m.towerDeaths()) {
+                int npc = t.npcId();
+                if (npc >= 16 && npc <= 35) {
+                    builders[Kind.TOWER.ordinal()].add(t.time(), npc <= 25 ? m.direTeamId() : m.radiantTeamId(), npc, 0);
+                } else if (npc >= 38 && npc <= 49) {
+                    builders[Kind.BARRACKS.ordinal()].add(t.time(), npc <= 43 ? m.direTeamId() : m.radiantTeamId(), npc, 0);
+                } else if (npc == 133 || npc == 134) {
+                    builders[Kind.ROSHAN.ordinal()].add(t.time(), t.isRadiant() ? m.radiantTeamId() : m.direTeamId(), npc, 0);
+                }
+            }
+            for (Builder b : builders) b.endMatch();
+        }
+
+        Column[] columns = new Column[builders.length];
+        for (int k = 0; k < builders.length; k++) columns[k] = builders[k].build();
+        Map<Integer, int[]> slotsByTeam = new HashMap<>();
+        teamSlots.forEach((team, slots) -> slotsByTeam.put(team, slots.toArray()));
+        return new MatchTimelineIndex(ids, radiant, dire, columns, Map.copyOf(slotsByTeam));
+    }
+
+    public int matchCount() { return matchIds.length; }
+
+    public boolean contains(long matchId) { return Arrays.binarySearch(matchIds, matchId) >= 0; }
+
+    /** Events of {@code kind} in the match; 0 when unknown. */
+    public int eventCount(long matchId, Kind kind) {
+        int s = slot(matchId);
+        if (s < 0) return 0;
+        Column c = columns[kind.ordinal()];
+        return c.offsets[s + 1] - c.offsets[s];
+    }
+
+    /** Game time (seconds) of the first {@code kind} event, {@link #NONE} if there was none. */
+    public int firstTime(long matchId, Kind kind) {
+        int s = slot(matchId);
+        if (s < 0) return NONE;
+        Column c = columns[kind.ordinal()];
+        return c.offsets[s] < c.offsets[s + 1] ? c.time[c.offsets[s]] : NONE;
+    }
+
+    /** Team credited with the first {@code kind} event, {@link #NONE} if there was none. */
+    public int firstTeam(long matchId, Kind kind) {
+        int s = slot(matchId);
+        if (s < 0) return NONE;
+        Column c = columns[kind.ordinal()];
+        return c.offsets[s] < c.offsets[s + 1] ? c.team[c.offsets[s]] : NONE;
+    }
+
+    /** Actor of the first {@code kind} event (victim hero, destroyed npc), {@link #NONE} if there was none. */
+    public int firstActor(long matchId, Kind kind) {
+        int s = slot(matchId);
+        if (s < 0) return NONE;
+        Column c = columns[kind.ordinal()];
+        return c.offsets[s] < c.offsets[s + 1] ? c.actor[c.offsets[s]] : NONE;
+    }
+
+    public int firstBloodTime(long matchId) { return firstTime(matchId, Kind.KILL); }
+
+    public int firstBloodTeam(long matchId) { return firstTeam(matchId, Kind.KILL); }
+
+    public int firstTowerTime(long matchId) { return firstTime(matchId, Kind.TOWER); }
+
+    public int firstTowerTeam(long matchId) { return firstTeam(matchId, Kind.TOWER); }
+
+    public int firstRoshanTime(long matchId) { return firstTime(matchId, Kind.ROSHAN); }
+
+    public int firstRoshanTeam(long matchId) { return firstTeam(matchId, Kind.ROSHAN); }
+
+    /** {@code kind} events credited to {@code teamId} (or {@link #ANY_TEAM}) strictly before {@code seconds}. */
+    public int countBefore(long matchId, Kind kind, int teamId, int seconds) {
+        int s = slot(matchId);
+        if (s < 0) return 0;
+        Column c = columns[kind.ordinal()];
+        int from = c.offsets[s], to = cutoff(c, s, seconds);
+        if (teamId == ANY_TEAM) return to - from;
+        int count = 0;
+        for (int i = from; i < to; i++) if (c.team[i] == teamId) count++;
+        return count;
+    }
+
+    /** Gold fed to the enemy by deaths strictly before minute {@code minute}, both sides together. */
+    public long goldFedBeforeMinute(long matchId, int minute) {
+        int s = slot(matchId);
+        if (s < 0) return 0L;
+        Column c = columns[Kind.KILL.ordinal()];
+        int to = cutoff(c, s, minute * 60);
+        return to > c.offsets[s] ? c.cumGold[to - 1] : 0L;
+    }
+
+    /**
+     * Gold {@code teamId}'s players fed to the enemy by dying strictly before minute {@code minute}. One side's
+     * total is the side-filtered sum over the binary-searched prefix.
+     */
+    public long goldFedBeforeMinute(long matchId, int teamId, int minute) {
+        if (teamId == ANY_TEAM) return goldFedBeforeMinute(matchId, minute);
+        int s = slot(matchId);
+        if (s < 0) return 0L;
+        Column c = columns[Kind.KILL.ordinal()];
+        int from = c.offsets[s], to = cutoff(c, s, minute * 60);
+        long sum = 0L;
+        for (int i = from; i < to; i++) {
+            if (c.team[i] != teamId) sum += c.cumGold[i] - (i > from ? c.cumGold[i - 1] : 0L); // killer is the other side
+        }
+        return sum;
+    }
+
+    /**
+     * Share of {@code teamId}'s matches with at least one {@code kind} event in which it was credited with the
+     * first one (e.g. first-blood rate); {@code NaN} when there is no such match.
+     */
+    public double firstRate(int teamId, Kind kind) {
+        Column c = columns[kind.ordinal()];
+        int decided = 0, won = 0;
+        for (int s : slotsByTeam.getOrDefault(teamId, new int[0])) {
+            if (c.offsets[s] == c.offsets[s + 1]) continue;
+            decided++;
+            if (c.team[c.offsets[s]] == teamId) won++;
+        }
+        return decided == 0 ? Double.NaN : won / (double) decided;
+    }
+
+    /** Sketch of first-{@code kind} times over {@code teamId}'s matches ({@link #ANY_TEAM} for all matches). */
+    public QuantileSketch firstTimes(int teamId, Kind kind) {
+        Column c = columns[kind.ordinal()];
+        QuantileSketch sketch = new QuantileSketch();
+        if (teamId == ANY_TEAM) {
+            for (int s = 0; s < matchIds.length; s++) if (c.offsets[s] < c.offsets[s + 1]) sketch.add(c.time[c.offsets[s]]);
+        } else {
+            for (int s : slotsByTeam.getOrDefault(teamId, new int[0])) if (c.offsets[s] < c.offsets[s + 1]) sketch.add(c.time[c.offsets[s]]);
+        }
+        return sketch;
+    }
+
+    /** Match ids a team played, ascending; empty when unknown. */
+    public long[] matchIdsOf(int teamId) {
+        int[] slots = slotsByTeam.getOrDefault(teamId, new int[0]);
+        long[] out = new long[slots.length];
+        for (int i = 0; i < slots.length; i++) out[i] = matchIds[slots[i]];
+        return out;
+    }
+
+    // ---------- helpers ----------
+
+    private int slot(long matchId) {
+        int s = Arrays.binarySearch(matchIds, matchId);
+        return s >= 0 ? s : -1;
+    }
+
+    /** First index of slot {@code s}'s slice whose time is {@code >= seconds}. */
+    private static int cutoff(Column c, int s, int seconds) {
+        int lo = c.offsets[s], hi = c.offsets[s + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c.time[mid] < seconds) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void collectKills(Match m, Builder kills) {
+        boolean anyDeaths = false;
+        for (PlayerPerformance p : m.players()) {
+            if (!p.hasSide()) continue;
+            int killerTeam = p.isRadiant() ? m.direTeamId() : m.radiantTeamId();
+            DeathEvents d = p.deathEvents();
+            for (int i = 0; i < d.size(); i++) kills.add(d.time(i), killerTeam, p.heroId(), d.goldFed(i));
+            anyDeaths |= !d.isEmpty();
+        }
+        if (anyDeaths) return;
+        for (PlayerPerformance p : m.players()) {
+            if (!p.hasSide()) continue;
+            int team = p.isRadiant() ? m.radiantTeamId() : m.direTeamId();
+            KillEvents k = p.killEvents();
+            for (int i = 0; i < k.size(); i++) kills.add(k.time(i), team, k.target(i), 0);
+        }
+    }
+
+    /** Accumulates one kind's columns match by match, sorting each match's slice by time as it is closed. */
+    private static final class Builder {
+        final int[] offsets;
+        final boolean withGold;
+        final IntArray time = new IntArray(), team = new IntArray(), actor = new IntArray(), gold = new IntArray();
+        int matches;
+
+        Builder(int matchCount, boolean withGold) {
+            this.offsets = new int[matchCount + 1];
+            this.withGold = withGold;
+        }
+
+        void add(int t, int teamId, int actorId, int goldFed) {
+            time.add(t);
+            team.add(teamId);
+            actor.add(actorId);
+            gold.add(goldFed);
+        }
+
+        void endMatch() {
+            offsets[++matches] = time.size();
+        }
+
+        Column build() {
+            int[] t = time.toArray(), tm = team.toArray(), a = actor.toArray(), g = gold.toArray();
+            int[] st = new int[t.length], stm = new int[t.length], sa = new int[t.length];
+            long[] cum = withGold ? new long[t.length] : null;
+            for (int s = 0; s < matches; s++) {
+                int from = offsets[s], to = offsets[s + 1];
+                // (time, original position) packed into one long: a stable primitive sort of the slice
+                long[] keys = new long[to - from];
+                for (int i = from; i < to; i++) keys[i - from] = ((long) t[i] << 32) | (i - from);
+                Arrays.sort(keys);
+                long running = 0L;
+                for (int j = 0; j < keys.length; j++) {
+                    int src = from + (int) keys[j];
+                    st[from + j] = t[src];
+                    stm[from + j] = tm[src];
+                    sa[from + j] = a[src];
+                    if (cum != null) cum[from + j] = running += g[src];
+                }
+            }
+            return new Column(offsets, st, stm, sa, cum);
+        }
+    }
+}
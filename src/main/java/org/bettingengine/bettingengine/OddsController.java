@@ -0,0 +1,89 @@
+package org.bettingengine.bettingengine;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only query API over {@link OddsIndexService}. GET bodies are the snapshot's precomputed JSON bytes written
+ * as-is (no per-request serialization); unknown teams are 404.
+ * The handlers' own latency is measured by OddsQueryBenchmark; the p99 target (5 ms) is end to end.
+ */
+@RestController
+@RequestMapping(path = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class OddsController {
+
+    private final OddsIndexService odds;
+    private final OddsProperties props;
+
+    @GetMapping("/teams")
+    public ResponseEntity<byte[]> teams() {
+        return ok(odds.snapshot().teamsBody());
+    }
+
+    @GetMapping("/teams/{teamId}")
+    public ResponseEntity<byte[]> team(@PathVariable int teamId) {
+        return ok(odds.snapshot().teamBody(teamId));
+    }
+
+    @GetMapping("/teams/{teamId}/players")
+    public ResponseEntity<byte[]> players(@PathVariable int teamId) {
+        return ok(odds.snapshot().playersBody(teamId));
+    }
+
+    @GetMapping("/head-to-head/{teamA}/{teamB}")
+    public ResponseEntity<byte[]> headToHead(@PathVariable int teamA, @PathVariable int teamB) {
+        return ok(odds.snapshot().headToHeadBody(teamA, teamB));
+    }
+
+    @GetMapping("/matchups/{teamA}/{teamB}")
+    public ResponseEntity<byte[]> matchup(@PathVariable int teamA, @PathVariable int teamB) {
+        return ok(odds.snapshot().matchupBody(teamA, teamB));
+    }
+
+    @GetMapping("/heroes/{heroA}/{heroB}")
+    public ResponseEntity<byte[]> heroPair(@PathVariable int heroA, @PathVariable int heroB) {
+        return ok(odds.snapshot().heroPairBody(heroA, heroB));
+    }
+
+    /**
+     * Rebuild the index from disk (e.g. after a sync) and report what was loaded. A full rebuild is expensive, so it
+     * takes {@code odds.admin-token} in the X-Admin-Token header: 404 while no token is configured, 403 on a mismatch.
+     */
+    @PostMapping("/admin/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestHeader(name = "X-Admin-Token", required = false) String token)
+            throws IOException {
+        String expected = props.getAdminToken();
+        if (expected == null || expected.isBlank()) return ResponseEntity.notFound().build();
+        if (token == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        OddsSnapshot s = odds.refresh();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("teams", s.teamCount());
+        body.put("matches", s.matchCount());
+        body.put("leagueId", s.leagueId());
+        body.put("buildMillis", s.buildTime().toMillis());
+        return ResponseEntity.ok(body);
+    }
+
+    // ---------- helpers ----------
+
+    private static ResponseEntity<byte[]> ok(byte[] body) {
+        return body != null ? ResponseEntity.ok(body) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,83 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link OddsSnapshot} for the query API. Readers take one volatile read of the reference and
+ * never block; {@link #refresh} builds a complete new snapshot off to the side and swaps it in atomically, so a
+ * request sees either the old data or the new, never a mix. Refreshes are serialized.
+ */
+@Service
+@EnableConfigurationProperties(OddsProperties.class)
+public class OddsIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(OddsIndexService.class);
+
+    private final OddsProperties props;
+    private final ObjectMapper mapper;
+    private final AtomicReference<OddsSnapshot> current;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public OddsIndexService(OddsProperties props, ObjectMapper mapper, PipelineMetrics metrics) {
+        this.props = props;
+        this.mapper = mapper;
+        this.current = new AtomicReference<>(OddsSnapshot.empty(mapper));
+        metrics.bindOddsIndex(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!props.isLoadOnStartup()) return;
+        try {
+            refresh();
+        } catch (IOException e) {
+            log.warn("Odds index not loaded from {} : {}", props.getDataDir(), e.getMessage());
+        }
+    }
+
+    public OddsSnapshot snapshot() {
+        return current.get();
+    }
+
+    /** Rebuild from {@code odds.data-dir} and swap the new snapshot in; returns it. */
+    public OddsSnapshot refresh() throws IOException {
+        refreshLock.lock();
+        try {
+            OddsSnapshot next = OddsSnapshot.build(Path.of(props.getDataDir()), props.getLeagueId(), mapper);
+            current.set(next);
+            log.info("Odds index: {} teams, {} matches in {} ms", next.teamCount(), next.matchCount(), next.buildTime().toMillis());
+            return next;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /** Fold the new matches of {@code teamFiles} into the current snapshot (see {@link OddsSnapshot#extend}); returns the result. */
+    public OddsSnapshot refresh(Collection<Path> teamFiles) throws IOException {
+        refreshLock.lock();
+        try {
+            OddsSnapshot prev = current.get();
+            OddsSnapshot next = prev.extend(teamFiles);
+            if (next != prev) {
+                current.set(next);
+                log.info("Odds index: +{} matches from {} files in {} ms", next.matchCount() - prev.matchCount(),
+                        teamFiles.size(), next.buildTime().toMillis());
+            }
+            return next;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.bettingengine.bettingengine;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** {@code odds.*} settings for the query API; see application.properties for the defaults in use. */
+@Data
+@ConfigurationProperties(prefix = "odds")
+public class OddsProperties {
+
+    /** Raw team files (*.json / *.bems) the index is built from. */
+    private String dataDir = "out";
+    /** League the team aggregates are restricted to; -1 means every league. Ratings always use every match. */
+    private int leagueId = TeamMatchesReader.ANY_LEAGUE;
+    /** Build the index when the application is ready; otherwise the API serves an empty index until a refresh. */
+    private boolean loadOnStartup = true;
+    /** Required in the {@code X-Admin-Token} header of POST /api/admin/refresh; blank (the default) disables it. */
+    private String adminToken = "";
+}
@@ -0,0 +1,260 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-optimized view of one raw directory for the query API: a {@link MatchIndex}, Glicko-2 ratings replayed over
+ * every match, {@link HeroMatrices} for draft queries, and per-team aggregate / best-hero bodies serialized to JSON
+ * bytes once at build time. Pair queries (head-to-head, matchups, hero pairs) are computed on first request and
+ * memoized as bytes, so every later hit is a map lookup. The snapshot is logically immutable after {@link #build}:
+ * only those memo caches fill in, and a refresh builds a new snapshot and swaps it in whole.
+ */
+public final class OddsSnapshot {
+
+    private final ObjectMapper mapper;
+    private final MatchIndex index;
+    private final Glicko2RatingEngine ratings;
+    private final HeroMatrices heroes;
+    private final int leagueId;
+    private final long builtAtMillis;
+    private final Duration buildTime;
+
+    private final byte[] teamsBody;
+    private final Map<Integer, byte[]> teamBodies;
+    private final Map<Integer, byte[]> playerBodies;
+    private final Map<Integer, Map<String, Object>> teamRows;
+    private final Map<Long, byte[]> headToHeadBodies = new ConcurrentHashMap<>();
+    private final Map<Long, byte[]> matchupBodies = new ConcurrentHashMap<>();
+    private final Map<Long, byte[]> heroPairBodies = new ConcurrentHashMap<>();
+
+    private OddsSnapshot(ObjectMapper mapper, MatchIndex index, Glicko2RatingEngine ratings, HeroMatrices heroes, int leagueId,
+                         long builtAtMillis, Duration buildTime, byte[] teamsBody,
+                         Map<Integer, byte[]> teamBodies, Map<Integer, byte[]> playerBodies,
+                         Map<Integer, Map<String, Object>> teamRows) {
+        this.mapper = mapper;
+        this.index = index;
+        this.ratings = ratings;
+        this.heroes = heroes;
+        this.leagueId = leagueId;
+        this.builtAtMillis = builtAtMillis;
+        this.buildTime = buildTime;
+        this.teamsBody = teamsBody;
+        this.teamBodies = teamBodies;
+        this.playerBodies = playerBodies;
+        this.teamRows = teamRows;
+    }
+
+    /** Index {@code rawDir} (a missing directory gives an empty snapshot) and precompute every per-team body. */
+    public static OddsSnapshot build(Path rawDir, int leagueId, ObjectMapper mapper) throws IOException {
+        long started = System.nanoTime();
+        MatchIndex index = Files.isDirectory(rawDir) ? MatchIndex.build(rawDir, false) : new MatchIndex();
+        return create(index, leagueId, mapper, started);
+    }
+
+    /**
+     * A new snapshot with the matches of {@code teamFiles} (raw JSON, e.g. just synced) that this one lacks. Only
+     * those files are read, and only their new matches are decoded. Copies of this snapshot's ratings and hero
+     * matrices take just the new matches (a match older than a team's latest rated one is not replayed, see
+     * {@link Glicko2RatingEngine#apply}), and only the teams they involve get new bodies; every other body, and
+     * every memoized pair body of two such teams, is carried over. Returns this snapshot when nothing is new.
+     */
+    public OddsSnapshot extend(Collection<Path> teamFiles) throws IOException {
+        long started = System.nanoTime();
+        TeamMatchesReader reader = new TeamMatchesReader(false);
+        List<Match> fresh = new ArrayList<>();
+        LongIntMap seen = new LongIntMap(64);
+        for (Path f : teamFiles) {
+            // both teams' files carry a shared match: skip ids already indexed or already taken from another file
+            for (Match m : reader.read(f, TeamMatchesReader.ANY_LEAGUE, id -> index.contains(id) || seen.containsKey(id)).matches()) {
+                if (seen.containsKey(m.id())) continue;
+                seen.put(m.id(), 1);
+                fresh.add(m);
+            }
+        }
+        if (fresh.isEmpty()) return this;
+        MatchIndex next = new MatchIndex();
+        next.addAll(index.all());
+        next.addAll(fresh);
+
+        Glicko2RatingEngine nextRatings = ratings.copy();
+        nextRatings.applyAll(fresh);
+        HeroMatrices nextHeroes = heroes.copy();
+        nextHeroes.acceptAll(fresh);
+        Set<Integer> touched = new HashSet<>();
+        for (Match m : fresh) {
+            touched.add(m.radiantTeamId());
+            touched.add(m.direTeamId());
+        }
+
+        OddsSnapshot extended = create(next, nextRatings, nextHeroes, leagueId, mapper, started, this, touched);
+        carryOver(headToHeadBodies, extended.headToHeadBodies, touched);
+        carryOver(matchupBodies, extended.matchupBodies, touched);
+        return extended;
+    }
+
+    public static OddsSnapshot empty(ObjectMapper mapper) {
+        try {
+            return create(new MatchIndex(), TeamMatchesReader.ANY_LEAGUE, mapper, System.nanoTime());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OddsSnapshot create(MatchIndex index, int leagueId, ObjectMapper mapper, long started) throws JsonProcessingException {
+        Glicko2RatingEngine ratings = new Glicko2RatingEngine();
+        ratings.applyAll(index.all());
+        return create(index, ratings, HeroMatrices.build(index.all()), leagueId, mapper, started, null, Set.of());
+    }
+
+    /** Bodies of every team of {@code index}; those of {@code previous} are reused for teams not in {@code touched}. */
+    private static OddsSnapshot create(MatchIndex index, Glicko2RatingEngine ratings, HeroMatrices heroes, int leagueId,
+                                       ObjectMapper mapper, long started, OddsSnapshot previous, Set<Integer> touched)
+            throws JsonProcessingException {
+        Map<Integer, byte[]> teamBodies = new HashMap<>();
+        Map<Integer, byte[]> playerBodies = new HashMap<>();
+        Map<Integer, Map<String, Object>> teamRows = new HashMap<>();
+        List<Map<String, Object>> teams = new ArrayList<>();
+        for (int teamId : index.teamIds()) {
+            if (previous != null && !touched.contains(teamId) && previous.teamRows.containsKey(teamId)) {
+                teamBodies.put(teamId, previous.teamBodies.get(teamId));
+                playerBodies.put(teamId, previous.playerBodies.get(teamId));
+                teamRows.put(teamId, previous.teamRows.get(teamId));
+                teams.add(previous.teamRows.get(teamId));
+                continue;
+            }
+            TeamAggregator agg = new TeamAggregator(teamId);
+            agg.acceptAll(index.matchesOf(teamId, leagueId));
+            Glicko2RatingEngine.Rating r = ratings.teamRating(teamId);
+
+            Map<String, Object> team = new LinkedHashMap<>();
+            team.put("id", teamId);
+            team.put("name", index.teamName(teamId));
+            team.put("rating", r);
+            team.put("aggregates", agg.teamAggregates());
+            teamBodies.put(teamId, mapper.writeValueAsBytes(team));
+            playerBodies.put(teamId, mapper.writeValueAsBytes(Map.of("teamId", teamId, "players", agg.playerAggregates())));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", teamId);
+            row.put("name", index.teamName(teamId));
+            row.put("matches", agg.matchesCount());
+            row.put("rating", r.rating());
+            teamRows.put(teamId, row);
+            teams.add(row);
+        }
+        teams.sort((a, b) -> Double.compare((double) b.get("rating"), (double) a.get("rating")));
+
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        byte[] teamsBody = mapper.writeValueAsBytes(Map.of("leagueId", leagueId, "teams", teams));
+        return new OddsSnapshot(mapper, index, ratings, heroes, leagueId, System.currentTimeMillis(), took, teamsBody,
+                Map.copyOf(teamBodies), Map.copyOf(playerBodies), Map.copyOf(teamRows));
+    }
+
+    /** Teams ranked by rating. */
+    public byte[] teamsBody() { return teamsBody; }
+
+    /** Team rating and aggregates; null for an unknown team. */
+    public byte[] teamBody(int teamId) { return teamBodies.get(teamId); }
+
+    /** Per-player aggregates with best heroes; null for an unknown team. */
+    public byte[] playersBody(int teamId) { return playerBodies.get(teamId); }
+
+    /** Head-to-head record from {@code teamA}'s side; null when either team is unknown. */
+    public byte[] headToHeadBody(int teamA, int teamB) {
+        if (!teamBodies.containsKey(teamA) || !teamBodies.containsKey(teamB)) return null;
+        return headToHeadBodies.computeIfAbsent(pairKey(teamA, teamB), k -> json(index.headToHead(teamA, teamB)));
+    }
+
+    /**
+     * Rating-based win probability of {@code teamA} over {@code teamB} for a single game and Bo3 / Bo5 series,
+     * with both ratings and the head-to-head record; null when either team is unknown.
+     */
+    public byte[] matchupBody(int teamA, int teamB) {
+        if (!teamBodies.containsKey(teamA) || !teamBodies.containsKey(teamB)) return null;
+        return matchupBodies.computeIfAbsent(pairKey(teamA, teamB), k -> {
+            double p = ratings.winProbability(teamA, teamB);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("teamA", teamA);
+            body.put("teamB", teamB);
+            body.put("winProbabilityA", p);
+            body.put("bo3WinProbabilityA", TournamentSimulator.seriesWinProbability(p, 3));
+            body.put("bo5WinProbabilityA", TournamentSimulator.seriesWinProbability(p, 5));
+            body.put("ratingA", ratings.teamRating(teamA));
+            body.put("ratingB", ratings.teamRating(teamB));
+            body.put("headToHead", index.headToHead(teamA, teamB));
+            return json(body);
+        });
+    }
+
+    /**
+     * Draft view of two heroes: each one's picks and win rate, how {@code heroA} fared against {@code heroB} and how
+     * the pair did on the same side; null when either hero was never picked.
+     */
+    public byte[] heroPairBody(int heroA, int heroB) {
+        if (heroes.picks(heroA) == 0 || heroes.picks(heroB) == 0) return null;
+        return heroPairBodies.computeIfAbsent(pairKey(heroA, heroB), k -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("heroA", heroA);
+            body.put("heroB", heroB);
+            body.put("picksA", heroes.picks(heroA));
+            body.put("winRateA", heroes.winRate(heroA));
+            body.put("picksB", heroes.picks(heroB));
+            body.put("winRateB", heroes.winRate(heroB));
+            body.put("gamesAgainst", heroes.gamesAgainst(heroA, heroB));
+            body.put("winRateAAgainstB", nullIfNaN(heroes.winRateAgainst(heroA, heroB)));
+            body.put("gamesTogether", heroes.gamesWith(heroA, heroB));
+            body.put("winRateTogether", nullIfNaN(heroes.winRateWith(heroA, heroB)));
+            return json(body);
+        });
+    }
+
+    public int teamCount() { return teamBodies.size(); }
+
+    public int matchCount() { return index.size(); }
+
+    public int leagueId() { return leagueId; }
+
+    public long builtAtMillis() { return builtAtMillis; }
+
+    public Duration buildTime() { return buildTime; }
+
+    // ---------- helpers ----------
+
+    private static long pairKey(int a, int b) {
+        return ((long) a << 32) | (b & 0xffffffffL);
+    }
+
+    /** Copy the memoized pair bodies in which neither team is in {@code touched}. */
+    private static void carryOver(Map<Long, byte[]> from, Map<Long, byte[]> into, Set<Integer> touched) {
+        from.forEach((key, body) -> {
+            if (!touched.contains((int) (key >> 32)) && !touched.contains((int) (long) key)) into.put(key, body);
+        });
+    }
+
+    private static Double nullIfNaN(double v) {
+        return Double.isNaN(v) ? null : v;
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
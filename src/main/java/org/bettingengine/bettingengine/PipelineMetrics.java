@@ -0,0 +1,253 @@
+package org.bettingengine.bettingengine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Micrometer meters for the fetch / parse / analyze / write pipeline, exported through Actuator
+ * ({@code /actuator/metrics}). Stage timers are {@code pipeline.stage} tagged {@code stage} and {@code kind};
+ * STRATZ calls are {@code stratz.requests} / {@code stratz.response.bytes} tagged with the GraphQL operation.
+ * Components built outside Spring default to {@link #NOOP}, whose meters record nothing.
+ */
+@Component
+public class PipelineMetrics {
+
+    /** Meters on an empty composite registry: every call is a no-op. */
+    public static final PipelineMetrics NOOP = new PipelineMetrics(new CompositeMeterRegistry());
+
+    private static final Pattern OPERATION = Pattern.compile("\\b(?:query|mutation)\\s+(\\w+)");
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry registry() { return registry; }
+
+    // ---------- stages ----------
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /** Stop {@code sample} into {@code pipeline.stage{stage, kind}}; returns the elapsed nanos. */
+    public long stop(Timer.Sample sample, String stage, String kind) {
+        return sample.stop(Timer.builder("pipeline.stage")
+                .description("Time spent per pipeline stage")
+                .tag("stage", stage).tag("kind", kind)
+                .register(registry));
+    }
+
+    /** Times {@code mono} from subscription to success into {@code pipeline.stage{stage, kind}}. */
+    public <T> Mono<T> timed(Mono<T> mono, String stage, String kind) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = start();
+            return mono.doOnSuccess(v -> stop(sample, stage, kind));
+        });
+    }
+
+    public void matches(String kind, long n) {
+        Counter.builder("pipeline.matches").tag("kind", kind).register(registry).increment(n);
+    }
+
+    /** In-game events (kills, deaths, objectives, purchases) or career players seen by a stage. */
+    public void events(String kind, long n) {
+        Counter.builder("pipeline.events").tag("kind", kind).register(registry).increment(n);
+    }
+
+    public void graphQlErrors(String operation) {
+        graphQlErrors(operation, 1);
+    }
+
+    public void graphQlErrors(String operation, long n) {
+        Counter.builder("stratz.graphql.errors").tag("operation", operation).register(registry).increment(n);
+    }
+
+    /** Bytes allocated by the current thread so far; -1 when the JVM cannot tell. */
+    public long threadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemoryEnabled()) {
+            return t.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+
+    /** Record what one file cost in heap, given {@link #threadAllocatedBytes} taken before starting it. */
+    public void allocatedSince(long before, String kind) {
+        if (before < 0L) return;
+        DistributionSummary.builder("pipeline.allocated")
+                .description("Heap allocated per file").baseUnit("bytes")
+                .tag("kind", kind)
+                .register(registry)
+                .record(threadAllocatedBytes() - before);
+    }
+
+    // ---------- HTTP ----------
+
+    /**
+     * Times every STRATZ call from request to response headers by GraphQL operation and status, and counts the
+     * body bytes as the caller reads them. Installed outside the resilience interceptor, so one logical call
+     * (retries included) is one sample.
+     */
+    public ClientHttpRequestInterceptor httpInterceptor() {
+        return (HttpRequest request, byte[] body, ClientHttpRequestExecution execution) -> {
+            String operation = operationOf(body);
+            Timer.Sample sample = Timer.start(registry);
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException e) {
+                sample.stop(requestTimer(operation, "IO_ERROR"));
+                throw e;
+            }
+            sample.stop(requestTimer(operation, String.valueOf(response.getStatusCode().value())));
+            return new CountingResponse(response, responseBytes(operation));
+        };
+    }
+
+    /** Body bytes received per STRATZ response of {@code operation}. */
+    public DistributionSummary responseBytes(String operation) {
+        return DistributionSummary.builder("stratz.response.bytes")
+                .description("Response body bytes received").baseUnit("bytes")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    // ---------- bound stats ----------
+
+    /**
+     * Rate-limit waits of whichever limiter {@code limiter} reads from {@code owner} at scrape time (setters may swap
+     * it). Function meters hold their target weakly, so the owner, not a lambda, is what gets registered.
+     */
+    public <T> void bindRateLimiter(String name, T owner, Function<T, TokenBucketRateLimiter> limiter) {
+        FunctionCounter.builder("stratz.ratelimit.acquired", owner, o -> limiter.apply(o).stats().acquired())
+                .tag("limiter", name).register(registry);
+        FunctionTimer.builder("stratz.ratelimit.wait", owner,
+                        o -> limiter.apply(o).stats().waited(), o -> limiter.apply(o).stats().waitNanos(), TimeUnit.NANOSECONDS)
+                .description("Calls that had to wait for a token, and the total wait")
+                .tag("limiter", name).register(registry);
+    }
+
+    public void bindResilience(ResilientHttpInterceptor interceptor) {
+        counter("stratz.calls", interceptor, i -> i.stats().calls());
+        counter("stratz.retries", interceptor, i -> i.stats().retries());
+        counter("stratz.hedges", interceptor, i -> i.stats().hedges());
+        counter("stratz.hedge.wins", interceptor, i -> i.stats().hedgeWins());
+        counter("stratz.short.circuited", interceptor, i -> i.stats().shortCircuited());
+        Gauge.builder("stratz.circuit.open", interceptor, i -> i.circuitBreaker().state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the circuit breaker is open or half-open").register(registry);
+    }
+
+    public void bindOddsIndex(OddsIndexService odds) {
+        Gauge.builder("odds.index.teams", odds, o -> o.snapshot().teamCount()).register(registry);
+        Gauge.builder("odds.index.matches", odds, o -> o.snapshot().matchCount()).register(registry);
+        Gauge.builder("odds.index.build", odds, o -> o.snapshot().buildTime().toNanos() / 1e9)
+                .baseUnit("seconds").description("Build time of the current snapshot").register(registry);
+    }
+
+    public void bindRefresh(RefreshScheduler scheduler) {
+        counter("refresh.runs", scheduler, s -> s.stats().queue().runs());
+        counter("refresh.coalesced", scheduler, s -> s.stats().queue().coalesced());
+        counter("refresh.failures", scheduler, s -> s.stats().failures());
+        counter("refresh.index.updates", scheduler, s -> s.stats().indexRefreshes());
+        Gauge.builder("refresh.tracked", scheduler, s -> s.stats().queue().tracked()).register(registry);
+    }
+
+    // ---------- helpers ----------
+
+    private <T> void counter(String name, T obj, ToDoubleFunction<T> f) {
+        FunctionCounter.builder(name, obj, f).register(registry);
+    }
+
+    private Timer requestTimer(String operation, String status) {
+        return Timer.builder("stratz.requests")
+                .description("STRATZ call latency to response headers, retries included")
+                .tag("operation", operation).tag("status", status)
+                .register(registry);
+    }
+
+    static String operationOf(byte[] body) {
+        // the operation name sits at the start of the query; no need to decode the whole body
+        String head = new String(body, 0, Math.min(body.length, 256), StandardCharsets.UTF_8);
+        Matcher m = OPERATION.matcher(head);
+        return m.find() ? m.group(1) : "unknown";
+    }
+
+    /** Passes the response through, recording the bytes read from its body when it is closed. */
+    private static final class CountingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final DistributionSummary bytes;
+        private final LongAdder read = new LongAdder();
+        private InputStream body;
+        private boolean closed;
+
+        CountingResponse(ClientHttpResponse delegate, DistributionSummary bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) read.increment();
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buf, int off, int len) throws IOException {
+                        int n = super.read(buf, off, len);
+                        if (n > 0) read.add(n);
+                        return n;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException { return delegate.getStatusCode(); }
+
+        @Override
+        public String getStatusText() throws IOException { return delegate.getStatusText(); }
+
+        @Override
+        public HttpHeaders getHeaders() { return delegate.getHeaders(); }
+
+        @Override
+        public void close() {
+            if (!closed) bytes.record(read.sum());
+            closed = true;
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Two-tier cache of PlayersProAllTime player nodes keyed by steam32 id: a bounded LRU in memory over one small JSON
+ * file per id on disk ({@code <dir>/<steam32>.json}, written atomically), so entries survive restarts.
+ * Entries older than the TTL count as misses and are refetched by the caller; a disk hit is promoted to memory.
+ * Each entry remembers the {@code takeHeroes} it was fetched with: it only serves requests for at most that many
+ * heroes (trimmed to the request, heroesPerformance being ordered by match count), a larger request is a miss.
+ * Disk errors are logged and treated as misses, never thrown.
+ */
+public class PlayerCareerCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerCareerCache.class);
+
+    /** Counter snapshot; {@code hits = memoryHits + diskHits}. */
+    public record Stats(long memoryHits, long diskHits, long misses, long expired, long evictions, int inMemory) {
+        public long hits() { return memoryHits + diskHits; }
+    }
+
+    private record Entry(long fetchedAtMillis, int takeHeroes, JsonNode player) {}
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path dir;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> memory;
+
+    private final LongAdder memoryHits = new LongAdder(), diskHits = new LongAdder(), misses = new LongAdder(),
+            expired = new LongAdder(), evictions = new LongAdder();
+
+    public PlayerCareerCache(Path dir, Duration ttl, int maxInMemory) {
+        this(dir, ttl, maxInMemory, Clock.systemUTC());
+    }
+
+    public PlayerCareerCache(Path dir, Duration ttl, int maxInMemory, Clock clock) {
+        this.dir = dir;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.memory = new LinkedHashMap<>(Math.min(maxInMemory, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= maxInMemory) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /** The cached player node with at most {@code takeHeroes} heroes, or null when missing, expired or fetched with fewer. */
+    public JsonNode get(long steam32Id, int takeHeroes) {
+        long now = clock.millis();
+        Entry e;
+        lock.lock();
+        try {
+            e = memory.get(steam32Id);
+        } finally {
+            lock.unlock();
+        }
+        if (e != null) {
+            if (!fresh(e, now)) { expired.increment(); misses.increment(); return null; }
+            if (e.takeHeroes() < takeHeroes) { misses.increment(); return null; }
+            memoryHits.increment();
+            return trim(e.player(), takeHeroes);
+        }
+
+        e = readDisk(steam32Id);
+        if (e == null || e.takeHeroes() < takeHeroes) { misses.increment(); return null; }
+        if (!fresh(e, now)) { expired.increment(); misses.increment(); return null; }
+        diskHits.increment();
+        lock.lock();
+        try {
+            memory.put(steam32Id, e);
+        } finally {
+            lock.unlock();
+        }
+        return trim(e.player(), takeHeroes);
+    }
+
+    /** Store a player node as fetched with {@code takeHeroes}. */
+    public void put(long steam32Id, int takeHeroes, JsonNode player) {
+        Entry e = new Entry(clock.millis(), takeHeroes, player);
+        lock.lock();
+        try {
+            memory.put(steam32Id, e);
+        } finally {
+            lock.unlock();
+        }
+        writeDisk(steam32Id, e);
+    }
+
+    public Stats stats() {
+        int size;
+        lock.lock();
+        try {
+            size = memory.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(memoryHits.sum(), diskHits.sum(), misses.sum(), expired.sum(), evictions.sum(), size);
+    }
+
+    // ---------- helpers ----------
+
+    private boolean fresh(Entry e, long nowMillis) {
+        return nowMillis - e.fetchedAtMillis() < ttl.toMillis();
+    }
+
+    /** The player with heroesPerformance cut to its first {@code take} entries; the cached node is left untouched. */
+    private static JsonNode trim(JsonNode player, int take) {
+        JsonNode heroes = player.get("heroesPerformance");
+        if (heroes == null || !heroes.isArray() || heroes.size() <= take) return player;
+        ObjectNode copy = ((ObjectNode) player).deepCopy();
+        ArrayNode trimmed = (ArrayNode) copy.get("heroesPerformance");
+        while (trimmed.size() > take) trimmed.remove(trimmed.size() - 1);
+        return copy;
+    }
+
+    private Path file(long steam32Id) {
+        return dir.resolve(steam32Id + ".json");
+    }
+
+    private Entry readDisk(long steam32Id) {
+        try {
+            JsonNode node = mapper.readTree(Files.readAllBytes(file(steam32Id)));
+            JsonNode player = node.get("player");
+            // entries written before takeHeroes was recorded read as 0 and are refetched
+            return player != null ? new Entry(node.path("fetchedAtMillis").asLong(), node.path("takeHeroes").asInt(), player) : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable career cache entry {} : {}", file(steam32Id), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDisk(long steam32Id, Entry e) {
+        Path out = file(steam32Id);
+        Path part = out.resolveSibling(out.getFileName() + "." + Thread.currentThread().threadId() + ".part");
+        ObjectNode node = mapper.createObjectNode();
+        node.put("steamId", steam32Id);
+        node.put("fetchedAtMillis", e.fetchedAtMillis());
+        node.put("takeHeroes", e.takeHeroes());
+        node.set("player", e.player());
+        try {
+            Files.createDirectories(dir);
+            mapper.writeValue(part.toFile(), node);
+            Files.move(part, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            // best effort: the entry stays in memory and is simply refetched after a restart
+            log.warn("Failed to write career cache entry {} : {}", out, ex.getMessage());
+        }
+    }
+}
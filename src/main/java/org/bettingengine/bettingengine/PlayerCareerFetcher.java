@@ -0,0 +1,218 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fetches PlayersProAllTime for many steam32 ids: slices of {@link #MAX_IDS_PER_REQUEST} go out concurrently on
+ * virtual threads, paced by the shared {@link TokenBucketRateLimiter} and an {@link AdaptiveConcurrencyLimit}.
+ * 429s, 5xx and transport errors shrink the window and retry the slice after an exponential, jittered backoff
+ * (honouring Retry-After). GraphQL {@code errors} keep whatever players came back and retry the missing ids in
+ * halves, so one bad id cannot sink its slice. Players reach the sink as they arrive, each id at most once.
+ * This is the only retry layer: the client's {@link ResilientHttpInterceptor} is swapped for its
+ * {@link ResilientHttpInterceptor#withoutRetries() single-attempt} form, so every 429 reaches the window at once.
+ * The halves of a split slice carry on its attempt count, so each id goes out in at most {@value #MAX_ATTEMPTS}
+ * requests and one slice of n ids sends at most n * {@value #MAX_ATTEMPTS} (a slice that is never split, at most
+ * {@value #MAX_ATTEMPTS}).
+ */
+public class PlayerCareerFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerCareerFetcher.class);
+
+    public static final int MAX_IDS_PER_REQUEST = 5; // STRATZ limit
+    private static final int MAX_ATTEMPTS = 6;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    static final String PLAYERS_PRO_ALL_TIME_QUERY = """
+            query PlayersProAllTime($ids: [Long!]!, $takeHeroes: Int = 10) {
+              players(steamAccountIds: $ids) {
+                steamAccount { id proSteamAccount { id name } }
+                heroesPerformance(
+                  request: { isLeague: true, matchGroupOrderBy: MATCH_COUNT, orderBy: DESC, take: 5000 },
+                  take: $takeHeroes
+                ) {
+                  hero { id displayName }
+                  matchCount
+                  winCount
+                  avgKills
+                  avgDeaths
+                  avgAssists
+                  goldPerMinute
+                  experiencePerMinute
+                  lastPlayedDateTime
+                }
+              }
+            }
+            """;
+
+    /** Receives each player node once; calls are serialized, so it may write to a single generator. */
+    @FunctionalInterface
+    public interface PlayerSink {
+        void accept(long steamId, JsonNode player) throws IOException;
+    }
+
+    /** Outcome of one fetch; {@code failedIds} exhausted their retries (ids STRATZ simply doesn't know are not failures). */
+    public record Result(int players, List<Long> failedIds, int requests, int backoffs, int graphQlErrors, Duration elapsed) {}
+
+    private final RestClient client;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit window;
+    private final Duration baseBackoff;
+
+    public PlayerCareerFetcher(RestClient client, TokenBucketRateLimiter rateLimiter, int maxInFlight, Duration baseBackoff) {
+        this.client = ResilientHttpInterceptor.withoutRetries(client);
+        this.rateLimiter = rateLimiter;
+        this.window = new AdaptiveConcurrencyLimit(Math.max(1, maxInFlight));
+        this.baseBackoff = baseBackoff;
+    }
+
+    public Result fetch(List<Long> steam32Ids, int takeHeroes, PlayerSink sink) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        Run run = new Run(takeHeroes, sink);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < steam32Ids.size(); i += MAX_IDS_PER_REQUEST) {
+                List<Long> slice = steam32Ids.subList(i, Math.min(i + MAX_IDS_PER_REQUEST, steam32Ids.size()));
+                executor.submit(() -> {
+                    try {
+                        run.fetchSlice(slice, 1);
+                    } catch (RuntimeException e) {
+                        log.warn("Career slice {} failed: {}", slice, e.getMessage());
+                        run.failed.addAll(slice);
+                    }
+                    return null;
+                });
+            }
+        }
+        if (run.sinkError != null) throw run.sinkError;
+        List<Long> failed = new ArrayList<>(run.failed);
+        failed.removeAll(run.delivered);
+        Collections.sort(failed);
+        return new Result(run.delivered.size(), failed, run.requests.get(), run.backoffs.get(), run.graphQlErrors.get(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    public int currentConcurrency() { return window.limit(); }
+
+    // ---------- helpers ----------
+
+    /** State of one {@link #fetch} call. */
+    private final class Run {
+        final int takeHeroes;
+        final PlayerSink sink;
+        final ReentrantLock sinkLock = new ReentrantLock();
+        final Set<Long> delivered = ConcurrentHashMap.newKeySet();
+        final Set<Long> failed = ConcurrentHashMap.newKeySet();
+        final AtomicInteger requests = new AtomicInteger(), backoffs = new AtomicInteger(), graphQlErrors = new AtomicInteger();
+        volatile IOException sinkError;
+
+        Run(int takeHeroes, PlayerSink sink) {
+            this.takeHeroes = takeHeroes;
+            this.sink = sink;
+        }
+
+        void fetchSlice(List<Long> slice, int attempt) throws InterruptedException {
+            if (sinkError != null) return;
+            JsonNode resp = null;
+            Duration retryAfter = null;
+            boolean backOff = true;
+            window.acquire();
+            try {
+                rateLimiter.acquire();
+                requests.incrementAndGet();
+                resp = client.post().body(new GraphQLRequest(PLAYERS_PRO_ALL_TIME_QUERY, Map.of("ids", slice, "takeHeroes", takeHeroes)))
+                        .retrieve().body(JsonNode.class);
+                backOff = resp == null || resp.has("errors");
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                retryAfter = retryAfter(e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst("Retry-After") : null);
+            } catch (HttpServerErrorException | ResourceAccessException e) {
+                // transient: retried below
+            } finally {
+                window.release(backOff);
+            }
+
+            List<Long> missing = slice;
+            if (resp != null) {
+                Set<Long> returned = deliver(resp.path("data").path("players"), slice);
+                if (!resp.has("errors")) return; // ids without data are simply unknown to STRATZ
+                graphQlErrors.incrementAndGet();
+                missing = new ArrayList<>(slice.size());
+                for (long id : slice) if (!returned.contains(id)) missing.add(id);
+                if (missing.isEmpty()) return;
+                log.warn("GraphQL errors for slice {} -> {}", slice, resp.get("errors"));
+            }
+
+            if (attempt >= MAX_ATTEMPTS) {
+                failed.addAll(missing);
+                return;
+            }
+            backoffs.incrementAndGet();
+            sleep(attempt, retryAfter);
+            if (resp != null && missing.size() > 1) {
+                // GraphQL errors: isolate the offending id
+                int half = missing.size() / 2;
+                fetchSlice(missing.subList(0, half), attempt + 1);
+                fetchSlice(missing.subList(half, missing.size()), attempt + 1);
+            } else {
+                fetchSlice(missing, attempt + 1);
+            }
+        }
+
+        private Set<Long> deliver(JsonNode players, List<Long> requested) {
+            Set<Long> returned = new HashSet<>();
+            for (JsonNode p : players) {
+                JsonNode idNode = p.path("steamAccount").path("id");
+                if (!idNode.canConvertToLong() && !idNode.isTextual()) continue;
+                long id = idNode.asLong();
+                returned.add(id);
+                if (!requested.contains(id) || !delivered.add(id)) continue;
+                sinkLock.lock();
+                try {
+                    sink.accept(id, p);
+                } catch (IOException e) {
+                    sinkError = e;
+                } finally {
+                    sinkLock.unlock();
+                }
+            }
+            return returned;
+        }
+    }
+
+    /** Full-jitter exponential backoff, never shorter than the server's Retry-After. */
+    private void sleep(int attempt, Duration retryAfter) throws InterruptedException {
+        long capNanos = Math.min(MAX_BACKOFF.toNanos(), baseBackoff.toNanos() << Math.min(attempt - 1, 20));
+        long nanos = capNanos > 0 ? ThreadLocalRandom.current().nextLong(capNanos + 1) : 0L;
+        if (retryAfter != null) nanos = Math.max(nanos, Math.min(retryAfter.toNanos(), MAX_BACKOFF.toNanos()));
+        TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+
+    private static Duration retryAfter(String header) {
+        if (header == null) return null;
+        try {
+            return Duration.ofSeconds(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return null; // HTTP-date form: fall back to our own backoff
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.bettingengine.bettingengine;
+
+/**
+ * One entry of match.players. Per-event data is held column-wise ({@link KillEvents}, {@link DeathEvents},
+ * {@link ItemPurchases}: one primitive array per field, not one object per event) and is empty unless the reader
+ * was asked for the timeline.
+ * {@code proName} is null for players without a pro steam account. {@code hasSide} is false when isRadiant was
+ * missing (isRadiant then reads false and means nothing).
+ */
+public record PlayerPerformance(boolean isRadiant, boolean isVictory,
+                                int kills, int deaths, int assists,
+                                int goldPerMinute, int experiencePerMinute, int networth,
+                                int heroId, String heroName,
+                                long steamAccountId, String proName,
+                                KillEvents killEvents, DeathEvents deathEvents,
+                                ItemPurchases itemPurchases, boolean hasSide) {
+
+    /** A player whose side is known. */
+    public PlayerPerformance(boolean isRadiant, boolean isVictory,
+                             int kills, int deaths, int assists,
+                             int goldPerMinute, int experiencePerMinute, int networth,
+                             int heroId, String heroName,
+                             long steamAccountId, String proName,
+                             KillEvents killEvents, DeathEvents deathEvents,
+                             ItemPurchases itemPurchases) {
+        this(isRadiant, isVictory, kills, deaths, assists, goldPerMinute, experiencePerMinute, networth,
+                heroId, heroName, steamAccountId, proName, killEvents, deathEvents, itemPurchases, true);
+    }
+}
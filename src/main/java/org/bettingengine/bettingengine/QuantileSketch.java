@@ -0,0 +1,141 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable streaming quantile summary for non-negative int stats (kills, deaths, durations in seconds).
+ * Values below {@value #EXACT_LIMIT} are counted in a dense histogram, so quantiles over them are exact and match
+ * {@link IntArray#median()} (linear interpolation between closest ranks, i.e. the mean of the two middle values for
+ * an even count). Larger values fall into log buckets with ~1% relative error. Memory is bounded by the histogram
+ * (grown only up to the largest value seen) plus a fixed bucket array, however many values are added.
+ * Merging adds counts, so any split of the same values (shards, incremental batches) gives identical answers.
+ * Negative values are recorded as 0. Not thread-safe: one sketch per worker, then {@link #merge}.
+ */
+public final class QuantileSketch {
+
+    /**
+     * Serializable form: the histogram trimmed to the largest value seen, log buckets (null when unused) and totals.
+     * Restoring it gives a sketch that answers and merges exactly like the original.
+     */
+    public record State(int[] exact, int[] log, long count, long sum, int min, int max) {}
+
+    /** Values in [0, EXACT_LIMIT) are kept exactly. */
+    public static final int EXACT_LIMIT = 8192;
+
+    private static final double GAMMA = 1.02;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int LOG_OFFSET = (int) Math.floor(Math.log(EXACT_LIMIT) / LOG_GAMMA);
+    private static final int LOG_BUCKETS = (int) Math.ceil(Math.log(Integer.MAX_VALUE) / LOG_GAMMA) - LOG_OFFSET + 1;
+
+    private int[] exact;
+    private int[] log; // allocated on the first value >= EXACT_LIMIT
+    private long count, sum;
+    private int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+
+    public QuantileSketch() { this(16); }
+
+    /** @param expectedMax hint for the initial histogram size (e.g. 64 for kills, 4096 for durations) */
+    public QuantileSketch(int expectedMax) {
+        this.exact = new int[Math.clamp(expectedMax + 1, 1, EXACT_LIMIT)];
+    }
+
+    public void add(int v) {
+        if (v < 0) v = 0;
+        if (v < EXACT_LIMIT) {
+            if (v >= exact.length) exact = Arrays.copyOf(exact, Math.min(EXACT_LIMIT, Math.max(v + 1, exact.length << 1)));
+            exact[v]++;
+        } else {
+            if (log == null) log = new int[LOG_BUCKETS];
+            log[logIndex(v)]++;
+        }
+        count++;
+        sum += v;
+        if (v < min) min = v;
+        if (v > max) max = v;
+    }
+
+    /** Fold {@code other} into this sketch; {@code other} is unchanged. */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) return this;
+        if (other.exact.length > exact.length) exact = Arrays.copyOf(exact, other.exact.length);
+        for (int i = 0; i < other.exact.length; i++) exact[i] += other.exact[i];
+        if (other.log != null) {
+            if (log == null) log = new int[LOG_BUCKETS];
+            for (int i = 0; i < LOG_BUCKETS; i++) log[i] += other.log[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public State state() {
+        int used = count == 0 ? 0 : Math.min(max, EXACT_LIMIT - 1) + 1;
+        return new State(Arrays.copyOf(exact, Math.min(used, exact.length)), log != null ? log.clone() : null, count, sum, min, max);
+    }
+
+    public static QuantileSketch fromState(State state) {
+        QuantileSketch s = new QuantileSketch(Math.max(0, state.exact().length - 1));
+        System.arraycopy(state.exact(), 0, s.exact, 0, state.exact().length);
+        if (state.log() != null) {
+            if (state.log().length != LOG_BUCKETS) throw new IllegalArgumentException("Expected " + LOG_BUCKETS + " log buckets");
+            s.log = state.log().clone();
+        }
+        s.count = state.count();
+        s.sum = state.sum();
+        s.min = state.min();
+        s.max = state.max();
+        return s;
+    }
+
+    public long count() { return count; }
+
+    public boolean isEmpty() { return count == 0; }
+
+    public double average() {
+        return count == 0 ? 0.0 : sum / (double) count;
+    }
+
+    public int min() { return count == 0 ? 0 : min; }
+
+    public int max() { return count == 0 ? 0 : max; }
+
+    public double median() { return quantile(0.5); }
+
+    /** Quantile {@code q} in [0, 1], interpolated between the two closest ranks; 0 when empty. */
+    public double quantile(double q) {
+        if (count == 0) return 0.0;
+        double h = (count - 1) * Math.clamp(q, 0.0, 1.0);
+        long lo = (long) Math.floor(h);
+        double frac = h - lo;
+        double vLo = valueAtRank(lo);
+        if (frac == 0.0) return vLo;
+        return vLo + frac * (valueAtRank(lo + 1) - vLo);
+    }
+
+    // ---------- helpers ----------
+
+    /** Value of the {@code rank}-th smallest element (0-based). */
+    private double valueAtRank(long rank) {
+        long seen = 0;
+        for (int v = 0; v < exact.length; v++) {
+            seen += exact[v];
+            if (seen > rank) return v;
+        }
+        for (int i = 0; log != null && i < LOG_BUCKETS; i++) {
+            seen += log[i];
+            if (seen > rank) return Math.clamp(bucketValue(i), (double) EXACT_LIMIT, (double) max);
+        }
+        return max;
+    }
+
+    private static int logIndex(int v) {
+        return Math.clamp((int) Math.ceil(Math.log(v) / LOG_GAMMA) - LOG_OFFSET, 0, LOG_BUCKETS - 1);
+    }
+
+    /** Bucket i holds (gamma^(k-1), gamma^k]; its representative is the point of equal relative error. */
+    private static double bucketValue(int i) {
+        return 2.0 * Math.pow(GAMMA, i + LOG_OFFSET) / (GAMMA + 1.0);
+    }
+}
@@ -0,0 +1,474 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking {@link TournamentTeamPlaysParser} on WebClient. Hundreds of team / career requests can be in flight on
+ * {@code stratz.reactive.event-loop-threads} threads: no thread waits on a socket, a retry backoff or the rate limiter.
+ * A team body is never materialized: its {@link DataBuffer}s are streamed to a ".part" file through an
+ * asynchronous channel (so a slow disk backpressures the socket) while a non-blocking Jackson parser reads the
+ * team id / name / tag and any GraphQL errors from the same bytes. Retries, Retry-After and the circuit breaker
+ * follow {@link ResilientHttpInterceptor}'s rules.
+ * Enabled with {@code stratz.reactive.enabled=true}, which makes it the primary parser bean.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "stratz.reactive", name = "enabled", havingValue = "true")
+public class ReactiveTournamentTeamPlaysParser implements TournamentTeamPlaysParser, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTournamentTeamPlaysParser.class);
+
+    /** Career responses are decoded whole; team bodies are streamed and not subject to this. */
+    private static final int MAX_IN_MEMORY_BYTES = 16 * 1024 * 1024;
+    private static final byte[] PLAYERS_HEAD = "{\"data\":{\"players\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PLAYERS_TAIL = "]}}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService eventLoop;
+    private final WebClient client;
+    private final StratzClientProperties props;
+    private final CircuitBreaker breaker;
+
+    /** The {@link StratzClientConfig#stratzRateLimiter} bucket, shared with the blocking parser. */
+    @Setter
+    private TokenBucketRateLimiter rateLimiter;
+
+    @Setter
+    private int maxInFlight;
+
+    @Setter
+    private TeamQueryProfile queryProfile = TeamQueryProfile.FULL_TIMELINE;
+
+    private PipelineMetrics metrics = PipelineMetrics.NOOP;
+
+    public ReactiveTournamentTeamPlaysParser(StratzClientProperties props, CircuitBreaker stratzCircuitBreaker,
+                                             TokenBucketRateLimiter stratzRateLimiter) {
+        this.props = props;
+        this.breaker = stratzCircuitBreaker;
+        this.rateLimiter = stratzRateLimiter;
+        this.maxInFlight = props.getReactive().getMaxInFlight();
+        AtomicInteger threads = new AtomicInteger();
+        this.eventLoop = Executors.newFixedThreadPool(Math.max(1, props.getReactive().getEventLoopThreads()), r -> {
+            Thread t = new Thread(r, "stratz-reactive-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = webClient(props, eventLoop);
+    }
+
+    /** Same meters as the blocking parser; rate-limit waits are read from whichever limiter is set at scrape time. */
+    @Autowired(required = false)
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+        metrics.bindRateLimiter("stratz-reactive", this, p -> p.rateLimiter);
+    }
+
+    static WebClient webClient(StratzClientProperties props, ExecutorService executor) {
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(props.getConnectTimeout())
+                .executor(executor)
+                .build();
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(props.getBaseUrl())
+                .clientConnector(new JdkClientHttpConnector(http))
+                .codecs(c -> c.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_BYTES))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.USER_AGENT, "STRATZ_API");
+        if (props.getToken() != null && !props.getToken().isBlank()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + props.getToken());
+        }
+        return builder.build();
+    }
+
+    // ---------- teams ----------
+
+    @Override
+    public Path dumpTeamRawJson(int teamId, int take, int skip, Path outDir) {
+        return dumpTeam(teamId, take, skip, outDir).block();
+    }
+
+    /**
+     * Stream one team's raw response to outDir/<teamId>_<teamName>.json. The bytes are written as STRATZ sent them
+     * behind the same leading {@value TeamQueryProfile#MARKER} field as
+     * {@link TournamentTeamPlaysParserImpl#dumpTeamRawJson}. A failed attempt truncates the ".part" file and starts over.
+     */
+    public Mono<Path> dumpTeam(int teamId, int take, int skip, Path outDir) {
+        TeamQueryProfile profile = queryProfile;
+        var gql = new GraphQLRequest(profile.query(), Map.of("teamId", teamId, "take", take, "skip", skip));
+        byte[] marker = ("{\"" + TeamQueryProfile.MARKER + "\":\"" + profile.name() + "\",").getBytes(StandardCharsets.UTF_8);
+        Path part = outDir.resolve(teamId + ".json.part");
+        Mono<TeamHeader> fetch = resilient(() -> {
+            TeamHeaderScanner scanner = new TeamHeaderScanner(teamId);
+            AtomicLong bytes = new AtomicLong();
+            AtomicBoolean opened = new AtomicBoolean();
+            Flux<DataBuffer> response = client.post().bodyValue(gql).retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .timeout(props.getReadTimeout())
+                    .doOnNext(buf -> bytes.addAndGet(buf.readableByteCount()))
+                    .doOnNext(scanner::feed)
+                    .map(buf -> opened.get() ? buf : skipOpeningBrace(buf, opened));
+            Flux<DataBuffer> body = Flux.concat(Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(marker)), response);
+            return DataBufferUtils.write(body, part, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+                    .then(Mono.fromCallable(() -> {
+                        metrics.responseBytes("team").record(bytes.get());
+                        if (scanner.error != null) metrics.graphQlErrors("team");
+                        return scanner.finish();
+                    }));
+        });
+        return Mono.fromCallable(() -> Files.createDirectories(outDir))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(metrics.timed(fetch, "fetch", "team"))
+                .publishOn(Schedulers.boundedElastic()) // the move below is a blocking file-system call
+                .map(header -> {
+                    Path outFile = outDir.resolve(TournamentTeamPlaysParserImpl.teamFileName(header.id(), header.name(), header.tag()));
+                    try {
+                        return Files.move(part, outFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Drops the response's opening brace (and any whitespace before it) so the body continues the marker's root
+     * object; a buffer holding only whitespace is emptied and the brace is looked for in the next one.
+     */
+    private static DataBuffer skipOpeningBrace(DataBuffer buf, AtomicBoolean opened) {
+        int pos = buf.readPosition(), end = buf.writePosition();
+        while (pos < end && Character.isWhitespace(buf.getByte(pos))) pos++;
+        if (pos < end) {
+            if (buf.getByte(pos) != '{') throw new IllegalStateException("Response is not a JSON object");
+            pos++;
+            opened.set(true);
+        }
+        return buf.readPosition(pos);
+    }
+
+    /**
+     * Every team goes out at once, bounded by {@code maxInFlight} and the shared rate limiter; the calling thread
+     * only waits for the end. Same result and listener contract as the blocking implementation.
+     */
+    @Override
+    public BulkDumpResult dumpTeamsRawJson(Collection<Integer> teamIds, int take, int skip, Path outDir, DumpProgressListener listener) {
+        List<Integer> ids = teamIds.stream().filter(Objects::nonNull).distinct().toList();
+        DumpProgressListener progress = listener != null ? listener : DumpProgressListener.NONE;
+        long started = System.nanoTime();
+
+        AtomicInteger completed = new AtomicInteger();
+        Map<Integer, Path> written = new ConcurrentHashMap<>();
+        Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        Flux.fromIterable(ids)
+                .flatMap(teamId -> dumpTeam(teamId, take, skip, outDir)
+                        .doOnNext(file -> {
+                            written.put(teamId, file);
+                            progress.onTeamDone(teamId, file, null, completed.incrementAndGet(), ids.size());
+                        })
+                        .onErrorResume(e -> {
+                            failures.put(teamId, e);
+                            progress.onTeamDone(teamId, null, e, completed.incrementAndGet(), ids.size());
+                            return Mono.empty();
+                        }), Math.max(1, maxInFlight))
+                .blockLast();
+
+        Map<Integer, Path> orderedWritten = new LinkedHashMap<>();
+        Map<Integer, Throwable> orderedFailures = new LinkedHashMap<>();
+        for (int teamId : ids) {
+            if (written.containsKey(teamId)) orderedWritten.put(teamId, written.get(teamId));
+            if (failures.containsKey(teamId)) orderedFailures.put(teamId, failures.get(teamId));
+        }
+        return new BulkDumpResult(orderedWritten, orderedFailures, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    // ---------- careers ----------
+
+    public Path dumpPlayersCareerJson(Collection<Long> steamIdsRaw, int takeHeroes, Path outFile) {
+        return dumpPlayersCareer(steamIdsRaw, takeHeroes, outFile).block();
+    }
+
+    /**
+     * Same document as {@link TournamentTeamPlaysParserImpl#dumpPlayersCareerJson}: slices of
+     * {@link PlayerCareerFetcher#MAX_IDS_PER_REQUEST} ids run concurrently and each player is appended to the file
+     * as it arrives, each steam id once. A slice with GraphQL errors is retried in halves to isolate the bad id;
+     * a slice that exhausts its retries is logged and left out.
+     */
+    public Mono<Path> dumpPlayersCareer(Collection<Long> steamIdsRaw, int takeHeroes, Path outFile) {
+        List<Long> ids = TournamentTeamPlaysParserImpl.normalizeSteamIds(steamIdsRaw);
+        if (ids.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("steamIds is empty"));
+        }
+        Path part = outFile.resolveSibling(outFile.getFileName() + ".part");
+        Set<Long> delivered = ConcurrentHashMap.newKeySet();
+        Set<Long> failed = ConcurrentHashMap.newKeySet();
+
+        List<List<Long>> slices = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += PlayerCareerFetcher.MAX_IDS_PER_REQUEST) {
+            slices.add(ids.subList(i, Math.min(i + PlayerCareerFetcher.MAX_IDS_PER_REQUEST, ids.size())));
+        }
+        Flux<DataBuffer> players = Flux.fromIterable(slices)
+                .flatMap(slice -> fetchPlayers(slice, takeHeroes, delivered, failed), Math.max(1, maxInFlight))
+                .index()
+                .map(t -> {
+                    try {
+                        byte[] json = mapper.writeValueAsBytes(t.getT2());
+                        ByteBuffer buf = ByteBuffer.allocate(json.length + 1);
+                        if (t.getT1() > 0) buf.put((byte) ',');
+                        return DefaultDataBufferFactory.sharedInstance.wrap(buf.put(json).flip());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        Flux<DataBuffer> body = Flux.concat(
+                Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(PLAYERS_HEAD)),
+                players,
+                Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(PLAYERS_TAIL)));
+
+        Mono<Path> dump = Mono.fromCallable(() -> Files.createDirectories(outFile.toAbsolutePath().getParent()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(DataBufferUtils.write(body, part, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+                .publishOn(Schedulers.boundedElastic())
+                .then(Mono.fromCallable(() -> {
+                    Files.move(part, outFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    metrics.events("career.players", delivered.size());
+                    failed.removeAll(delivered);
+                    if (!failed.isEmpty()) {
+                        log.warn("Career data missing for {} ids after retries: {}", failed.size(), failed.stream().sorted().toList());
+                    }
+                    return outFile;
+                }));
+        return metrics.timed(dump, "fetch", "career");
+    }
+
+    private Flux<JsonNode> fetchPlayers(List<Long> slice, int takeHeroes, Set<Long> delivered, Set<Long> failed) {
+        var gql = new GraphQLRequest(PlayerCareerFetcher.PLAYERS_PRO_ALL_TIME_QUERY, Map.of("ids", slice, "takeHeroes", takeHeroes));
+        return resilient(() -> client.post().bodyValue(gql).retrieve().bodyToMono(JsonNode.class).timeout(props.getReadTimeout()))
+                .flatMapMany(resp -> {
+                    List<JsonNode> fresh = new ArrayList<>();
+                    Set<Long> returned = new HashSet<>();
+                    for (JsonNode p : resp.path("data").path("players")) {
+                        JsonNode idNode = p.path("steamAccount").path("id");
+                        if (!idNode.canConvertToLong() && !idNode.isTextual()) continue;
+                        long id = idNode.asLong();
+                        returned.add(id);
+                        if (slice.contains(id) && delivered.add(id)) fresh.add(p);
+                    }
+                    if (!resp.has("errors")) return Flux.fromIterable(fresh); // ids without data are simply unknown to STRATZ
+                    metrics.graphQlErrors("career");
+                    List<Long> missing = slice.stream().filter(id -> !returned.contains(id)).toList();
+                    if (missing.isEmpty()) return Flux.fromIterable(fresh);
+                    log.warn("GraphQL errors for slice {} -> {}", slice, resp.get("errors"));
+                    if (missing.size() == 1) {
+                        failed.addAll(missing);
+                        return Flux.fromIterable(fresh);
+                    }
+                    int half = missing.size() / 2;
+                    return Flux.fromIterable(fresh).concatWith(Flux.merge(
+                            fetchPlayers(missing.subList(0, half), takeHeroes, delivered, failed),
+                            fetchPlayers(missing.subList(half, missing.size()), takeHeroes, delivered, failed)));
+                })
+                .onErrorResume(e -> {
+                    log.warn("Career slice {} failed: {}", slice, e.getMessage());
+                    failed.addAll(slice);
+                    return Flux.empty();
+                });
+    }
+
+    @Override
+    public void close() {
+        eventLoop.shutdownNow();
+    }
+
+    // ---------- helpers ----------
+
+    /**
+     * One logical call: circuit-breaker permission, then attempts paced by the rate limiter (a timer, not a parked
+     * thread) and retried on 429 / 5xx / I/O errors with full-jitter backoff, never sooner than Retry-After.
+     */
+    private <T> Mono<T> resilient(Supplier<Mono<T>> attempt) {
+        int maxAttempts = Math.max(1, props.getRetry().getMaxAttempts());
+        return Mono.defer(() -> {
+                    boolean trial;
+                    try {
+                        trial = breaker.acquirePermission();
+                    } catch (CircuitBreaker.OpenException e) {
+                        return Mono.error(e);
+                    }
+                    return Mono.defer(() -> {
+                                long waitNanos = rateLimiter.reserve();
+                                return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then(attempt.get()) : attempt.get();
+                            })
+                            .retryWhen(Retry.from(signals -> signals.concatMap(rs -> {
+                                Throwable failure = rs.failure();
+                                if (!isRetryable(failure) || rs.totalRetries() + 1 >= maxAttempts) return Mono.error(failure);
+                                return Mono.delay(backoff((int) rs.totalRetries() + 1, retryAfter(failure)));
+                            })))
+                            .doOnSuccess(v -> breaker.onSuccess())
+                            .doOnError(e -> {
+                                if (isRetryable(e)) breaker.onFailure(); else breaker.onSuccess();
+                            })
+                            .doOnCancel(() -> {
+                                if (trial) breaker.release(); // cancelled trial: no verdict, let the next call try
+                            });
+                });
+    }
+
+    private static boolean isRetryable(Throwable t) {
+        if (t instanceof WebClientResponseException e) return ResilientHttpInterceptor.isRetryable(e.getStatusCode().value());
+        return t instanceof WebClientRequestException || t instanceof TimeoutException || t instanceof IOException;
+    }
+
+    private Duration backoff(int attempt, Duration retryAfter) {
+        StratzClientProperties.Retry retry = props.getRetry();
+        long cap = Math.min(retry.getMaxBackoff().toNanos(), retry.getBaseBackoff().toNanos() << Math.min(attempt - 1, 20));
+        long nanos = cap > 0 ? ThreadLocalRandom.current().nextLong(cap + 1) : 0L;
+        if (retryAfter != null) nanos = Math.max(nanos, Math.min(retryAfter.toNanos(), retry.getMaxBackoff().toNanos()));
+        return Duration.ofNanos(nanos);
+    }
+
+    private static Duration retryAfter(Throwable t) {
+        if (!(t instanceof WebClientResponseException e)) return null;
+        String header = e.getHeaders().getFirst("Retry-After");
+        if (header == null) return null;
+        try {
+            return Duration.ofSeconds(Long.parseLong(header.trim()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    record TeamHeader(long id, String name, String tag) {}
+
+    /**
+     * Token-level look at a team response as its buffers go by: keeps data.team.{id,name,tag} and the first GraphQL
+     * error message, and checks the document is complete. Nothing else is retained.
+     */
+    private static final class TeamHeaderScanner {
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        private final int requestedTeamId;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private boolean teamSeen, done;
+        private Long id;
+        private String name = "", tag = "", error;
+
+        TeamHeaderScanner(int requestedTeamId) {
+            this.requestedTeamId = requestedTeamId;
+            try {
+                this.parser = FACTORY.createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        void feed(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, bytes.length); // leaves the read position for the writer
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        TeamHeader finish() throws IOException {
+            feeder.endOfInput();
+            drain();
+            if (!done) throw new IOException("Truncated response for teamId=" + requestedTeamId);
+            if (!teamSeen && error != null) {
+                throw new IllegalStateException("GraphQL errors for teamId=" + requestedTeamId + " -> " + error);
+            }
+            return new TeamHeader(id != null ? id : requestedTeamId, name, tag);
+        }
+
+        private void drain() throws IOException {
+            JsonToken t;
+            while ((t = parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+                JsonStreamContext ctx = parser.getParsingContext();
+                if (t == JsonToken.END_OBJECT && ctx.inRoot()) {
+                    done = true;
+                } else if (t == JsonToken.START_OBJECT && isAt(ctx, "data", "team")) {
+                    teamSeen = true;
+                } else if (t.isScalarValue() && isAt(ctx, "data", "team")) {
+                    switch (ctx.getCurrentName()) {
+                        case "id" -> id = parser.getValueAsLong();
+                        case "name" -> name = Objects.toString(parser.getValueAsString(), "");
+                        case "tag" -> tag = Objects.toString(parser.getValueAsString(), "");
+                        default -> { }
+                    }
+                } else if (t == JsonToken.VALUE_STRING && error == null && "message".equals(ctx.getCurrentName())
+                        && ctx.getParent() != null && ctx.getParent().inArray() && isAt(ctx.getParent(), "errors")) {
+                    error = parser.getText();
+                }
+            }
+        }
+
+        /** True when {@code ctx} is the container reached from the root through {@code path}. */
+        private static boolean isAt(JsonStreamContext ctx, String... path) {
+            JsonStreamContext c = ctx.getParent();
+            for (int i = path.length - 1; i >= 0; i--) {
+                if (c == null || !path[i].equals(c.getCurrentName())) return false;
+                c = c.getParent();
+            }
+            return c != null && c.inRoot();
+        }
+    }
+}
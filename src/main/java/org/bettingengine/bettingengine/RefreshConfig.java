@@ -0,0 +1,25 @@
+package org.bettingengine.bettingengine;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Beans of the background refresh, registered with {@code refresh.enabled=true} alongside {@link RefreshScheduler}.
+ * The career cache is injected into {@link TournamentTeamPlaysParserImpl}, so manual career dumps also skip players
+ * refreshed within {@code refresh.player-interval}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "refresh", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({RefreshProperties.class, OddsProperties.class})
+public class RefreshConfig {
+
+    @Bean
+    public PlayerCareerCache playerCareerCache(OddsProperties oddsProps, RefreshProperties props) {
+        return new PlayerCareerCache(Path.of(oddsProps.getDataDir()).resolve(".careers").resolve("cache"),
+                props.getPlayerInterval(), 10_000);
+    }
+}
@@ -0,0 +1,40 @@
+package org.bettingengine.bettingengine;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/** {@code refresh.*} settings for {@link RefreshScheduler}; see application.properties for the defaults in use. */
+@Data
+@ConfigurationProperties(prefix = "refresh")
+public class RefreshProperties {
+
+    /** Registers {@link RefreshScheduler}; off by default so tests and one-off runs never call STRATZ on their own. */
+    private boolean enabled = false;
+
+    /** Teams refreshed every {@link #liveInterval} from startup, e.g. those playing today. */
+    private List<Integer> liveTeamIds = new ArrayList<>();
+    /** Teams refreshed every {@link #idleInterval} until promoted. */
+    private List<Integer> teamIds = new ArrayList<>();
+    /** Players whose careers are kept fresh; see {@link #playerInterval}. */
+    private List<Long> playerIds = new ArrayList<>();
+
+    private Duration liveInterval = Duration.ofMinutes(1);
+    private Duration soonInterval = Duration.ofMinutes(1);
+    private Duration idleInterval = Duration.ofDays(1);
+    /** Career data older than this is refetched when the careers job runs (at the idle cadence). */
+    private Duration playerInterval = Duration.ofDays(1);
+
+    /** STRATZ requests per minute background refreshes may use, charged as sent; the rest of the 250/min stays for manual dumps. */
+    private int budgetPerMinute = 60;
+    /** Jobs running at once. */
+    private int workers = 2;
+    /** Match ids per sync probe; one probe covers a tournament day. */
+    private int probePageSize = 20;
+    private int takeHeroes = 10;
+    /** Changed team files are folded into the odds index at most this often, in one batch. */
+    private Duration indexDelay = Duration.ofSeconds(5);
+}
@@ -0,0 +1,227 @@
+package org.bettingengine.bettingengine;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Due-time queue of recurring refresh jobs, one entry per key. Each {@link Priority} tier is a set ordered by due
+ * time; a due job of a higher tier always goes before a due job of a lower one, however overdue that is.
+ * Requests for a key that is already queued or running are coalesced: a queued job just moves its due time up,
+ * a running one is re-run once as soon as it completes. Thread-safe; {@link #take} blocks until something is due.
+ */
+public class RefreshQueue<K> {
+
+    /** Highest first. */
+    public enum Priority { LIVE, SOON, IDLE }
+
+    /** Counter snapshot; {@code coalesced} counts requests absorbed by a job already queued or running. */
+    public record Stats(long runs, long coalesced, int tracked, int running) {}
+
+    private static final class Entry<K> {
+        final K key;
+        final long seq;
+        Priority priority;
+        long dueAt, lastRunAt;
+        boolean ran, running, rerun;
+
+        Entry(K key, long seq, Priority priority, long dueAt) {
+            this.key = key;
+            this.seq = seq;
+            this.priority = priority;
+            this.dueAt = dueAt;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final LongSupplier clock;
+    private final Map<Priority, Long> intervals = new EnumMap<>(Priority.class);
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final Map<Priority, TreeSet<Entry<K>>> queued = new EnumMap<>(Priority.class);
+    private final LongAdder runs = new LongAdder(), coalesced = new LongAdder();
+    private long seq;
+    private int running;
+
+    /** @param intervals time between runs per tier; every tier must have one */
+    public RefreshQueue(Map<Priority, Duration> intervals) {
+        this(intervals, System::nanoTime);
+    }
+
+    /** @param clock nanosecond time source, {@link System#nanoTime} outside tests */
+    public RefreshQueue(Map<Priority, Duration> intervals, LongSupplier clock) {
+        this.clock = clock;
+        for (Priority p : Priority.values()) {
+            Duration d = intervals.get(p);
+            if (d == null || d.isNegative()) throw new IllegalArgumentException("No interval for " + p);
+            this.intervals.put(p, d.toNanos());
+            queued.put(p, new TreeSet<>((a, b) -> a.dueAt != b.dueAt ? Long.compare(a.dueAt, b.dueAt) : Long.compare(a.seq, b.seq)));
+        }
+    }
+
+    /**
+     * Start refreshing {@code key} at {@code priority}, or move it to that tier. A new key is due at once; a
+     * promoted key is due one (shorter) interval after its last run, a demoted one one (longer) interval after it.
+     */
+    public void track(K key, Priority priority) {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            Entry<K> e = entries.get(key);
+            if (e == null) {
+                e = new Entry<>(key, seq++, priority, now);
+                entries.put(key, e);
+                queued.get(priority).add(e);
+            } else if (e.priority != priority) {
+                boolean wasQueued = dequeue(e);
+                e.priority = priority;
+                if (e.ran && !e.rerun) e.dueAt = e.lastRunAt + intervals.get(priority);
+                if (wasQueued) queued.get(priority).add(e);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Run {@code key} as soon as a slot frees up; an unknown key is tracked at {@link Priority#IDLE} first. */
+    public void requestNow(K key) {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            Entry<K> e = entries.get(key);
+            if (e == null) {
+                track(key, Priority.IDLE);
+                return;
+            }
+            if (e.running) {
+                if (e.rerun) coalesced.increment();
+                e.rerun = true;
+            } else if (e.dueAt <= now) {
+                coalesced.increment();
+            } else {
+                dequeue(e);
+                e.dueAt = now;
+                queued.get(e.priority).add(e);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stop refreshing {@code key}; a run in progress completes but is not rescheduled. */
+    public void untrack(K key) {
+        lock.lock();
+        try {
+            Entry<K> e = entries.remove(key);
+            if (e != null) dequeue(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The most urgent due key, now marked running, or null when nothing is due. */
+    public K poll() {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            for (Priority p : Priority.values()) {
+                TreeSet<Entry<K>> tier = queued.get(p);
+                if (tier.isEmpty() || tier.first().dueAt > now) continue;
+                Entry<K> e = tier.pollFirst();
+                e.running = true;
+                running++;
+                return e.key;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Block until a key is due, then behave as {@link #poll}. */
+    public K take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                K key = poll();
+                if (key != null) return key;
+                long wait = nanosUntilDue();
+                if (wait == Long.MAX_VALUE) changed.await(); else changed.awaitNanos(wait);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand back a key returned by {@link #poll} / {@link #take}, whether its run succeeded or not: it is due again
+     * one interval from now, or at once if it was re-requested while running.
+     */
+    public void complete(K key) {
+        lock.lock();
+        try {
+            Entry<K> e = entries.get(key);
+            runs.increment();
+            running--;
+            if (e == null || !e.running) return; // untracked (or untracked and re-tracked) while running
+            long now = clock.getAsLong();
+            e.running = false;
+            e.ran = true;
+            e.lastRunAt = now;
+            e.dueAt = e.rerun ? now : now + intervals.get(e.priority);
+            e.rerun = false;
+            queued.get(e.priority).add(e);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Nanos until the earliest queued key is due; 0 when one is due now, {@link Long#MAX_VALUE} when none is queued. */
+    public long nanosUntilDue() {
+        lock.lock();
+        try {
+            long now = clock.getAsLong(), next = Long.MAX_VALUE;
+            for (TreeSet<Entry<K>> tier : queued.values()) {
+                if (!tier.isEmpty()) next = Math.min(next, Math.max(0L, tier.first().dueAt - now));
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Priority priorityOf(K key) {
+        lock.lock();
+        try {
+            Entry<K> e = entries.get(key);
+            return e != null ? e.priority : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(runs.sum(), coalesced.sum(), entries.size(), running);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---------- helpers ----------
+
+    /** Remove from its tier if queued (not running); returns whether it was queued. */
+    private boolean dequeue(Entry<K> e) {
+        return !e.running && queued.get(e.priority).remove(e);
+    }
+}
@@ -0,0 +1,277 @@
+package org.bettingengine.bettingengine;
+
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.bettingengine.bettingengine.RefreshQueue.Priority;
+
+/**
+ * Keeps the raw team files and the odds index fresh in the background. Teams sit in a {@link RefreshQueue} by
+ * priority (live / soon: every minute, idle: daily by default); one dispatcher thread hands the most urgent due job
+ * to a small worker pool, so a backlog drains live teams first. Jobs are paid from a request budget: an estimate up
+ * front (a team's probe, one request per career slice), then whatever the parser's rate limiter actually handed out
+ * beyond that once the job completes, as debt that holds back the next dispatch. Over a few minutes background work
+ * thus stays within {@code refresh.budget-per-minute}, though one large sync (e.g. a first full dump) can run ahead
+ * of it until the debt is paid off. Requests that manual dumps send through the same limiter are charged too, so
+ * background refreshes yield to them rather than compete.
+ * A team refresh is {@link TournamentTeamPlaysParserImpl#syncTeamRawJson} (a probe, plus full data for new matches
+ * only). A sync with nothing new leaves the file untouched, so a team whose file has the same size and mtime as
+ * after its previous run is skipped; files that changed are batched into one
+ * {@link OddsIndexService#refresh(Collection)} at most every {@code refresh.index-delay}, which decodes only the
+ * matches the index lacks.
+ * Tracked players' careers are one more (idle) job, backed by the {@link RefreshConfig} career cache whose TTL is
+ * {@code refresh.player-interval}, so each run only fetches the players that expired.
+ * Enabled with {@code refresh.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "refresh", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RefreshProperties.class)
+public class RefreshScheduler implements AutoCloseable {
+
+    /** Queue key of the careers job; team ids are positive. */
+    public static final int PLAYERS = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshScheduler.class);
+
+    /** Requests every team sync sends: the id probe. New matches are charged once the job has sent them. */
+    private static final int TEAM_COST = 1;
+
+    /** A team file as its last sync left it. */
+    private record FileStamp(Path file, long size, long modifiedMillis) {}
+
+    /** Counter snapshot of the jobs run so far. */
+    public record Stats(long teamRuns, long playerRuns, long failures, long indexRefreshes, RefreshQueue.Stats queue) {}
+
+    private final TournamentTeamPlaysParserImpl parser;
+    private final OddsIndexService odds;
+    private final RefreshProperties props;
+    private final Path dataDir;
+    private final RefreshQueue<Integer> queue;
+    private final TokenBucketRateLimiter budget;
+    private final Map<Integer, FileStamp> synced = new ConcurrentHashMap<>();
+    private final Set<Long> players = ConcurrentHashMap.newKeySet();
+    private final Set<Path> changedFiles = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean indexPending = new AtomicBoolean();
+    private final ReentrantLock billing = new ReentrantLock();
+    private long billedRequests; // limiter acquisitions accounted for so far
+    private final LongAdder teamRuns = new LongAdder(), playerRuns = new LongAdder(), failures = new LongAdder(),
+            indexRefreshes = new LongAdder();
+
+    private final Semaphore slots;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService indexTimer;
+    private final Thread dispatcher;
+    private PipelineMetrics metrics = PipelineMetrics.NOOP;
+
+    public RefreshScheduler(TournamentTeamPlaysParserImpl parser, OddsIndexService odds, OddsProperties oddsProps,
+                            RefreshProperties props) {
+        this.parser = parser;
+        this.odds = odds;
+        this.props = props;
+        this.dataDir = Path.of(oddsProps.getDataDir());
+        this.queue = new RefreshQueue<>(Map.of(
+                Priority.LIVE, props.getLiveInterval(),
+                Priority.SOON, props.getSoonInterval(),
+                Priority.IDLE, props.getIdleInterval()));
+        this.budget = new TokenBucketRateLimiter(Math.max(1, props.getBudgetPerMinute()), Math.max(1, props.getBudgetPerMinute()),
+                Duration.ofMinutes(1));
+        this.billedRequests = parser.getRateLimiter().stats().acquired();
+
+        int n = Math.max(1, props.getWorkers());
+        this.slots = new Semaphore(n);
+        this.workers = Executors.newFixedThreadPool(n, daemon("refresh-worker-"));
+        this.indexTimer = Executors.newSingleThreadScheduledExecutor(daemon("refresh-index-"));
+        this.dispatcher = daemon("refresh-dispatcher-").newThread(this::dispatch);
+
+        for (int teamId : props.getTeamIds()) track(teamId, Priority.IDLE);
+        for (int teamId : props.getLiveTeamIds()) track(teamId, Priority.LIVE);
+        trackPlayers(props.getPlayerIds());
+    }
+
+    @Autowired(required = false)
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+        metrics.bindRefresh(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!dispatcher.isAlive()) dispatcher.start();
+    }
+
+    /** Refresh {@code teamId} at {@code priority} from now on (e.g. LIVE when its series starts, IDLE after). */
+    public void track(int teamId, Priority priority) {
+        if (teamId <= 0) throw new IllegalArgumentException("teamId must be positive: " + teamId);
+        queue.track(teamId, priority);
+    }
+
+    public void untrack(int teamId) {
+        queue.untrack(teamId);
+    }
+
+    /** Refresh {@code teamId} as soon as possible; repeated requests before it runs collapse into one. */
+    public void requestNow(int teamId) {
+        queue.requestNow(teamId);
+    }
+
+    /** Add players to the careers job; newly added ones are fetched on its next run. */
+    public void trackPlayers(Collection<Long> steamIds) {
+        if (steamIds.isEmpty()) return;
+        players.addAll(steamIds);
+        if (queue.priorityOf(PLAYERS) == null) queue.track(PLAYERS, Priority.IDLE); else queue.requestNow(PLAYERS);
+    }
+
+    public Priority priorityOf(int teamId) {
+        return queue.priorityOf(teamId);
+    }
+
+    public Stats stats() {
+        return new Stats(teamRuns.sum(), playerRuns.sum(), failures.sum(), indexRefreshes.sum(), queue.stats());
+    }
+
+    @Override
+    public void close() {
+        dispatcher.interrupt();
+        workers.shutdownNow();
+        indexTimer.shutdownNow();
+    }
+
+    // ---------- helpers ----------
+
+    /** Take a worker slot, then the most urgent due job, pay its estimated cost, and hand it over. */
+    private void dispatch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                slots.acquire();
+                int key = queue.take();
+                int cost = cost(key);
+                for (int i = cost; i > 0; i--) budget.acquire();
+                workers.execute(() -> {
+                    try {
+                        run(key);
+                    } finally {
+                        settle(cost);
+                        queue.complete(key);
+                        slots.release();
+                    }
+                });
+            }
+        } catch (InterruptedException | RejectedExecutionException e) {
+            Thread.currentThread().interrupt(); // closed
+        }
+    }
+
+    /**
+     * Charge the budget for the limiter acquisitions since the last settlement, less the {@code prepaid} requests of
+     * the job just finished. Each acquisition is seen by exactly one settlement, so nothing goes uncharged; a job that
+     * sent less than it prepaid (or whose requests another job's settlement already saw) only overpays. Taken as debt
+     * ({@link TokenBucketRateLimiter#reserve}), so the worker never blocks and the dispatcher waits it off.
+     */
+    private void settle(int prepaid) {
+        long owed;
+        billing.lock();
+        try {
+            long acquired = parser.getRateLimiter().stats().acquired();
+            owed = Math.max(0L, acquired - billedRequests - prepaid); // a limiter swapped in later starts from 0
+            billedRequests = acquired;
+        } finally {
+            billing.unlock();
+        }
+        for (long i = 0; i < owed; i++) budget.reserve();
+    }
+
+    private int cost(int key) {
+        if (key != PLAYERS) return TEAM_COST;
+        return Math.max(1, (players.size() + PlayerCareerFetcher.MAX_IDS_PER_REQUEST - 1) / PlayerCareerFetcher.MAX_IDS_PER_REQUEST);
+    }
+
+    private void run(int key) {
+        Timer.Sample sample = metrics.start();
+        String kind = key == PLAYERS ? "career" : "team";
+        try {
+            if (key == PLAYERS) refreshPlayers(); else refreshTeam(key);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Refresh of {} failed: {}", key == PLAYERS ? "player careers" : "teamId=" + key, e.getMessage());
+        } finally {
+            metrics.stop(sample, "refresh", kind);
+        }
+    }
+
+    private void refreshTeam(int teamId) throws Exception {
+        Path file = parser.syncTeamRawJson(teamId, props.getProbePageSize(), dataDir);
+        teamRuns.increment();
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        FileStamp stamp = new FileStamp(file, attrs.size(), attrs.lastModifiedTime().toMillis());
+        if (stamp.equals(synced.put(teamId, stamp))) return;
+        changedFiles.add(file);
+        scheduleIndexRefresh();
+    }
+
+    private void refreshPlayers() throws Exception {
+        List<Long> ids = new ArrayList<>(players);
+        if (ids.isEmpty()) return;
+        parser.dumpPlayersCareerJson(ids, props.getTakeHeroes(), dataDir.resolve(".careers").resolve("players_pro_career.json"));
+        playerRuns.increment();
+    }
+
+    /** Fold every file changed since the last call into the odds index in one swap. */
+    private void refreshIndex() {
+        indexPending.set(false);
+        List<Path> files = new ArrayList<>(changedFiles);
+        changedFiles.removeAll(files);
+        if (files.isEmpty()) return;
+        try {
+            odds.refresh(files);
+            indexRefreshes.increment();
+        } catch (Exception e) {
+            changedFiles.addAll(files); // retried with the next batch
+            log.warn("Odds index refresh failed: {}", e.getMessage());
+            scheduleIndexRefresh();
+        }
+    }
+
+    private void scheduleIndexRefresh() {
+        if (indexPending.compareAndSet(false, true)) {
+            indexTimer.schedule(this::refreshIndex, props.getIndexDelay().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
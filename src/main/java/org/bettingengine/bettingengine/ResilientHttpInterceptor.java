@@ -0,0 +1,245 @@
+package org.bettingengine.bettingengine;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry, circuit breaking and optional hedging for the STRATZ RestClient. Must be the last interceptor: every
+ * retry or hedge calls {@code execution.execute} again, which then opens a fresh request on the pooled factory.
+ * <ul>
+ *   <li>429, any 5xx and I/O errors are retried with full-jitter exponential backoff, never sooner than
+ *       Retry-After. The last attempt's response is returned as-is, so RestClient still reports the status.</li>
+ *   <li>A call that still fails after its retries counts once against the {@link CircuitBreaker}; while it is open
+ *       calls fail fast with {@link CircuitBreaker.OpenException}.</li>
+ *   <li>With hedging on, an attempt that hasn't answered within the hedge delay gets a duplicate; the first
+ *       response wins and the other is closed. STRATZ GraphQL queries are read-only, so duplicates are safe.</li>
+ * </ul>
+ */
+public class ResilientHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    /** Counter snapshot. */
+    public record Stats(long calls, long retries, long hedges, long hedgeWins, long shortCircuited) {}
+
+    private final StratzClientProperties.Retry retry;
+    private final StratzClientProperties.Hedge hedge;
+    private final CircuitBreaker breaker;
+    private final ExecutorService hedgeExecutor;
+
+    private final LongAdder calls, retries, hedges, hedgeWins, shortCircuited;
+
+    public ResilientHttpInterceptor(StratzClientProperties.Retry retry, StratzClientProperties.Hedge hedge, CircuitBreaker breaker) {
+        this.retry = retry;
+        this.hedge = hedge;
+        this.breaker = breaker;
+        this.hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.calls = new LongAdder();
+        this.retries = new LongAdder();
+        this.hedges = new LongAdder();
+        this.hedgeWins = new LongAdder();
+        this.shortCircuited = new LongAdder();
+    }
+
+    private ResilientHttpInterceptor(ResilientHttpInterceptor source, StratzClientProperties.Retry retry) {
+        this.retry = retry;
+        this.hedge = source.hedge;
+        this.breaker = source.breaker;
+        this.hedgeExecutor = source.hedgeExecutor;
+        this.calls = source.calls;
+        this.retries = source.retries;
+        this.hedges = source.hedges;
+        this.hedgeWins = source.hedgeWins;
+        this.shortCircuited = source.shortCircuited;
+    }
+
+    /**
+     * The same breaker, hedging and counters, but a single attempt per call: for callers that retry themselves and
+     * need to see every 429 (see {@link PlayerCareerFetcher}).
+     */
+    public ResilientHttpInterceptor withoutRetries() {
+        StratzClientProperties.Retry single = new StratzClientProperties.Retry();
+        single.setMaxAttempts(1);
+        single.setBaseBackoff(retry.getBaseBackoff());
+        single.setMaxBackoff(retry.getMaxBackoff());
+        return new ResilientHttpInterceptor(this, single);
+    }
+
+    /** {@code client} with its resilience interceptor (if any) swapped for {@link #withoutRetries()}. */
+    public static RestClient withoutRetries(RestClient client) {
+        return client.mutate()
+                .requestInterceptors(list -> list.replaceAll(i -> i instanceof ResilientHttpInterceptor r ? r.withoutRetries() : i))
+                .build();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        calls.increment();
+        boolean trial;
+        try {
+            trial = breaker.acquirePermission();
+        } catch (CircuitBreaker.OpenException e) {
+            shortCircuited.increment();
+            throw e;
+        }
+
+        boolean reported = false;
+        try {
+            int maxAttempts = Math.max(1, retry.getMaxAttempts());
+            for (int attempt = 1; ; attempt++) {
+                ClientHttpResponse response;
+                try {
+                    response = execute(request, body, execution);
+                } catch (IOException e) {
+                    if (Thread.currentThread().isInterrupted()) throw e; // not a timeout: the caller gave up
+                    if (attempt >= maxAttempts) {
+                        breaker.onFailure();
+                        reported = true;
+                        throw e;
+                    }
+                    retries.increment();
+                    sleep(attempt, null);
+                    continue;
+                }
+
+                int status = response.getStatusCode().value();
+                if (!isRetryable(status)) {
+                    breaker.onSuccess(); // 2xx, 3xx or a 4xx other than 429: STRATZ answered, the request was ours to fix
+                    reported = true;
+                    return response;
+                }
+                if (attempt >= maxAttempts) {
+                    breaker.onFailure();
+                    reported = true;
+                    return response;
+                }
+                Duration retryAfter = retryAfter(response.getHeaders().getFirst("Retry-After"));
+                response.close();
+                retries.increment();
+                sleep(attempt, retryAfter);
+            }
+        } finally {
+            // interrupted, or an unchecked exception: no verdict on STRATZ, but a half-open trial must not stay taken
+            if (!reported && trial) breaker.release();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(calls.sum(), retries.sum(), hedges.sum(), hedgeWins.sum(), shortCircuited.sum());
+    }
+
+    public CircuitBreaker circuitBreaker() { return breaker; }
+
+    /**
+     * Whether a STRATZ status is worth retrying and counts against the breaker: 429 and every 5xx. Shared with
+     * {@link ReactiveTournamentTeamPlaysParser} so the blocking and reactive clients agree.
+     */
+    public static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    // ---------- helpers ----------
+
+    private ClientHttpResponse execute(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!hedge.isEnabled()) return execution.execute(request, body);
+
+        CompletableFuture<ClientHttpResponse> primary = submit(request, body, execution);
+        try {
+            return primary.get(hedge.getDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            hedges.increment();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for STRATZ");
+        }
+
+        CompletableFuture<ClientHttpResponse> backup = submit(request, body, execution);
+        CompletableFuture<ClientHttpResponse> winner = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        race(primary, winner, claimed, failures, false);
+        race(backup, winner, claimed, failures, true);
+        try {
+            return winner.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for STRATZ");
+        }
+    }
+
+    private CompletableFuture<ClientHttpResponse> submit(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execution.execute(request, body);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, hedgeExecutor);
+    }
+
+    /** First response completes {@code winner}; a late one is closed; the error surfaces only if both fail. */
+    private void race(CompletableFuture<ClientHttpResponse> attempt, CompletableFuture<ClientHttpResponse> winner,
+                      AtomicBoolean claimed, AtomicInteger failures, boolean isHedge) {
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                if (claimed.compareAndSet(false, true)) {
+                    if (isHedge) hedgeWins.increment();
+                    winner.complete(response);
+                } else {
+                    response.close();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+    }
+
+    private static IOException unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) t = t.getCause();
+        if (t instanceof IOException io) return io;
+        if (t instanceof RuntimeException re) throw re;
+        return new IOException(t);
+    }
+
+    /** Full-jitter exponential backoff capped at maxBackoff, never shorter than Retry-After. */
+    private void sleep(int attempt, Duration retryAfter) throws InterruptedIOException {
+        long cap = Math.min(retry.getMaxBackoff().toNanos(), retry.getBaseBackoff().toNanos() << Math.min(attempt - 1, 20));
+        long nanos = cap > 0 ? ThreadLocalRandom.current().nextLong(cap + 1) : 0L;
+        if (retryAfter != null) nanos = Math.max(nanos, Math.min(retryAfter.toNanos(), retry.getMaxBackoff().toNanos()));
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during STRATZ retry backoff");
+        }
+    }
+
+    private static Duration retryAfter(String header) {
+        if (header == null) return null;
+        try {
+            return Duration.ofSeconds(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
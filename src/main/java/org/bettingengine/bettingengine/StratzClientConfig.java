@@ -0,0 +1,96 @@
+package org.bettingengine.bettingengine;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * The STRATZ {@link RestClient}: pooled keep-alive connections with connect/read timeouts, wrapped in
+ * {@link ResilientHttpInterceptor} (retries, circuit breaker, optional hedging) and metered by {@link PipelineMetrics}.
+ * Everything is driven by {@link StratzClientProperties}; the static builders let tests assemble the same stack without a context.
+ */
+@Configuration
+@EnableConfigurationProperties(StratzClientProperties.class)
+public class StratzClientConfig {
+
+    /** One bucket for every STRATZ caller in the process: both parsers draw from it, so together they stay within the token's limits. */
+    @Bean
+    public TokenBucketRateLimiter stratzRateLimiter() {
+        return TokenBucketRateLimiter.stratzDefault();
+    }
+
+    @Bean
+    public CircuitBreaker stratzCircuitBreaker(StratzClientProperties props) {
+        return new CircuitBreaker(props.getCircuitBreaker().getFailureThreshold(), props.getCircuitBreaker().getOpenDuration());
+    }
+
+    @Bean
+    public ResilientHttpInterceptor stratzResilienceInterceptor(StratzClientProperties props, CircuitBreaker stratzCircuitBreaker,
+                                                                PipelineMetrics metrics) {
+        ResilientHttpInterceptor interceptor = new ResilientHttpInterceptor(props.getRetry(), props.getHedge(), stratzCircuitBreaker);
+        metrics.bindResilience(interceptor);
+        return interceptor;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient stratzHttpClient(StratzClientProperties props) {
+        return httpClient(props);
+    }
+
+    @Bean
+    public RestClient stratzRestClient(RestClient.Builder builder, StratzClientProperties props,
+                                       CloseableHttpClient stratzHttpClient, ResilientHttpInterceptor stratzResilienceInterceptor,
+                                       PipelineMetrics metrics) {
+        builder.requestInterceptor(metrics.httpInterceptor()); // outermost: one sample per logical call
+        return restClient(builder, props, stratzHttpClient, stratzResilienceInterceptor);
+    }
+
+    static CloseableHttpClient httpClient(StratzClientProperties props) {
+        StratzClientProperties.Pool pool = props.getPool();
+        ConnectionConfig connection = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(props.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(props.getReadTimeout()))
+                .setTimeToLive(TimeValue.of(pool.getTimeToLive()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(pool.getMaxTotal())
+                        .setMaxConnPerRoute(pool.getMaxPerRoute())
+                        .setDefaultConnectionConfig(connection)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(props.getConnectTimeout()))
+                        .setResponseTimeout(Timeout.of(props.getReadTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(pool.getEvictIdleAfter()))
+                .disableAutomaticRetries() // ResilientHttpInterceptor owns retries
+                .build();
+    }
+
+    static RestClient restClient(RestClient.Builder builder, StratzClientProperties props,
+                                 CloseableHttpClient httpClient, ResilientHttpInterceptor interceptor) {
+        builder.baseUrl(props.getBaseUrl())
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.USER_AGENT, "STRATZ_API")
+                .requestInterceptors(list -> list.add(interceptor)); // last, so retries re-run only the transport
+        if (props.getToken() != null && !props.getToken().isBlank()) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + props.getToken());
+        }
+        return builder.build();
+    }
+}
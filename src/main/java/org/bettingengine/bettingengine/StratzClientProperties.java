@@ -0,0 +1,66 @@
+package org.bettingengine.bettingengine;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/** {@code stratz.*} settings for the STRATZ GraphQL client; see application.properties for the defaults in use. */
+@Data
+@ConfigurationProperties(prefix = "stratz")
+public class StratzClientProperties {
+
+    private String baseUrl = "https://api.stratz.com/graphql";
+    /** API token; taken from the STRATZ_TOKEN environment variable by default, never committed. */
+    private String token = "";
+
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    /** Socket read timeout; one slow response can't hold a dump longer than this per attempt. */
+    private Duration readTimeout = Duration.ofSeconds(20);
+
+    private Pool pool = new Pool();
+    private Retry retry = new Retry();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Hedge hedge = new Hedge();
+    private Reactive reactive = new Reactive();
+
+    @Data
+    public static class Pool {
+        private int maxTotal = 32;
+        private int maxPerRoute = 16;
+        /** Connections are recycled after this long even when healthy. */
+        private Duration timeToLive = Duration.ofMinutes(5);
+        private Duration evictIdleAfter = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Retry {
+        /** Total attempts including the first one; 1 disables retries. */
+        private int maxAttempts = 4;
+        private Duration baseBackoff = Duration.ofMillis(250);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        /** Consecutive failed calls (after retries) that open the circuit. */
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Hedge {
+        private boolean enabled = false;
+        /** A duplicate request is sent when the first one hasn't answered within this delay. */
+        private Duration delay = Duration.ofMillis(1500);
+    }
+
+    @Data
+    public static class Reactive {
+        /** Registers {@link ReactiveTournamentTeamPlaysParser} as the primary parser. */
+        private boolean enabled = false;
+        /** Threads driving the non-blocking HTTP client; every request in flight shares them. */
+        private int eventLoopThreads = 4;
+        private int maxInFlight = 256;
+    }
+}
@@ -0,0 +1,186 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persisted {@link TeamAggregator} state per (team file, league), kept as one JSON file per pair in {@code dir}
+ * (by convention outDir/.aggregates, next to the sync marks in outDir/.sync). A refresh
+ * <ul>
+ *   <li>returns the stored aggregates without opening the team file when its size and mtime are unchanged;</li>
+ *   <li>otherwise takes the file's match ids in one token pass (nothing else is decoded). When the ids stored at
+ *       the last refresh are exactly the file's tail, a sync wrote new matches in front of them: only those are
+ *       parsed, with {@link TeamMatchesReader} stopping at the old first match, and folded into the restored
+ *       aggregator (O(new matches) of parsing and aggregation);</li>
+ *   <li>rebuilds from the whole file when they are not, e.g. after a re-dump with another take/skip or profile
+ *       dropped or reordered matches, so nothing that left the file stays counted;</li>
+ *   <li>writes the new state atomically (.part, then moved) and keeps it in memory for the next call.</li>
+ * </ul>
+ * Because {@link QuantileSketch}es merge exactly, the result equals a full recompute over the same matches.
+ */
+public class TeamAggregateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamAggregateStore.class);
+
+    /** Outcome of one refresh; {@code aggregator} is a private copy the caller may keep feeding. */
+    public record Refresh(TeamAggregator aggregator, String teamName, String teamTag, int newMatches, boolean unchanged) {}
+
+    /** Counter snapshot. */
+    public record Stats(long unchanged, long updated, long rebuilt, long matchesAbsorbed) {}
+
+    /**
+     * On-disk entry; {@code matchIds} is sorted and holds every match already folded into {@code aggregates},
+     * {@code fileMatchIds} is every match id of the source file (any league) in file order.
+     */
+    record Entry(String sourceFile, int leagueId, long sourceSize, long sourceModifiedMillis,
+                 String teamName, String teamTag, long[] matchIds, long[] fileMatchIds, TeamAggregator.State aggregates) {}
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TeamMatchesReader reader = new TeamMatchesReader(false);
+    private final Path dir;
+    private final Map<String, Entry> memory = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    private final LongAdder unchanged = new LongAdder(), updated = new LongAdder(), rebuilt = new LongAdder(),
+            matchesAbsorbed = new LongAdder();
+
+    public TeamAggregateStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /** Bring the aggregates of {@code teamFile} restricted to {@code leagueId} up to date and return them. */
+    public Refresh refresh(Path teamFile, int leagueId) throws IOException {
+        String key = key(teamFile, leagueId);
+        ReentrantLock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(teamFile, BasicFileAttributes.class);
+            long size = attrs.size(), modified = attrs.lastModifiedTime().toMillis();
+
+            Entry entry = memory.get(key);
+            if (entry == null) entry = readEntry(key);
+            if (entry != null && entry.sourceSize() == size && entry.sourceModifiedMillis() == modified) {
+                unchanged.increment();
+                return new Refresh(TeamAggregator.fromState(entry.aggregates()), entry.teamName(), entry.teamTag(), 0, true);
+            }
+
+            long[] fileIds = scanMatchIds(teamFile);
+            int prepended = entry != null ? newPrefix(fileIds, entry.fileMatchIds()) : -1;
+            TeamMatches tm;
+            if (prepended >= 0) {
+                long oldHead = prepended < fileIds.length ? fileIds[prepended] : 0L;
+                tm = reader.read(teamFile, leagueId, id -> false, id -> prepended < fileIds.length && id == oldHead);
+            } else {
+                tm = reader.read(teamFile, leagueId);
+            }
+            TeamAggregator agg;
+            long[] ids;
+            if (prepended >= 0 && entry.aggregates().teamId() == tm.teamId()) {
+                long[] known = entry.matchIds();
+                if (tm.name() == null && tm.tag() == null) { // team fields after the matches were not reached
+                    tm = new TeamMatches(tm.teamId(), entry.teamName(), entry.teamTag(), tm.matches(), tm.profile());
+                }
+                agg = TeamAggregator.fromState(entry.aggregates());
+                ids = Arrays.copyOf(known, known.length + tm.matches().size());
+                updated.increment();
+            } else {
+                if (prepended >= 0) tm = reader.read(teamFile, leagueId); // file now holds another team: start over
+                agg = new TeamAggregator(tm.teamId());
+                ids = new long[tm.matches().size()];
+                rebuilt.increment();
+            }
+            int n = ids.length - tm.matches().size();
+            List<Match> fresh = tm.matches();
+            for (Match m : fresh) ids[n++] = m.id();
+            Arrays.sort(ids);
+            agg.acceptAll(fresh);
+            matchesAbsorbed.add(fresh.size());
+
+            Entry next = new Entry(teamFile.getFileName().toString(), leagueId, size, modified, tm.name(), tm.tag(), ids,
+                    fileIds, agg.state());
+            writeEntry(key, next);
+            memory.put(key, next);
+            return new Refresh(TeamAggregator.fromState(next.aggregates()), tm.name(), tm.tag(), fresh.size(), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(unchanged.sum(), updated.sum(), rebuilt.sum(), matchesAbsorbed.sum());
+    }
+
+    // ---------- helpers ----------
+
+    private static String key(Path teamFile, int leagueId) {
+        String name = teamFile.getFileName().toString();
+        return (name.endsWith(".json") ? name.substring(0, name.length() - 5) : name) + "." + leagueId;
+    }
+
+    /**
+     * How many ids in front of {@code previous} {@code current} has, when {@code previous} is exactly its tail;
+     * -1 otherwise (or when {@code previous} is unknown, as in states written before file ids were kept).
+     */
+    static int newPrefix(long[] current, long[] previous) {
+        if (previous == null || previous.length > current.length) return -1;
+        int offset = current.length - previous.length;
+        return Arrays.equals(current, offset, current.length, previous, 0, previous.length) ? offset : -1;
+    }
+
+    /** Every match id of a team file in file order, from one token pass that decodes nothing else. */
+    private long[] scanMatchIds(Path teamFile) throws IOException {
+        LongArray ids = new LongArray();
+        try (JsonParser p = mapper.getFactory().createParser(teamFile.toFile())) {
+            if (p.nextToken() == JsonToken.START_OBJECT && TeamMatchesReader.seekField(p, "data")
+                    && p.nextToken() == JsonToken.START_OBJECT && TeamMatchesReader.seekField(p, "team")
+                    && p.nextToken() == JsonToken.START_OBJECT && TeamMatchesReader.seekField(p, "matches")
+                    && p.nextToken() == JsonToken.START_ARRAY) {
+                while (p.nextToken() == JsonToken.START_OBJECT) {
+                    long id = 0L;
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String f = p.currentName();
+                        p.nextToken();
+                        if ("id".equals(f)) id = p.getValueAsLong();
+                        else p.skipChildren();
+                    }
+                    ids.add(id);
+                }
+            }
+        }
+        return ids.toArray();
+    }
+
+    private Entry readEntry(String key) {
+        Path f = dir.resolve(key + ".json");
+        if (!Files.exists(f)) return null;
+        try {
+            return mapper.readValue(f.toFile(), Entry.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable aggregate state {} : {}", f, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeEntry(String key, Entry entry) throws IOException {
+        Files.createDirectories(dir);
+        Path f = dir.resolve(key + ".json");
+        Path part = dir.resolve(key + ".json.part");
+        mapper.writeValue(part.toFile(), entry);
+        Files.move(part, f, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,265 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Team and per-player aggregates for one team over typed matches:
+ * wins/losses, durations, team kills/deaths, per-player best heroes. Every kept match counts towards matchesCount;
+ * one without a result adds no win or loss, one without a duration no duration, and players without a side are
+ * skipped, exactly as the original map-based analysis did.
+ * Per-match stats are folded into {@link QuantileSketch}es (average plus p25/p50/p75/p90), so memory stays bounded
+ * as history grows and aggregators built over disjoint slices of matches {@link #merge} to the same result.
+ */
+public class TeamAggregator {
+
+    /** Serializable snapshot of every counter and sketch; {@link #fromState} resumes exactly where it left off. */
+    public record State(int teamId, int matchesCount, int wins, int losses,
+                        QuantileSketch.State durations, QuantileSketch.State kills, QuantileSketch.State deaths,
+                        List<PlayerState> players) {}
+
+    public record PlayerState(String playerName, int matches, int wins,
+                              QuantileSketch.State kills, QuantileSketch.State deaths, List<HeroState> heroes) {}
+
+    public record HeroState(int heroId, String heroName, int matches, int wins,
+                            QuantileSketch.State kills, QuantileSketch.State deaths) {}
+
+    private final int teamId;
+
+    private int matchesCount = 0, wins = 0, losses = 0;
+    private QuantileSketch durations = new QuantileSketch(4096);
+    private QuantileSketch teamKillsPerMatch = new QuantileSketch(64);
+    private QuantileSketch teamDeathsPerMatch = new QuantileSketch(64);
+
+    // Per-player aggregates keyed by pro nickname (fallback "Unknown")
+    private final Map<String, PlayerAgg> perPlayer = new LinkedHashMap<>();
+
+    // match in progress between beginMatch and endMatch
+    private boolean teamIsRad, teamIsDire;
+    private int killsSum, deathsSum;
+
+    public TeamAggregator(int teamId) {
+        this.teamId = teamId;
+    }
+
+    public void accept(Match m) {
+        if (!beginMatch(m.radiantTeamId(), m.direTeamId(), m.durationSeconds(), m.hasResult(), m.didRadiantWin())) return;
+        List<PlayerPerformance> players = m.players();
+        for (int i = 0, n = players.size(); i < n; i++) {
+            PlayerPerformance p = players.get(i);
+            addPlayer(p.hasSide(), p.isRadiant(), p.isVictory(), p.kills(), p.deaths(), p.heroId(), p.heroName(), p.proName());
+        }
+        endMatch();
+    }
+
+    /**
+     * Primitive form of {@link #accept}, for callers reading columns rather than {@link Match}es: one
+     * {@code beginMatch}, then {@link #addPlayer} per player row, then {@link #endMatch}. Returns false when the
+     * match only counts towards matchesCount (a side without a team id); then neither of the others is called.
+     */
+    public boolean beginMatch(int radiantTeamId, int direTeamId, int durationSeconds, boolean hasResult, boolean didRadiantWin) {
+        matchesCount++;
+        if (radiantTeamId == 0 || direTeamId == 0 || teamId == 0) return false;
+
+        teamIsRad = teamId == radiantTeamId;
+        teamIsDire = teamId == direTeamId;
+        if (hasResult) {
+            if (teamIsRad ? didRadiantWin : teamIsDire && !didRadiantWin) wins++; else losses++;
+        }
+        if (durationSeconds >= 0) durations.add(durationSeconds);
+        killsSum = 0;
+        deathsSum = 0;
+        return true;
+    }
+
+    /** One player row of the match begun last; players without a side or of the other team are skipped. */
+    public void addPlayer(boolean hasSide, boolean isRadiant, boolean isVictory, int kills, int deaths,
+                          int heroId, String heroName, String proName) {
+        if (!hasSide) return;
+        boolean isOnTeam = isRadiant ? teamIsRad : teamIsDire;
+        if (!isOnTeam) return;
+
+        killsSum += kills;
+        deathsSum += deaths;
+        String playerName = proName != null ? proName : "Unknown";
+        perPlayer.computeIfAbsent(playerName, PlayerAgg::new).add(kills, deaths, isVictory, heroId, heroName);
+    }
+
+    public void endMatch() {
+        teamKillsPerMatch.add(killsSum);
+        teamDeathsPerMatch.add(deathsSum);
+    }
+
+    public void acceptAll(List<Match> matches) {
+        for (int i = 0, n = matches.size(); i < n; i++) accept(matches.get(i));
+    }
+
+    /**
+     * Fold in an aggregator of the same team built over other matches (a parallel shard or a later batch).
+     * Counts and sketches add up, so the result equals one aggregator fed every match; players and heroes first
+     * seen in {@code other} are appended after this one's.
+     */
+    public TeamAggregator merge(TeamAggregator other) {
+        if (other.teamId != teamId) throw new IllegalArgumentException("Cannot merge team " + other.teamId + " into " + teamId);
+        matchesCount += other.matchesCount;
+        wins += other.wins;
+        losses += other.losses;
+        durations.merge(other.durations);
+        teamKillsPerMatch.merge(other.teamKillsPerMatch);
+        teamDeathsPerMatch.merge(other.teamDeathsPerMatch);
+        other.perPlayer.forEach((name, pa) -> perPlayer.computeIfAbsent(name, PlayerAgg::new).merge(pa));
+        return this;
+    }
+
+    public int teamId() { return teamId; }
+
+    public int matchesCount() { return matchesCount; }
+
+    public State state() {
+        List<PlayerState> players = perPlayer.values().stream()
+                .map(pa -> new PlayerState(pa.playerName, pa.matches, pa.wins, pa.kills.state(), pa.deaths.state(),
+                        pa.heroes.values().stream()
+                                .map(h -> new HeroState(h.heroId, h.heroName, h.matches, h.wins, h.kills.state(), h.deaths.state()))
+                                .toList()))
+                .toList();
+        return new State(teamId, matchesCount, wins, losses,
+                durations.state(), teamKillsPerMatch.state(), teamDeathsPerMatch.state(), players);
+    }
+
+    public static TeamAggregator fromState(State state) {
+        TeamAggregator agg = new TeamAggregator(state.teamId());
+        agg.matchesCount = state.matchesCount();
+        agg.wins = state.wins();
+        agg.losses = state.losses();
+        agg.durations = QuantileSketch.fromState(state.durations());
+        agg.teamKillsPerMatch = QuantileSketch.fromState(state.kills());
+        agg.teamDeathsPerMatch = QuantileSketch.fromState(state.deaths());
+        for (PlayerState ps : state.players()) {
+            PlayerAgg pa = new PlayerAgg(ps.playerName());
+            pa.matches = ps.matches();
+            pa.wins = ps.wins();
+            pa.kills = QuantileSketch.fromState(ps.kills());
+            pa.deaths = QuantileSketch.fromState(ps.deaths());
+            for (HeroState hs : ps.heroes()) {
+                HeroAgg ha = new HeroAgg(hs.heroId(), hs.heroName());
+                ha.matches = hs.matches();
+                ha.wins = hs.wins();
+                ha.kills = QuantileSketch.fromState(hs.kills());
+                ha.deaths = QuantileSketch.fromState(hs.deaths());
+                pa.heroes.put(hs.heroId(), ha);
+            }
+            agg.perPlayer.put(ps.playerName(), pa);
+        }
+        return agg;
+    }
+
+    public Map<String, Object> teamAggregates() {
+        return Map.of(
+                "matchesCount", matchesCount,
+                "wins", wins,
+                "losses", losses,
+                "durationSeconds", stat(durations),
+                "kills", stat(teamKillsPerMatch),
+                "deaths", stat(teamDeathsPerMatch)
+        );
+    }
+
+    /** Per-player output with best heroes (win rate -> picks -> name). */
+    public List<Map<String, Object>> playerAggregates() {
+        return perPlayer.values().stream()
+                .map(pa -> {
+                    // win rate computed once per hero, not on every comparison
+                    List<Map<String, Object>> bestHeroes = pa.heroes.values().stream()
+                            .map(h -> new RankedHero(h, h.matches > 0 ? (double) h.wins / h.matches : 0.0))
+                            .sorted(BEST_HERO_ORDER)
+                            .limit(3)
+                            .map(r -> Map.of(
+                                    "heroId", r.hero.heroId,
+                                    "heroName", r.hero.heroName,
+                                    "matches", r.hero.matches,
+                                    "wins", r.hero.wins,
+                                    "winRate", r.winRate,
+                                    "kills", stat(r.hero.kills),
+                                    "deaths", stat(r.hero.deaths)
+                            ))
+                            .toList();
+
+                    return Map.<String, Object>of(
+                            "playerName", pa.playerName,
+                            "matchesCount", pa.matches,
+                            "wins", pa.wins,
+                            "kills", stat(pa.kills),
+                            "deaths", stat(pa.deaths),
+                            "bestHeroes", bestHeroes
+                    );
+                })
+                .toList();
+    }
+
+    /** "median" is kept alongside p50 for readers of older output. */
+    private static Map<String, Object> stat(QuantileSketch values) {
+        double p50 = values.median();
+        return Map.of(
+                "average", values.average(),
+                "median", p50,
+                "p25", values.quantile(0.25),
+                "p50", p50,
+                "p75", values.quantile(0.75),
+                "p90", values.quantile(0.90)
+        );
+    }
+
+    private record RankedHero(HeroAgg hero, double winRate) {}
+
+    private static final Comparator<RankedHero> BEST_HERO_ORDER = Comparator
+            .comparingDouble(RankedHero::winRate).reversed()
+            .thenComparing(Comparator.comparingInt((RankedHero r) -> r.hero.matches).reversed())
+            .thenComparing(r -> r.hero.heroName != null ? r.hero.heroName : "");
+
+    // aggregation containers
+    private static final class PlayerAgg {
+        final String playerName;
+        int matches = 0, wins = 0;
+        QuantileSketch kills = new QuantileSketch(32);
+        QuantileSketch deaths = new QuantileSketch(32);
+        final Map<Integer, HeroAgg> heroes = new LinkedHashMap<>();
+        PlayerAgg(String name) { this.playerName = name; }
+
+        void add(int k, int d, boolean victory, int heroId, String heroName) {
+            kills.add(k);
+            deaths.add(d);
+            matches++;
+            if (victory) wins++;
+            if (heroId != 0) {
+                HeroAgg ha = heroes.computeIfAbsent(heroId, id2 -> new HeroAgg(id2, heroName));
+                ha.matches++;
+                if (victory) ha.wins++;
+                ha.kills.add(k);
+                ha.deaths.add(d);
+            }
+        }
+
+        void merge(PlayerAgg other) {
+            matches += other.matches;
+            wins += other.wins;
+            kills.merge(other.kills);
+            deaths.merge(other.deaths);
+            other.heroes.forEach((heroId, h) -> {
+                HeroAgg ha = heroes.computeIfAbsent(heroId, id2 -> new HeroAgg(id2, h.heroName));
+                ha.matches += h.matches;
+                ha.wins += h.wins;
+                ha.kills.merge(h.kills);
+                ha.deaths.merge(h.deaths);
+            });
+        }
+    }
+    private static final class HeroAgg {
+        final int heroId; final String heroName;
+        int matches = 0, wins = 0;
+        QuantileSketch kills = new QuantileSketch(16);
+        QuantileSketch deaths = new QuantileSketch(16);
+        HeroAgg(int id, String name) { this.heroId = id; this.heroName = name; }
+    }
+}
@@ -1,22 +1,43 @@
 package org.bettingengine.bettingengine;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Timer;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.nio.file.*;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 /**
  * Reads raw team JSON files (as dumped by TournamentTeamPlaysParserImpl)
- * and computes: wins/losses, avg/median durations, team kills/deaths, per-player best heroes.
- * Also maps towerDeaths.npcId -> human name using OBJECTIVE_BY_ID.
+ * and computes: wins/losses, average and p25/p50/p75/p90 durations, team kills/deaths, per-player best heroes.
+ * Also maps towerDeaths.npcId -> human name using OBJECTIVE_BY_ID. The file's {@value TeamQueryProfile#MARKER} field
+ * is carried into the analyzed output, so a file fetched without objectives is not mistaken for one without any.
  */
 public class TeamJsonAnalyzer {
 
+    private static final Logger log = LoggerFactory.getLogger(TeamJsonAnalyzer.class);
+
     private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final TeamMatchesReader reader = new TeamMatchesReader(false);
+
+    /** Parse / analyze / write timers, match and objective counts, allocation per file. */
+    @Setter
+    private PipelineMetrics metrics = PipelineMetrics.NOOP;
 
     // Same objective map you already curated
     private static final Map<Integer, String> OBJECTIVE_BY_ID = Map.ofEntries(
@@ -40,176 +61,270 @@ public class TeamJsonAnalyzer {
 
     // ---------- Public API ----------
 
-    /** Analyze a single raw team file and return an augmented structure (filtered by tournament). */
+    /**
+     * Analyze a single raw team file and return an augmented structure (filtered by tournament).
+     * The document is streamed: everything but team.matches binds as before, and each match is bound on its own
+     * with readValueAs, dropped at once when it is from another league, and aggregated from that tree through
+     * {@link TeamMatchesReader} (a walk over the bound nodes, no re-serialisation).
+     */
     @SuppressWarnings("unchecked")
     public Map<String, Object> analyzeTeamFile(Path file, int tournamentId) throws IOException {
-        Map<String, Object> resp = mapper.readValue(Files.readAllBytes(file), new TypeReference<>() {});
+        long allocatedBefore = metrics.threadAllocatedBytes();
+        Timer.Sample sample = metrics.start();
+        Map<String, Object> resp = new LinkedHashMap<>();
+        List<JsonNode> filtered = null;
+        try (JsonParser p = mapper.createParser(file.toFile())) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new IOException("Not a JSON object: " + file);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                if (p.nextToken() != JsonToken.START_OBJECT || !"data".equals(field)) {
+                    resp.put(field, p.readValueAs(Object.class));
+                    continue;
+                }
+                Map<String, Object> data = new LinkedHashMap<>();
+                resp.put(field, data);
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String f = p.currentName();
+                    if (p.nextToken() != JsonToken.START_OBJECT || !"team".equals(f)) {
+                        data.put(f, p.readValueAs(Object.class));
+                        continue;
+                    }
+                    Map<String, Object> team = new LinkedHashMap<>();
+                    data.put(f, team);
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String tf = p.currentName();
+                        if (p.nextToken() != JsonToken.START_ARRAY || !"matches".equals(tf)) {
+                            team.put(tf, p.readValueAs(Object.class));
+                            continue;
+                        }
+                        // 1) Filter matches by tournament (league.id == tournamentId) as they are bound
+                        filtered = new ArrayList<>();
+                        team.put(tf, filtered);
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            JsonNode m = p.readValueAs(JsonNode.class);
+                            if (m != null && m.isObject() && Objects.equals(toInt(m.path("league").path("id")), tournamentId)) {
+                                filtered.add(m);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            metrics.stop(sample, "parse", "team");
+        }
+
         Map<String, Object> data = (Map<String, Object>) resp.get("data");
         if (data == null) return Map.of("data", Map.of());
-
         Map<String, Object> team = (Map<String, Object>) data.get("team");
         if (team == null) return resp;
-
+        if (filtered == null) { team.put("matches", List.of()); return resp; }
         Integer teamId = toInt(team.get("id"));
-        List<Map<String, Object>> matches = (List<Map<String, Object>>) team.get("matches");
-        if (matches == null) { team.put("matches", List.of()); return resp; }
-
-        // 1) Filter matches by tournament (league.id == tournamentId)
-        List<Map<String, Object>> filtered = matches.stream()
-                .filter(m -> {
-                    Map<String, Object> league = (Map<String, Object>) m.get("league");
-                    return league != null && Objects.equals(toInt(league.get("id")), tournamentId);
-                })
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        // 2) Map towerDeaths.npcId -> npcName (add a field)
-        for (var m : filtered) {
-            List<Map<String, Object>> towerDeaths = (List<Map<String, Object>>) m.get("towerDeaths");
-            if (towerDeaths == null) continue;
-            for (var ev : towerDeaths) {
-                Integer npcId = toInt(ev.get("npcId"));
-                if (npcId == null) continue;
-                ev.put("npcName", OBJECTIVE_BY_ID.getOrDefault(npcId, "npc#" + npcId));
+
+        sample = metrics.start();
+        long objectives = 0;
+        try {
+            // 2) Map towerDeaths.npcId -> npcName (add a field)
+            for (JsonNode m : filtered) {
+                JsonNode towerDeaths = m.path("towerDeaths");
+                objectives += towerDeaths.size();
+                for (JsonNode ev : towerDeaths) {
+                    Integer npcId = ev.isObject() ? toInt(ev.path("npcId")) : null;
+                    if (npcId == null) continue;
+                    ((ObjectNode) ev).put("npcName", OBJECTIVE_BY_ID.getOrDefault(npcId, "npc#" + npcId));
+                }
             }
-        }
 
-        // 3) Team-level aggregates
-        int wins = 0, losses = 0;
-        List<Integer> durations = new ArrayList<>();
-        List<Integer> teamKillsPerMatch = new ArrayList<>();
-        List<Integer> teamDeathsPerMatch = new ArrayList<>();
-
-        // 4) Per-player aggregates keyed by pro nickname (fallback "Unknown")
-        Map<String, PlayerAgg> perPlayer = new LinkedHashMap<>();
-
-        for (var m : filtered) {
-            Map<String, Object> rad = (Map<String, Object>) m.get("radiantTeam");
-            Map<String, Object> dire = (Map<String, Object>) m.get("direTeam");
-            Integer radId = rad != null ? toInt(rad.get("id")) : null;
-            Integer dirId = dire != null ? toInt(dire.get("id")) : null;
-            if (radId == null || dirId == null || teamId == null) continue;
-
-            boolean teamIsRad = teamId.equals(radId);
-            boolean teamIsDire = teamId.equals(dirId);
-
-            Boolean didRadiantWin = toBool(m.get("didRadiantWin"));
-            if (didRadiantWin != null) {
-                boolean win = (teamIsRad && didRadiantWin) || (teamIsDire && !didRadiantWin);
-                if (win) wins++; else losses++;
+            // 3) Aggregate over the typed model, read straight off each bound match
+            TeamAggregator agg = new TeamAggregator(teamId != null ? teamId : 0);
+            for (JsonNode m : filtered) {
+                try (JsonParser p = m.traverse()) {
+                    p.nextToken();
+                    agg.accept(reader.readMatch(p, TeamMatchesReader.ANY_LEAGUE));
+                }
             }
 
-            Integer dur = toInt(m.get("durationSeconds"));
-            if (dur != null) durations.add(dur);
-
-            List<Map<String, Object>> players = (List<Map<String, Object>>) m.get("players");
-            int killsSum = 0, deathsSum = 0;
-            if (players != null) {
-                for (var p : players) {
-                    Boolean isRad = toBool(p.get("isRadiant"));
-                    if (isRad == null) continue;
-                    boolean isOnTeam = (isRad && teamIsRad) || (!isRad && teamIsDire);
-                    if (!isOnTeam) continue;
-
-                    int k = nvlInt(p.get("kills"));
-                    int d = nvlInt(p.get("deaths"));
-                    killsSum += k; deathsSum += d;
-
-                    Map<String, Object> hero = (Map<String, Object>) p.get("hero");
-                    Integer heroId = hero != null ? toInt(hero.get("id")) : null;
-                    String heroName = hero != null ? Objects.toString(hero.get("displayName"), "") : "";
-
-                    String playerName = "Unknown";
-                    Map<String, Object> sa = (Map<String, Object>) p.get("steamAccount");
-                    if (sa != null) {
-                        Map<String, Object> pro = (Map<String, Object>) sa.get("proSteamAccount");
-                        if (pro != null) playerName = Objects.toString(pro.get("name"), "Unknown");
-                    }
+            // Attach aggregates next to the filtered matches
+            team.put("aggregates", agg.teamAggregates());
+            team.put("playerAggregates", agg.playerAggregates());
+        } finally {
+            metrics.stop(sample, "analyze", "team");
+        }
+        metrics.matches("analyzed", filtered.size());
+        metrics.events("objectives", objectives);
+        metrics.allocatedSince(allocatedBefore, "team");
+        return resp;
+    }
 
-                    boolean victory = Boolean.TRUE.equals(toBool(p.get("isVictory")));
-
-                    PlayerAgg agg = perPlayer.computeIfAbsent(playerName, PlayerAgg::new);
-                    agg.kills.add(k);
-                    agg.deaths.add(d);
-                    agg.matches++;
-                    if (victory) agg.wins++;
-
-                    if (heroId != null) {
-                        final String hName = heroName; // effectively final for lambda
-                        HeroAgg ha = agg.heroes.computeIfAbsent(heroId, id2 -> new HeroAgg(id2, hName));
-                        ha.matches++;
-                        if (victory) ha.wins++;
-                        ha.kills.add(k);
-                        ha.deaths.add(d);
-                    }
+    /**
+     * Streaming variant of {@link #analyzeTeamFile}: reads the file with {@link TeamMatchesReader} instead of
+     * materialising the document, so playbackData / stats / constants are skipped and other leagues' players are
+     * never built. The result carries the same "aggregates" / "playerAggregates" blocks but no "matches" array.
+     */
+    public Map<String, Object> analyzeTeamFileStreaming(Path file, int tournamentId) throws IOException {
+        TeamMatches tm = reader.read(file, tournamentId);
+        if (tm.teamId() == 0) return Map.of("data", Map.of());
+
+        TeamAggregator agg = new TeamAggregator(tm.teamId());
+        agg.acceptAll(tm.matches());
+
+        Map<String, Object> team = new LinkedHashMap<>();
+        team.put("id", tm.teamId());
+        team.put("name", tm.name());
+        team.put("tag", tm.tag());
+        team.put("aggregates", agg.teamAggregates());
+        team.put("playerAggregates", agg.playerAggregates());
+        return Map.of("data", Map.of("team", team));
+    }
+
+    /**
+     * Same result as {@link #analyzeTeamFileStreaming}, maintained incrementally in {@code store}: an untouched file
+     * is answered from the persisted state without being read, and a synced file only has its new matches folded in.
+     */
+    public Map<String, Object> analyzeTeamFileIncremental(Path file, int tournamentId, TeamAggregateStore store) throws IOException {
+        TeamAggregateStore.Refresh refresh = store.refresh(file, tournamentId);
+        TeamAggregator agg = refresh.aggregator();
+        if (agg.teamId() == 0) return Map.of("data", Map.of());
+
+        Map<String, Object> team = new LinkedHashMap<>();
+        team.put("id", agg.teamId());
+        team.put("name", refresh.teamName());
+        team.put("tag", refresh.teamTag());
+        team.put("aggregates", agg.teamAggregates());
+        team.put("playerAggregates", agg.playerAggregates());
+        return Map.of("data", Map.of("team", team));
+    }
+
+    /**
+     * Same result as {@link #analyzeTeamFileStreaming}, read from a memory-mapped binary match store
+     * (see {@link MatchStore}) instead of JSON text. Aggregates straight from the column views, so no {@link Match}
+     * is built; only the player and hero names are decoded (each string once).
+     */
+    public Map<String, Object> analyzeMatchStore(Path storeFile, int tournamentId) throws IOException {
+        try (MatchStoreReader store = MatchStoreReader.open(storeFile)) {
+            TeamAggregator agg = new TeamAggregator(store.teamId());
+            IntBuffer leagues = store.intColumn(MatchStore.Column.M_LEAGUE),
+                    radTeams = store.intColumn(MatchStore.Column.M_RAD_TEAM),
+                    direTeams = store.intColumn(MatchStore.Column.M_DIRE_TEAM),
+                    durations = store.intColumn(MatchStore.Column.M_DURATION),
+                    kills = store.intColumn(MatchStore.Column.P_KILLS),
+                    deaths = store.intColumn(MatchStore.Column.P_DEATHS),
+                    heroes = store.intColumn(MatchStore.Column.P_HERO),
+                    heroNames = store.intColumn(MatchStore.Column.P_HERO_NAME),
+                    proNames = store.intColumn(MatchStore.Column.P_PRO_NAME);
+            ByteBuffer results = store.byteColumn(MatchStore.Column.M_RADIANT_WIN),
+                    flags = store.byteColumn(MatchStore.Column.P_FLAGS);
+            for (int i = 0, n = store.matchCount(); i < n; i++) {
+                if (leagues.get(i) != tournamentId) continue;
+                byte result = results.get(i);
+                if (!agg.beginMatch(radTeams.get(i), direTeams.get(i), durations.get(i),
+                        result != MatchStore.NO_RESULT, result == 1)) continue;
+                for (int p = store.playerStart(i), end = store.playerStart(i + 1); p < end; p++) {
+                    byte f = flags.get(p);
+                    agg.addPlayer((f & MatchStore.FLAG_NO_SIDE) == 0, (f & MatchStore.FLAG_RADIANT) != 0,
+                            (f & MatchStore.FLAG_VICTORY) != 0, kills.get(p), deaths.get(p),
+                            heroes.get(p), store.string(heroNames.get(p)), store.string(proNames.get(p)));
                 }
+                agg.endMatch();
             }
-            teamKillsPerMatch.add(killsSum);
-            teamDeathsPerMatch.add(deathsSum);
+
+            Map<String, Object> team = new LinkedHashMap<>();
+            team.put("id", store.teamId());
+            team.put("name", store.teamName());
+            team.put("tag", store.teamTag());
+            team.put("aggregates", agg.teamAggregates());
+            team.put("playerAggregates", agg.playerAggregates());
+            return Map.of("data", Map.of("team", team));
         }
+    }
 
-        Map<String, Object> teamAgg = Map.of(
-                "matchesCount", filtered.size(),
-                "wins", wins,
-                "losses", losses,
-                "durationSeconds", Map.of("average", average(durations), "median", median(durations)),
-                "kills", Map.of("average", average(teamKillsPerMatch), "median", median(teamKillsPerMatch)),
-                "deaths", Map.of("average", average(teamDeathsPerMatch), "median", median(teamDeathsPerMatch))
-        );
-
-        // 5) Build per-player output with best heroes (win rate -> picks -> name)
-        List<Map<String, Object>> playerAggregates = perPlayer.values().stream()
-                .map(pa -> {
-                    List<Map<String, Object>> bestHeroes = pa.heroes.values().stream()
-                            .sorted((a, b) -> {
-                                double wrA = a.matches > 0 ? (double) a.wins / a.matches : 0.0;
-                                double wrB = b.matches > 0 ? (double) b.wins / b.matches : 0.0;
-                                int byWr = Double.compare(wrB, wrA); if (byWr != 0) return byWr;
-                                int byPicks = Integer.compare(b.matches, a.matches); if (byPicks != 0) return byPicks;
-                                String an = a.heroName != null ? a.heroName : "";
-                                String bn = b.heroName != null ? b.heroName : "";
-                                return an.compareTo(bn);
-                            })
-                            .limit(3)
-                            .map(h -> Map.of(
-                                    "heroId", h.heroId,
-                                    "heroName", h.heroName,
-                                    "matches", h.matches,
-                                    "wins", h.wins,
-                                    "winRate", h.matches > 0 ? (double) h.wins / h.matches : 0.0,
-                                    "kills", Map.of("average", average(h.kills), "median", median(h.kills)),
-                                    "deaths", Map.of("average", average(h.deaths), "median", median(h.deaths))
-                            ))
-                            .toList();
-
-                    return Map.of(
-                            "playerName", pa.playerName,
-                            "matchesCount", pa.matches,
-                            "wins", pa.wins,
-                            "kills", Map.of("average", average(pa.kills), "median", median(pa.kills)),
-                            "deaths", Map.of("average", average(pa.deaths), "median", median(pa.deaths)),
-                            "bestHeroes", bestHeroes
-                    );
-                })
-                .toList();
-
-        // Replace matches with filtered and attach aggregates
-        team.put("matches", filtered);
-        team.put("aggregates", teamAgg);
-        team.put("playerAggregates", playerAggregates);
+    /**
+     * Same result as {@link #analyzeTeamFileStreaming}, resolved from a {@link MatchIndex} by match id,
+     * without re-reading any team file.
+     */
+    public Map<String, Object> analyzeTeam(MatchIndex index, int teamId, int tournamentId) {
+        TeamAggregator agg = new TeamAggregator(teamId);
+        agg.acceptAll(index.matchesOf(teamId, tournamentId));
+
+        Map<String, Object> team = new LinkedHashMap<>();
+        team.put("id", teamId);
+        team.put("name", index.teamName(teamId));
+        team.put("aggregates", agg.teamAggregates());
+        team.put("playerAggregates", agg.playerAggregates());
+        return Map.of("data", Map.of("team", team));
+    }
 
-        return resp;
+    /**
+     * Analyze every *.json file in a directory and write <name>-analyzed.json next to each. Only matches of league
+     * {@code tournamentId} are aggregated; see {@link #analyzeDirectory(Path, Path, int, int)} for the report.
+     */
+    public DirectoryAnalysisReport analyzeDirectory(Path dir, int tournamentId) throws IOException {
+        return analyzeDirectory(dir, dir, tournamentId, Runtime.getRuntime().availableProcessors());
     }
 
-    /** Analyze every *.json file in a directory and write <name>-analyzed.json next to each. */
-    public void analyzeDirectory(Path dir, int tournamentId) throws IOException {
-        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.json")) {
-            for (Path p : ds) {
-                Map<String, Object> analyzed = analyzeTeamFile(p, tournamentId);
-                Path out = p.resolveSibling(p.getFileName().toString().replace(".json", "-analyzed.json"));
-                mapper.writeValue(out.toFile(), analyzed);
-                System.out.println("Wrote " + out.toAbsolutePath());
+    /**
+     * Analyze every raw *.json file of {@code inDir} on a fork-join pool of {@code parallelism} workers and write
+     * <name>-analyzed.json into {@code outDir}. Admission is gated by a semaphore, so at most {@code parallelism}
+     * documents are in memory at once. A failing file is recorded in the report instead of aborting the run;
+     * written/failed files are reported in sorted input order regardless of completion order.
+     *
+     * @return the written and failed files; this method returned nothing before the report was added
+     */
+    public DirectoryAnalysisReport analyzeDirectory(Path inDir, Path outDir, int tournamentId, int parallelism) throws IOException {
+        long started = System.nanoTime();
+        List<Path> inputs;
+        try (Stream<Path> files = Files.list(inDir)) {
+            inputs = files.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.endsWith(".json") && !n.endsWith("-analyzed.json");
+            }).sorted().toList();
+        }
+        Files.createDirectories(outDir);
+
+        int workers = Math.max(1, parallelism);
+        Path[] written = new Path[inputs.size()];
+        Throwable[] failed = new Throwable[inputs.size()];
+        Semaphore slots = new Semaphore(workers);
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(inputs.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                final int idx = i;
+                slots.acquireUninterruptibly(); // bounded queue: no more than N documents loaded at once
+                tasks.add(pool.submit(() -> {
+                    Path in = inputs.get(idx);
+                    try {
+                        Map<String, Object> analyzed = analyzeTeamFile(in, tournamentId);
+                        Path out = outDir.resolve(in.getFileName().toString().replace(".json", "-analyzed.json"));
+                        Timer.Sample sample = metrics.start();
+                        mapper.writeValue(out.toFile(), analyzed);
+                        metrics.stop(sample, "write", "analyzed");
+                        written[idx] = out;
+                    } catch (Throwable t) {
+                        failed[idx] = t;
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> t : tasks) t.join();
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Path> writtenList = new ArrayList<>();
+        Map<Path, Throwable> failures = new LinkedHashMap<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            if (written[i] != null) {
+                writtenList.add(written[i]);
+                log.info("Wrote {}", written[i].toAbsolutePath());
+            }
+            if (failed[i] != null) {
+                failures.put(inputs.get(i), failed[i]);
+                log.warn("Failed to analyze {} : {}", inputs.get(i), failed[i].getMessage());
             }
         }
+        return new DirectoryAnalysisReport(writtenList, failures, Duration.ofNanos(System.nanoTime() - started));
     }
 
     // ---------- helpers ----------
@@ -218,37 +333,8 @@ public class TeamJsonAnalyzer {
         if (o instanceof String s) try { return Integer.valueOf(s); } catch (NumberFormatException ignored) {}
         return null;
     }
-    private static Boolean toBool(Object o) {
-        if (o instanceof Boolean b) return b;
-        if (o instanceof Number n) return n.intValue() != 0;
-        if (o instanceof String s) return Boolean.parseBoolean(s);
-        return null;
-    }
-    private static int nvlInt(Object o) { Integer v = toInt(o); return v != null ? v : 0; }
-    private static double average(List<Integer> values) {
-        if (values == null || values.isEmpty()) return 0.0;
-        long sum = 0L; for (int v : values) sum += v; return sum / (double) values.size();
-    }
-    private static double median(List<Integer> values) {
-        if (values == null || values.isEmpty()) return 0.0;
-        List<Integer> s = new ArrayList<>(values); s.sort(Integer::compareTo);
-        int n = s.size(); return (n % 2 == 1) ? s.get(n/2) : (s.get(n/2-1) + s.get(n/2)) / 2.0;
-    }
-
-    // aggregation containers
-    private static final class PlayerAgg {
-        final String playerName;
-        int matches = 0, wins = 0;
-        final List<Integer> kills = new ArrayList<>();
-        final List<Integer> deaths = new ArrayList<>();
-        final Map<Integer, HeroAgg> heroes = new LinkedHashMap<>();
-        PlayerAgg(String name) { this.playerName = name; }
-    }
-    private static final class HeroAgg {
-        final int heroId; final String heroName;
-        int matches = 0, wins = 0;
-        final List<Integer> kills = new ArrayList<>();
-        final List<Integer> deaths = new ArrayList<>();
-        HeroAgg(int id, String name) { this.heroId = id; this.heroName = name; }
+    private static Integer toInt(JsonNode n) {
+        if (n.isNumber()) return n.intValue();
+        return n.isTextual() ? toInt(n.textValue()) : null;
     }
 }
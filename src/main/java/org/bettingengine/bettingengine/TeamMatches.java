@@ -0,0 +1,10 @@
+package org.bettingengine.bettingengine;
+
+import java.util.List;
+
+/**
+ * A raw team file in typed form: the team header plus its (possibly league-filtered) matches, and the
+ * {@link TeamQueryProfile} the file was fetched with (FULL_TIMELINE for files without a marker).
+ */
+public record TeamMatches(int teamId, String name, String tag, List<Match> matches, TeamQueryProfile profile) {
+}
@@ -0,0 +1,401 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Token-level reader for raw team files (GetTeamWithMatches shape, any {@link TeamQueryProfile}) into the typed model.
+ * Subtrees that are not requested (playbackData / itemPurchases without a timeline, legacy constants, ...) are
+ * skipped with skipChildren, and players of matches outside the requested league are never materialised.
+ * Subtrees a lighter profile did not fetch simply read as empty lists. A missing result, side or duration stays
+ * distinguishable (see {@link Match}), as in the analyzer's original token walk, so aggregates skip them as before.
+ * Relies on STRATZ field order (league before players), which the query fixes.
+ */
+public class TeamMatchesReader {
+
+    /**
+     * Pass as leagueId to keep matches of every league. Negative, so a league id of 0 still means league 0 and matches
+     * nothing, as it always did in {@link TeamJsonAnalyzer#analyzeDirectory}.
+     */
+    public static final int ANY_LEAGUE = -1;
+
+    private final JsonFactory factory = new JsonFactory();
+    private final boolean includeTimeline;
+
+    /** @param includeTimeline also read killEvents / deathEvents / itemPurchases; see {@link TeamQueryProfile#reader()} */
+    public TeamMatchesReader(boolean includeTimeline) {
+        this.includeTimeline = includeTimeline;
+    }
+
+    public TeamMatches read(Path file, int leagueId) throws IOException {
+        return read(file, leagueId, id -> false);
+    }
+
+    /** As {@link #read(Path, int)}, but matches whose id satisfies {@code skip} are passed over unparsed. */
+    public TeamMatches read(Path file, int leagueId, LongPredicate skip) throws IOException {
+        return read(file, leagueId, skip, id -> false);
+    }
+
+    /**
+     * As {@link #read(Path, int, LongPredicate)}, but reading ends at the first match whose id satisfies
+     * {@code stop}: neither it nor anything after it in the file is parsed. Team fields after the matches array then
+     * read as null.
+     */
+    public TeamMatches read(Path file, int leagueId, LongPredicate skip, LongPredicate stop) throws IOException {
+        try (JsonParser p = factory.createParser(file.toFile())) {
+            return read(p, leagueId, skip, stop);
+        }
+    }
+
+    /**
+     * The profile {@code file} was fetched with, from its leading {@value TeamQueryProfile#MARKER} field; reading
+     * stops at "data", so this costs a few bytes whatever the file size.
+     */
+    public TeamQueryProfile profileOf(Path file) throws IOException {
+        try (JsonParser p = factory.createParser(file.toFile())) {
+            return p.nextToken() == JsonToken.START_OBJECT ? readProfile(p) : TeamQueryProfile.fromName(null);
+        }
+    }
+
+    /** Reads {"queryProfile":...,"data":{"team":{...}}}; returns an empty TeamMatches (team id 0) when there is no team. */
+    public TeamMatches read(JsonParser p, int leagueId, LongPredicate skip) throws IOException {
+        return read(p, leagueId, skip, id -> false);
+    }
+
+    private TeamMatches read(JsonParser p, int leagueId, LongPredicate skip, LongPredicate stop) throws IOException {
+        int teamId = 0;
+        String name = null, tag = null;
+        List<Match> matches = new ArrayList<>();
+        if (p.nextToken() != JsonToken.START_OBJECT) return new TeamMatches(0, null, null, List.of(), TeamQueryProfile.fromName(null));
+        TeamQueryProfile profile = readProfile(p);
+        if (p.currentToken() != JsonToken.START_OBJECT || !seekField(p, "team") || p.nextToken() != JsonToken.START_OBJECT) {
+            return new TeamMatches(0, null, null, List.of(), profile);
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (field) {
+                case "id" -> teamId = intValue(p);
+                case "name" -> name = text(p);
+                case "tag" -> tag = text(p);
+                case "matches" -> {
+                    if (t != JsonToken.START_ARRAY) { p.skipChildren(); continue; }
+                    boolean[] stopped = new boolean[1];
+                    LongPredicate skipOrStop = id -> (stopped[0] = stop.test(id)) || skip.test(id);
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        Match m = readMatch(p, leagueId, skipOrStop);
+                        if (stopped[0]) return new TeamMatches(teamId, name, tag, matches, profile);
+                        if (m != null) matches.add(m);
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return new TeamMatches(teamId, name, tag, matches, profile);
+    }
+
+    /**
+     * Reads root fields up to "data", leaving the parser on its value (or on the root END_OBJECT when there is none),
+     * and returns the profile named on the way.
+     */
+    private static TeamQueryProfile readProfile(JsonParser p) throws IOException {
+        String marker = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("data".equals(field)) break;
+            if (TeamQueryProfile.MARKER.equals(field) && t == JsonToken.VALUE_STRING) marker = p.getText();
+            else p.skipChildren();
+        }
+        return TeamQueryProfile.fromName(marker);
+    }
+
+    /**
+     * Parser is on a match START_OBJECT; leaves it on the matching END_OBJECT.
+     * Returns null when {@code leagueId} is set and the match belongs to another league.
+     */
+    public Match readMatch(JsonParser p, int leagueId) throws IOException {
+        return readMatch(p, leagueId, id -> false);
+    }
+
+    /** As {@link #readMatch(JsonParser, int)}; also returns null (rest of the object skipped) when {@code skip} accepts the id. */
+    public Match readMatch(JsonParser p, int leagueId, LongPredicate skip) throws IOException {
+        long id = 0L, start = 0L;
+        int duration = -1, radId = 0, dirId = 0, league = 0;
+        int towerRad = 0, towerDire = 0, raxRad = 0, raxDire = 0;
+        Boolean radWin = null;
+        boolean leagueSeen = false;
+        String radName = null, dirName = null;
+        List<TowerDeath> towerDeaths = List.of();
+        List<PlayerPerformance> players = List.of();
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (field) {
+                case "id" -> {
+                    id = longValue(p);
+                    if (skip.test(id)) {
+                        while (p.nextToken() == JsonToken.FIELD_NAME) { p.nextToken(); p.skipChildren(); }
+                        return null;
+                    }
+                }
+                case "startDateTime" -> start = longValue(p);
+                case "durationSeconds" -> {
+                    if (t != JsonToken.VALUE_NULL) duration = intValue(p);
+                }
+                case "didRadiantWin" -> radWin = boolOrNull(p);
+                case "towerStatusRadiant" -> towerRad = intValue(p);
+                case "towerStatusDire" -> towerDire = intValue(p);
+                case "barracksStatusRadiant" -> raxRad = intValue(p);
+                case "barracksStatusDire" -> raxDire = intValue(p);
+                case "radiantTeam", "direTeam" -> {
+                    int teamId = 0;
+                    String teamName = null;
+                    if (t == JsonToken.START_OBJECT) {
+                        while (p.nextToken() == JsonToken.FIELD_NAME) {
+                            String f = p.currentName();
+                            p.nextToken();
+                            if ("id".equals(f)) teamId = intValue(p);
+                            else if ("name".equals(f)) teamName = text(p);
+                            else p.skipChildren();
+                        }
+                    }
+                    if ("radiantTeam".equals(field)) { radId = teamId; radName = teamName; }
+                    else { dirId = teamId; dirName = teamName; }
+                }
+                case "league" -> {
+                    leagueSeen = true;
+                    if (t == JsonToken.START_OBJECT) {
+                        while (p.nextToken() == JsonToken.FIELD_NAME) {
+                            String f = p.currentName();
+                            p.nextToken();
+                            if ("id".equals(f) && league == 0) league = intValue(p);
+                            else p.skipChildren();
+                        }
+                    }
+                }
+                case "towerDeaths" -> {
+                    if (t != JsonToken.START_ARRAY) { p.skipChildren(); continue; }
+                    towerDeaths = new ArrayList<>();
+                    while (p.nextToken() == JsonToken.START_OBJECT) towerDeaths.add(readTowerDeath(p));
+                }
+                case "players" -> {
+                    if (t != JsonToken.START_ARRAY || (leagueSeen && leagueId != ANY_LEAGUE && league != leagueId)) {
+                        p.skipChildren();
+                        continue;
+                    }
+                    players = new ArrayList<>(10);
+                    while (p.nextToken() == JsonToken.START_OBJECT) players.add(readPlayer(p));
+                }
+                default -> p.skipChildren();
+            }
+        }
+        if (leagueId != ANY_LEAGUE && league != leagueId) return null;
+        return new Match(id, start, duration, radWin != null && radWin, radId, radName, dirId, dirName, league,
+                towerRad, towerDire, raxRad, raxDire, towerDeaths, players, radWin != null);
+    }
+
+    private static TowerDeath readTowerDeath(JsonParser p) throws IOException {
+        int time = 0, npcId = 0;
+        boolean isRadiant = false;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String f = p.currentName();
+            p.nextToken();
+            switch (f) {
+                case "time" -> time = intValue(p);
+                case "npcId" -> npcId = intValue(p);
+                case "isRadiant" -> isRadiant = boolValue(p);
+                default -> p.skipChildren();
+            }
+        }
+        return new TowerDeath(time, npcId, isRadiant);
+    }
+
+    private PlayerPerformance readPlayer(JsonParser p) throws IOException {
+        Boolean isRadiant = null;
+        boolean isVictory = false;
+        int kills = 0, deaths = 0, assists = 0, gpm = 0, xpm = 0, networth = 0, heroId = 0;
+        long steamId = 0L;
+        String heroName = "", proName = null;
+        KillEvents killEvents = KillEvents.EMPTY;
+        DeathEvents deathEvents = DeathEvents.EMPTY;
+        ItemPurchases purchases = ItemPurchases.EMPTY;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (field) {
+                case "isRadiant" -> isRadiant = boolOrNull(p);
+                case "isVictory" -> isVictory = boolValue(p);
+                case "kills" -> kills = intValue(p);
+                case "deaths" -> deaths = intValue(p);
+                case "assists" -> assists = intValue(p);
+                case "goldPerMinute" -> gpm = intValue(p);
+                case "experiencePerMinute" -> xpm = intValue(p);
+                case "networth" -> networth = intValue(p);
+                case "hero" -> {
+                    if (t != JsonToken.START_OBJECT) continue;
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String f = p.currentName();
+                        p.nextToken();
+                        if ("id".equals(f)) heroId = intValue(p);
+                        else if ("displayName".equals(f)) heroName = p.currentToken() == JsonToken.VALUE_NULL ? "" : p.getText();
+                        else p.skipChildren();
+                    }
+                }
+                case "steamAccount" -> {
+                    if (t != JsonToken.START_OBJECT) continue;
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String f = p.currentName();
+                        JsonToken v = p.nextToken();
+                        if ("id".equals(f)) {
+                            steamId = longValue(p);
+                        } else if ("proSteamAccount".equals(f) && v == JsonToken.START_OBJECT) {
+                            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                                String pf = p.currentName();
+                                p.nextToken();
+                                if ("name".equals(pf)) proName = text(p);
+                                else p.skipChildren();
+                            }
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                }
+                case "playbackData" -> {
+                    if (!includeTimeline || t != JsonToken.START_OBJECT) { p.skipChildren(); continue; }
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String f = p.currentName();
+                        JsonToken v = p.nextToken();
+                        if ("killEvents".equals(f) && v == JsonToken.START_ARRAY) killEvents = readKillEvents(p);
+                        else if ("deathEvents".equals(f) && v == JsonToken.START_ARRAY) deathEvents = readDeathEvents(p);
+                        else p.skipChildren();
+                    }
+                }
+                case "stats" -> {
+                    if (!includeTimeline || t != JsonToken.START_OBJECT) { p.skipChildren(); continue; }
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String f = p.currentName();
+                        JsonToken v = p.nextToken();
+                        if ("itemPurchases".equals(f) && v == JsonToken.START_ARRAY) purchases = readPurchases(p);
+                        else p.skipChildren();
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return new PlayerPerformance(isRadiant != null && isRadiant, isVictory, kills, deaths, assists, gpm, xpm, networth,
+                heroId, heroName, steamId, proName, killEvents, deathEvents, purchases, isRadiant != null);
+    }
+
+    private static KillEvents readKillEvents(JsonParser p) throws IOException {
+        KillEvents.Builder out = new KillEvents.Builder();
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            int time = 0, target = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String f = p.currentName();
+                p.nextToken();
+                if ("time".equals(f)) time = intValue(p);
+                else if ("target".equals(f)) target = intValue(p);
+                else p.skipChildren();
+            }
+            out.add(time, target);
+        }
+        return out.build();
+    }
+
+    private static DeathEvents readDeathEvents(JsonParser p) throws IOException {
+        DeathEvents.Builder out = new DeathEvents.Builder();
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            int time = 0, attacker = 0, goldFed = 0, xpFed = 0, goldLost = 0, x = 0, y = 0;
+            boolean isFeed = false;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String f = p.currentName();
+                p.nextToken();
+                switch (f) {
+                    case "time" -> time = intValue(p);
+                    case "attacker" -> attacker = intValue(p);
+                    case "goldFed" -> goldFed = intValue(p);
+                    case "xpFed" -> xpFed = intValue(p);
+                    case "goldLost" -> goldLost = intValue(p);
+                    case "isFeed" -> isFeed = boolValue(p);
+                    case "positionX" -> x = intValue(p);
+                    case "positionY" -> y = intValue(p);
+                    default -> p.skipChildren();
+                }
+            }
+            out.add(time, attacker, goldFed, xpFed, goldLost, isFeed, x, y);
+        }
+        return out.build();
+    }
+
+    private static ItemPurchases readPurchases(JsonParser p) throws IOException {
+        ItemPurchases.Builder out = new ItemPurchases.Builder();
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            int time = 0, itemId = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String f = p.currentName();
+                p.nextToken();
+                if ("time".equals(f)) time = intValue(p);
+                else if ("itemId".equals(f)) itemId = intValue(p);
+                else p.skipChildren();
+            }
+            out.add(time, itemId);
+        }
+        return out.build();
+    }
+
+    // ---------- token helpers ----------
+    /** Advance within the current object to the value of {@code name}; false if the object ends first. */
+    static boolean seekField(JsonParser p, String name) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            if (name.equals(p.currentName())) return true;
+            p.nextToken();
+            p.skipChildren();
+        }
+        return false;
+    }
+
+    private static int intValue(JsonParser p) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_STRING -> p.getValueAsInt();
+            default -> { p.skipChildren(); yield 0; }
+        };
+    }
+
+    private static long longValue(JsonParser p) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_STRING -> p.getValueAsLong();
+            default -> { p.skipChildren(); yield 0L; }
+        };
+    }
+
+    private static boolean boolValue(JsonParser p) throws IOException {
+        return Boolean.TRUE.equals(boolOrNull(p));
+    }
+
+    /** null for a missing (null / non-scalar) value. */
+    private static Boolean boolOrNull(JsonParser p) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NUMBER_INT -> p.getIntValue() != 0;
+            case VALUE_STRING -> Boolean.parseBoolean(p.getText());
+            default -> { p.skipChildren(); yield null; }
+        };
+    }
+
+    private static String text(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) return null;
+        if (p.currentToken().isStructStart()) { p.skipChildren(); return null; }
+        return p.getText();
+    }
+}
@@ -0,0 +1,123 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Locale;
+
+/**
+ * Field projections of the GetTeamWithMatches query. Every profile has the same operation name, variables and
+ * document shape ({"data":{"team":{...,"matches":[...]}}}); they differ only in which per-match subtrees are
+ * selected, so readers and analyzers work on any of them and simply see empty lists for what was not fetched.
+ * None of them selects {@code constants}: the item table is fetched once on its own (see {@link ItemConstants}).
+ * A dumped team file names its profile in a leading {@value #MARKER} field ({"queryProfile":"SUMMARY","data":...}),
+ * which {@link TeamMatchesReader} reports, so an empty list can be told apart from a subtree that was not fetched.
+ * <ul>
+ *   <li>{@link #SUMMARY}: scores, teams, league, building status and per-player scoreboard lines.</li>
+ *   <li>{@link #OBJECTIVES}: SUMMARY plus towerDeaths (buildings, and Roshan kills with the killing side).</li>
+ *   <li>{@link #FULL_TIMELINE}: OBJECTIVES plus playbackData kill/death events and item purchases.</li>
+ * </ul>
+ */
+public enum TeamQueryProfile {
+
+    SUMMARY(false, false),
+    OBJECTIVES(true, false),
+    FULL_TIMELINE(true, true);
+
+    /** Root field of a team file naming the profile it was fetched with. */
+    public static final String MARKER = "queryProfile";
+
+    private static final String MATCH_FIELDS = """
+                  id
+                  startDateTime
+                  durationSeconds
+                  didRadiantWin
+                  radiantTeam { id name tag }
+                  direTeam    { id name tag }
+                  league { id displayName }
+
+                  towerStatusRadiant
+                  towerStatusDire
+                  barracksStatusRadiant
+                  barracksStatusDire
+            """;
+
+    private static final String OBJECTIVE_FIELDS = """
+                  towerDeaths { time npcId isRadiant }
+            """;
+
+    private static final String PLAYER_FIELDS = """
+                    isRadiant
+                    isVictory
+                    kills
+                    deaths
+                    assists
+                    goldPerMinute
+                    experiencePerMinute
+                    networth
+                    hero { id displayName }
+                    steamAccount {
+                      id
+                      name
+                      proSteamAccount { id name teamId }
+                    }
+            """;
+
+    private static final String TIMELINE_FIELDS = """
+                    playbackData {
+                        killEvents { time target }
+                        deathEvents { time attacker goldFed xpFed goldLost isFeed positionX positionY }
+                    }
+                    stats { itemPurchases { time itemId } }
+            """;
+
+    private final boolean objectives;
+    private final boolean timeline;
+    private final String query;
+
+    TeamQueryProfile(boolean objectives, boolean timeline) {
+        this.objectives = objectives;
+        this.timeline = timeline;
+        // league precedes players: TeamMatchesReader relies on it to skip other leagues' players
+        this.query = """
+                query GetTeamWithMatches($teamId: Int!, $take: Int!, $skip: Int!) {
+                  team(teamId: $teamId) {
+                    id
+                    name
+                    tag
+                    matches(request: { take: $take, skip: $skip }) {
+                """ + MATCH_FIELDS + (objectives ? OBJECTIVE_FIELDS : "") + """
+                      players {
+                """ + PLAYER_FIELDS + (timeline ? TIMELINE_FIELDS : "") + """
+                      }
+                    }
+                  }
+                }
+                """;
+    }
+
+    /** The GraphQL document for this projection. */
+    public String query() { return query; }
+
+    /** Whether matches carry towerDeaths, and with them Roshan kills. */
+    public boolean includesObjectives() { return objectives; }
+
+    /** Whether players carry killEvents / deathEvents / itemPurchases. */
+    public boolean includesTimeline() { return timeline; }
+
+    /** Whether this profile fetches everything {@code needed} does. */
+    public boolean covers(TeamQueryProfile needed) {
+        return (objectives || !needed.objectives) && (timeline || !needed.timeline);
+    }
+
+    /** A reader that decodes exactly what this profile fetches. */
+    public TeamMatchesReader reader() {
+        return new TeamMatchesReader(timeline);
+    }
+
+    /**
+     * Profile recorded in a team file or sync state; files written before profiles existed (no marker) were
+     * always full-timeline dumps.
+     */
+    public static TeamQueryProfile fromName(String name) {
+        if (name == null || name.isBlank()) return FULL_TIMELINE;
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,18 @@
+package org.bettingengine.bettingengine;
+
+/**
+ * Per-team high-water mark kept in outDir/.sync/<teamId>.json by the incremental sync.
+ * A match is "new" when (startDateTime, id) is greater than (latestStartDateTime, latestMatchId).
+ * {@code queryProfile} is the {@link TeamQueryProfile} the file was fetched with (null in older states: FULL_TIMELINE).
+ */
+public record TeamSyncState(int teamId, String fileName, long latestMatchId, long latestStartDateTime,
+                            int matchCount, long syncedAtMillis, String queryProfile) {
+
+    public TeamQueryProfile profile() {
+        return TeamQueryProfile.fromName(queryProfile);
+    }
+
+    public boolean isNewer(long matchId, long startDateTime) {
+        return startDateTime > latestStartDateTime || (startDateTime == latestStartDateTime && matchId > latestMatchId);
+    }
+}
@@ -0,0 +1,117 @@
+package org.bettingengine.bettingengine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket shared by every STRATZ call made from one process.
+ * A bucket of {@code capacity} tokens refills continuously at {@code permitsPerPeriod / period};
+ * callers block in {@link #acquire()} until a token is available.
+ * Safe for virtual threads (uses a ReentrantLock, never synchronized + sleep).
+ */
+public class TokenBucketRateLimiter {
+
+    // STRATZ default API token: 20 calls/second burst, 250 calls/minute sustained
+    public static final int STRATZ_BURST = 20;
+    public static final int STRATZ_PER_MINUTE = 250;
+
+    /** Tokens handed out, how many of them had to wait, and the total wait. */
+    public record Stats(long acquired, long waited, long waitNanos) {}
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder acquires = new LongAdder(), waits = new LongAdder(), totalWaitNanos = new LongAdder();
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(int capacity, int permitsPerPeriod, Duration period) {
+        if (capacity <= 0 || permitsPerPeriod <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("capacity, permitsPerPeriod and period must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = permitsPerPeriod / (double) period.toNanos();
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /** Limiter matching the STRATZ default token limits. */
+    public static TokenBucketRateLimiter stratzDefault() {
+        return new TokenBucketRateLimiter(STRATZ_BURST, STRATZ_PER_MINUTE, Duration.ofMinutes(1));
+    }
+
+    /** Block until one token is available. Returns the time spent waiting, in nanos. */
+    public long acquire() throws InterruptedException {
+        long waited = 0L;
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                refill();
+                if (tokens >= 1.0) {
+                    tokens -= 1.0;
+                    record(waited);
+                    return waited;
+                }
+                waitNanos = (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            waited += waitNanos;
+        }
+    }
+
+    /** Take a token if one is available right now. */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill();
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                acquires.increment();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take a token now, going into debt if none is left, and return how long the caller must wait before using it
+     * (0 when one was available). Never blocks, so event-loop code can turn the answer into a timer.
+     */
+    public long reserve() {
+        lock.lock();
+        try {
+            refill();
+            tokens -= 1.0;
+            long wait = tokens >= 0.0 ? 0L : (long) Math.ceil(-tokens / tokensPerNano);
+            record(wait);
+            return wait;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(acquires.sum(), waits.sum(), totalWaitNanos.sum());
+    }
+
+    private void record(long waitedNanos) {
+        acquires.increment();
+        if (waitedNanos > 0L) {
+            waits.increment();
+            totalWaitNanos.add(waitedNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
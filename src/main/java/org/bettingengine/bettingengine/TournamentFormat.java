@@ -0,0 +1,43 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Arrays;
+
+/**
+ * Group stage (round robin, points = games won) followed by a single-elimination playoff.
+ * The top {@code advancePerGroup} of every group are seeded rank by rank (A1, B1, ..., A2, B2, ...) into a standard
+ * bracket (1 v N, then N/2 v N/2+1, ...), so round one always crosses groups (A1-B4, B1-A4, ...).
+ * Groups of one team with {@code advancePerGroup = 1} make a plain bracket.
+ */
+public record TournamentFormat(int[][] groups, int groupBestOf, int advancePerGroup, int playoffBestOf, int finalBestOf) {
+
+    public TournamentFormat {
+        if (groups.length == 0) throw new IllegalArgumentException("no groups");
+        for (int[] g : groups) {
+            if (g.length < advancePerGroup) throw new IllegalArgumentException("group smaller than advancePerGroup: " + Arrays.toString(g));
+        }
+        int size = playoffSize(groups.length, advancePerGroup);
+        if (size < 2 || Integer.bitCount(size) != 1) throw new IllegalArgumentException("playoff size must be a power of two >= 2: " + size);
+        if (groupBestOf < 1) throw new IllegalArgumentException("groupBestOf < 1");
+        if (playoffBestOf % 2 == 0 || finalBestOf % 2 == 0) throw new IllegalArgumentException("playoff series need an odd best-of");
+    }
+
+    /** Plain single-elimination bracket; {@code seeds} are in seed order (best first). */
+    public static TournamentFormat singleElimination(int[] seeds, int bestOf, int finalBestOf) {
+        int[][] groups = new int[seeds.length][];
+        for (int i = 0; i < seeds.length; i++) groups[i] = new int[]{seeds[i]};
+        return new TournamentFormat(groups, 1, 1, bestOf, finalBestOf);
+    }
+
+    public int playoffSize() { return playoffSize(groups.length, advancePerGroup); }
+
+    public int teamCount() {
+        int n = 0;
+        for (int[] g : groups) n += g.length;
+        return n;
+    }
+
+    /** Number of reach-stage columns: playoffs, then one per round won (the last one is the title). */
+    public int stageCount() { return Integer.numberOfTrailingZeros(playoffSize()) + 1; }
+
+    private static int playoffSize(int groups, int advance) { return groups * advance; }
+}
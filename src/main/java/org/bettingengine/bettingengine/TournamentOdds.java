@@ -0,0 +1,51 @@
+package org.bettingengine.bettingengine;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Monte Carlo result: {@code counts[team * stageCount + stage]} is how many simulated tournaments the team reached
+ * that stage in. Stage 0 is the playoffs (top {@code playoffSize}), each further stage halves the field, the last one
+ * is the title.
+ */
+public record TournamentOdds(int[] teamIds, int playoffSize, long iterations, long[] counts, Duration elapsed) {
+
+    public int stageCount() { return Integer.numberOfTrailingZeros(playoffSize) + 1; }
+
+    public double reachProbability(int teamId, int stage) {
+        return (double) counts[indexOf(teamId) * stageCount() + stage] / iterations;
+    }
+
+    public double outright(int teamId) { return reachProbability(teamId, stageCount() - 1); }
+
+    /** P(finishing in the top {@code n}); {@code n} must be a power of two no larger than the playoff. */
+    public double topN(int teamId, int n) {
+        if (n < 1 || n > playoffSize || Integer.bitCount(n) != 1) throw new IllegalArgumentException("unsupported top-N: " + n);
+        return reachProbability(teamId, Integer.numberOfTrailingZeros(playoffSize / n));
+    }
+
+    public double throughputPerSecond() {
+        long nanos = Math.max(1L, elapsed.toNanos());
+        return iterations * 1e9 / nanos;
+    }
+
+    /** teamId -> {"top8": p, ..., "champion": p}, in team order; ready for Jackson. */
+    public Map<Integer, Map<String, Double>> toMap() {
+        Map<Integer, Map<String, Double>> out = new LinkedHashMap<>();
+        int stages = stageCount();
+        for (int t = 0; t < teamIds.length; t++) {
+            Map<String, Double> row = new LinkedHashMap<>();
+            for (int s = 0; s < stages; s++) {
+                row.put(s == stages - 1 ? "champion" : "top" + (playoffSize >> s), (double) counts[t * stages + s] / iterations);
+            }
+            out.put(teamIds[t], row);
+        }
+        return out;
+    }
+
+    private int indexOf(int teamId) {
+        for (int i = 0; i < teamIds.length; i++) if (teamIds[i] == teamId) return i;
+        throw new IllegalArgumentException("team not in tournament: " + teamId);
+    }
+}
@@ -0,0 +1,193 @@
+package org.bettingengine.bettingengine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Monte Carlo simulator for a {@link TournamentFormat}. Game and series win probabilities are looked up once into
+ * flat n*n matrices, so the hot loop never calls the {@link WinProbabilitySource}. Work is split into a few chunks
+ * per worker; each chunk owns a {@link SplittableRandom} split from the seed, its scratch arrays and a primitive
+ * counter table, so a simulated tournament allocates nothing and chunks share nothing until the final sum.
+ */
+public class TournamentSimulator {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final TournamentFormat format;
+    private final int n, playoffSize, stages;
+    private final int[] teamIds;
+    private final int[] groupStart, groupSize;
+    private final int[] bracketOrder;
+    private final double[] gameP, playoffP, finalP;
+
+    public TournamentSimulator(TournamentFormat format, WinProbabilitySource source) {
+        this.format = format;
+        this.n = format.teamCount();
+        this.playoffSize = format.playoffSize();
+        this.stages = format.stageCount();
+
+        int[][] groups = format.groups();
+        teamIds = new int[n];
+        groupStart = new int[groups.length];
+        groupSize = new int[groups.length];
+        int k = 0;
+        for (int g = 0; g < groups.length; g++) {
+            groupStart[g] = k;
+            groupSize[g] = groups[g].length;
+            for (int id : groups[g]) {
+                for (int j = 0; j < k; j++) if (teamIds[j] == id) throw new IllegalArgumentException("team listed twice: " + id);
+                teamIds[k++] = id;
+            }
+        }
+
+        gameP = new double[n * n];
+        playoffP = new double[n * n];
+        finalP = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                double p = source.winProbability(teamIds[i], teamIds[j]);
+                gameP[i * n + j] = p;
+                playoffP[i * n + j] = seriesWinProbability(p, format.playoffBestOf());
+                finalP[i * n + j] = seriesWinProbability(p, format.finalBestOf());
+            }
+        }
+        bracketOrder = bracketOrder(playoffSize);
+    }
+
+    /** Runs {@code iterations} tournaments on {@code parallelism} workers; the same seed and parallelism reproduce the result. */
+    public TournamentOdds simulate(long iterations, int parallelism, long seed) {
+        if (iterations < 1) throw new IllegalArgumentException("iterations < 1");
+        long t0 = System.nanoTime();
+        int workers = Math.max(1, parallelism);
+        int chunks = (int) Math.min(iterations, (long) workers * CHUNKS_PER_WORKER);
+
+        SplittableRandom root = new SplittableRandom(seed);
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        long[] total = new long[n * stages];
+        try {
+            List<ForkJoinTask<long[]>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                long share = iterations / chunks + (c < iterations % chunks ? 1 : 0);
+                SplittableRandom rng = root.split();
+                tasks.add(pool.submit(() -> new Worker(rng).run(share)));
+            }
+            for (ForkJoinTask<long[]> t : tasks) {
+                long[] counts = t.join();
+                for (int i = 0; i < total.length; i++) total[i] += counts[i];
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new TournamentOdds(teamIds.clone(), playoffSize, iterations, total, Duration.ofNanos(System.nanoTime() - t0));
+    }
+
+    public TournamentFormat format() { return format; }
+
+    // ---------- helpers ----------
+
+    /** P(first to ceil(bestOf/2) game wins) for a single-game probability {@code p}. */
+    static double seriesWinProbability(double p, int bestOf) {
+        int need = bestOf / 2 + 1;
+        double q = 1 - p, sum = 0.0, binom = 1.0;
+        for (int k = 0; k < need; k++) {
+            if (k > 0) binom = binom * (need - 1 + k) / k;
+            sum += binom * Math.pow(p, need) * Math.pow(q, k);
+        }
+        return sum;
+    }
+
+    /** Standard bracket positions: seed at index i of round one is {@code order[i]}; 1 v N, N/2 v N/2+1, ... */
+    static int[] bracketOrder(int size) {
+        int[] order = {0};
+        while (order.length < size) {
+            int len = order.length;
+            int[] next = new int[len * 2];
+            for (int i = 0; i < len; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = 2 * len - 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    /**
+     * Seed index of the team finishing {@code rank} in group {@code group}: every rank in group order (A1, B1, A2,
+     * B2, ...). Seed s meets seed N-1-s in round one, i.e. group g meets group {@code groups-1-g}; a valid format with
+     * more than one group has an even group count, so that is never g itself (A1-B4, B1-A4, ...).
+     */
+    static int seed(int rank, int group, int groups) {
+        return rank * groups + group;
+    }
+
+    /** One chunk: its own RNG, scratch and counters, reused across every simulated tournament. */
+    private final class Worker {
+        final SplittableRandom rng;
+        final long[] counts = new long[n * stages];
+        final int[] points = new int[n];
+        final long[] keys = new long[n];
+        final int[] seedTeam = new int[playoffSize];
+        final int[] alive = new int[playoffSize];
+
+        Worker(SplittableRandom rng) { this.rng = rng; }
+
+        long[] run(long iterations) {
+            for (long it = 0; it < iterations; it++) {
+                playGroups();
+                playPlayoffs();
+            }
+            return counts;
+        }
+
+        private void playGroups() {
+            int groups = groupStart.length, advance = format.advancePerGroup(), bestOf = format.groupBestOf();
+            int need = bestOf / 2 + 1;
+            for (int g = 0; g < groups; g++) {
+                int from = groupStart[g], to = from + groupSize[g];
+                for (int i = from; i < to; i++) points[i] = 0;
+                for (int i = from; i < to; i++) {
+                    for (int j = i + 1; j < to; j++) {
+                        double p = gameP[i * n + j];
+                        int wi = 0, wj = 0;
+                        for (int game = 0; game < bestOf && wi < need && wj < need; game++) {
+                            if (rng.nextDouble() < p) wi++; else wj++;
+                        }
+                        points[i] += wi;
+                        points[j] += wj;
+                    }
+                }
+                // points in the high word, a random tiebreak in the low word
+                for (int i = from; i < to; i++) keys[i] = ((long) points[i] << 32) | (rng.nextInt() & 0xffffffffL);
+                for (int r = 0; r < advance; r++) {
+                    int best = from;
+                    for (int i = from + 1; i < to; i++) if (keys[i] > keys[best]) best = i;
+                    keys[best] = Long.MIN_VALUE;
+                    seedTeam[seed(r, g, groups)] = best;
+                }
+            }
+        }
+
+        private void playPlayoffs() {
+            for (int pos = 0; pos < playoffSize; pos++) {
+                int t = seedTeam[bracketOrder[pos]];
+                alive[pos] = t;
+                counts[t * stages]++;
+            }
+            int stage = 1;
+            for (int size = playoffSize; size > 1; size >>= 1, stage++) {
+                double[] series = size == 2 ? finalP : playoffP;
+                for (int m = 0; m < size / 2; m++) {
+                    int a = alive[2 * m], b = alive[2 * m + 1];
+                    int w = rng.nextDouble() < series[a * n + b] ? a : b;
+                    alive[m] = w;
+                    counts[w * stages + stage]++;
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package org.bettingengine.bettingengine;
 
 import java.nio.file.Path;
+import java.util.Collection;
 
 public interface TournamentTeamPlaysParser {
 
     Path dumpTeamRawJson(int teamId, int take, int skip, Path outDir);
 
+    /**
+     * Dump several teams concurrently (one file per team, same layout as {@link #dumpTeamRawJson}).
+     * A failing team does not abort the others; its error is reported in the result.
+     */
+    BulkDumpResult dumpTeamsRawJson(Collection<Integer> teamIds, int take, int skip, Path outDir, DumpProgressListener listener);
+
 }
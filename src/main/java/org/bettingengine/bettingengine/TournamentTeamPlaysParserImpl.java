@@ -1,118 +1,103 @@
 package org.bettingengine.bettingengine;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Timer;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.Normalizer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Component
 @RequiredArgsConstructor
 public class TournamentTeamPlaysParserImpl implements TournamentTeamPlaysParser {
 
+    private static final Logger log = LoggerFactory.getLogger(TournamentTeamPlaysParserImpl.class);
     private static final long STEAM64_OFFSET = 76561197960265728L;
+    private static final int MAX_PAGE_SIZE = 100; // STRATZ cap for team matches 'take'
+    private static final String SYNC_DIR = ".sync";  // sub-directory, so *.json globs over outDir never see it
+    private static final String CONSTANTS_DIR = ".constants";
     private final RestClient client;
     private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
 
-    // Keep this focused on data you'll want offline (no server-side filtering/aggregation)
-    private static final String TEAM_WITH_MATCHES_RAW = """
-            query GetTeamWithMatches($teamId: Int!, $take: Int!, $skip: Int!) {
-              team(teamId: $teamId) {
-                id
-                name
-                tag
-                matches(request: { take: $take, skip: $skip }) {
-                  id
-                  startDateTime
-                  durationSeconds
-                  didRadiantWin
-                  radiantTeam { id name tag }
-                  direTeam    { id name tag }
-                  league { id displayName id }
-            
-                  towerStatusRadiant
-                  towerStatusDire
-                  barracksStatusRadiant
-                  barracksStatusDire
-            
-                  towerDeaths { time npcId isRadiant }
-            
-                  players {
-                    isRadiant
-                    isVictory
-                    kills
-                    deaths
-                    assists
-                    goldPerMinute
-                    experiencePerMinute
-                    networth
-            
-                    playbackData {
-                        killEvents {
-                            time
-                            target
-                        }
-                        deathEvents {
-                            time
-                            attacker
-                            goldFed
-                            xpFed
-                            goldLost
-                            isFeed
-                            positionX
-                            positionY
-                        }
-                    }
-            
-                    stats { itemPurchases { time itemId } }
-                    hero { id displayName }
-                    steamAccount {
-                      id
-                      name
-                      proSteamAccount { id name teamId }
-                    }
-                  }
-                }
-              }
+    /** Shared by every call of this parser (single and bulk), so concurrent dumps never exceed STRATZ limits. */
+    @Getter
+    private TokenBucketRateLimiter rateLimiter = TokenBucketRateLimiter.stratzDefault();
+
+    /** Max requests in flight during bulk dumps (the rate limiter still paces them). */
+    @Setter
+    private int maxInFlight = 8;
+
+    /** Base of the jittered exponential backoff used when STRATZ throttles or fails a career slice. */
+    @Setter
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    /** Optional; when set, career dumps only fetch ids that are missing or expired in it. */
+    private PlayerCareerCache careerCache;
+
+    /** Which per-match subtrees team dumps select; routine refreshes can use a lighter profile than FULL_TIMELINE. */
+    @Setter
+    private TeamQueryProfile queryProfile = TeamQueryProfile.FULL_TIMELINE;
+
+    /** How long outDir/.constants/items.json is trusted before the item table is fetched again. */
+    @Setter
+    private Duration constantsTtl = Duration.ofDays(1);
+
+    private PipelineMetrics metrics = PipelineMetrics.NOOP;
+
+    private final ReentrantLock constantsLock = new ReentrantLock();
+    private volatile ItemConstants itemConstants;
+
+    // The item table, fetched on its own instead of inside every team response
+    private static final String ITEM_CONSTANTS_QUERY = """
+            query GetItemConstants {
               constants {
-                  items {
-                      id
-                      displayName
-                      name
-                  }
+                items { id displayName name }
               }
             }
             """;
 
-    private static final String PLAYERS_PRO_ALL_TIME_QUERY = """
-            query PlayersProAllTime($ids: [Long!]!, $takeHeroes: Int = 10) {
-              players(steamAccountIds: $ids) {
-                steamAccount { id proSteamAccount { id name } }
-                heroesPerformance(
-                  request: { isLeague: true, matchGroupOrderBy: MATCH_COUNT, orderBy: DESC, take: 5000 },
-                  take: $takeHeroes
-                ) {
-                  hero { id displayName }
-                  matchCount
-                  winCount
-                  avgKills
-                  avgDeaths
-                  avgAssists
-                  goldPerMinute
-                  experiencePerMinute
-                  lastPlayedDateTime
+    // Cheap probe for the incremental sync: ids and start times only, a few hundred bytes per page
+    private static final String TEAM_MATCH_IDS_QUERY = """
+            query GetTeamMatchIds($teamId: Int!, $take: Int!, $skip: Int!) {
+              team(teamId: $teamId) {
+                id
+                matches(request: { take: $take, skip: $skip }) {
+                  id
+                  startDateTime
                 }
               }
             }
@@ -120,76 +105,81 @@ public class TournamentTeamPlaysParserImpl implements TournamentTeamPlaysParser
 
     /**
      * Fetch players' all-time league performance for provided Steam IDs and write a single JSON.
-     * Batches the IDs to avoid huge payloads; merges 'players' arrays into one file.
+     * Slices of {@link PlayerCareerFetcher#MAX_IDS_PER_REQUEST} ids run concurrently under the shared rate limiter;
+     * players are streamed into the file as they arrive (completion order), each steam id once.
+     * With a {@link #careerCache} set, fresh cached players are written first and only the rest go to the network.
      */
-    @SuppressWarnings("unchecked")
     public Path dumpPlayersCareerJson(Collection<Long> steamIdsRaw, int takeHeroes, Path outFile) throws Exception {
-        final int MAX_IDS_PER_REQUEST = 5; // <-- STRATZ limit
-
         List<Long> ids = normalizeSteamIds(steamIdsRaw);
         if (ids.isEmpty()) {
             throw new IllegalArgumentException("steamIds is empty");
         }
 
-        List<Map<String, Object>> allPlayers = new ArrayList<>();
-
-        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_REQUEST) {
-            List<Long> slice = ids.subList(i, Math.min(i + MAX_IDS_PER_REQUEST, ids.size()));
-
-            Map<String, Object> body = Map.of("query", PLAYERS_PRO_ALL_TIME_QUERY, "variables", Map.of("ids", slice, "takeHeroes", takeHeroes));
-
-            Map<String, Object> resp = client.post().body(body).retrieve().body(new org.springframework.core.ParameterizedTypeReference<>() {});
-
-            Object errors = resp.get("errors");
-            if (errors != null) {
-                System.err.println("GraphQL errors for slice " + slice + " -> " + errors);
-            }
-
-            Map<String, Object> data = (Map<String, Object>) resp.get("data");
-            if (data == null) {
-                continue;
-            }
-
-            List<Map<String, Object>> players = (List<Map<String, Object>>) data.get("players");
-            if (players != null) {
-                allPlayers.addAll(players);
+        Files.createDirectories(outFile.toAbsolutePath().getParent());
+        Path partFile = outFile.resolveSibling(outFile.getFileName() + ".part");
+        Timer.Sample sample = metrics.start();
+        PlayerCareerFetcher.Result result;
+        try {
+            try (JsonGenerator gen = mapper.createGenerator(Files.newOutputStream(partFile))) {
+                gen.writeStartObject();
+                gen.writeObjectFieldStart("data");
+                gen.writeArrayFieldStart("players");
+                List<Long> toFetch = ids;
+                if (careerCache != null) {
+                    toFetch = new ArrayList<>();
+                    for (long id : ids) {
+                        JsonNode cached = careerCache.get(id, takeHeroes);
+                        if (cached != null) gen.writeTree(cached); else toFetch.add(id);
+                    }
+                }
+                result = careerFetcher().fetch(toFetch, takeHeroes, (steamId, player) -> {
+                    gen.writeTree(player);
+                    if (careerCache != null) careerCache.put(steamId, takeHeroes, player);
+                });
+                gen.writeEndArray();
+                gen.writeEndObject();
+                gen.writeEndObject();
             }
-
-            // Optional: tiny delay to play nice with CF/rate limits
-            // Thread.sleep(75);
+            Files.move(partFile, outFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            Files.deleteIfExists(partFile);
+            throw e;
+        } finally {
+            metrics.stop(sample, "fetch", "career"); // failed dumps are timed too
         }
+        metrics.events("career.players", result.players());
+        metrics.graphQlErrors("career", result.graphQlErrors());
 
-        // De-dup by steamAccount.id
-        Map<Long, Map<String, Object>> byId = new LinkedHashMap<>();
-        for (Map<String, Object> p : allPlayers) {
-            Map<String, Object> sa = (Map<String, Object>) p.get("steamAccount");
-            if (sa == null) {
-                continue;
-            }
-            Object idObj = sa.get("id");
-            Long sid = (idObj instanceof Number n) ? n.longValue() : (idObj instanceof String s ? parseLongSafe(s) : null);
-            if (sid != null) {
-                byId.put(sid, p);
-            }
+        if (!result.failedIds().isEmpty()) {
+            log.warn("Career data missing for {} ids after retries: {}", result.failedIds().size(), result.failedIds());
         }
+        return outFile;
+    }
 
-        Map<String, Object> merged = Map.of("data", Map.of("players", new ArrayList<>(byId.values())));
+    /** The {@link StratzClientConfig#stratzRateLimiter} bucket in the application, shared with the reactive parser. */
+    @Autowired(required = false)
+    public void setRateLimiter(TokenBucketRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
 
-        var mapper = new com.fasterxml.jackson.databind.ObjectMapper().enable(com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT);
-        java.nio.file.Files.createDirectories(outFile.getParent());
-        mapper.writeValue(outFile.toFile(), merged);
-        return outFile;
+    /** The {@link RefreshConfig} cache when background refresh is enabled. */
+    @Autowired(required = false)
+    public void setCareerCache(PlayerCareerCache careerCache) {
+        this.careerCache = careerCache;
     }
 
-    private static Long parseLongSafe(String s) {
-        try {
-            return Long.valueOf(s);
-        } catch (Exception e) {
-            return null;
-        }
+    /** Stage timers and counters; rate-limit waits are read from whichever limiter is set at scrape time. */
+    @Autowired(required = false)
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+        metrics.bindRateLimiter("stratz", this, p -> p.rateLimiter);
+    }
+
+    private PlayerCareerFetcher careerFetcher() {
+        return new PlayerCareerFetcher(client, rateLimiter, maxInFlight, retryBackoff);
     }
 
-    private static List<Long> normalizeSteamIds(Collection<Long> raw) {
+    static List<Long> normalizeSteamIds(Collection<Long> raw) {
         if (raw == null) {
             return List.of();
         }
@@ -202,33 +192,482 @@ public class TournamentTeamPlaysParserImpl implements TournamentTeamPlaysParser
 
     /**
      * Fetch and dump the raw GraphQL response to: outDir/<teamId>_<teamName>.json
-     * No filtering, no mutation. Returns the written file path.
+     * No filtering, no mutation apart from the leading {@value TeamQueryProfile#MARKER} field. Returns the written file path.
      */
+    @Override
     @SneakyThrows
     @SuppressWarnings("unchecked")
     public Path dumpTeamRawJson(int teamId, int take, int skip, Path outDir) {
-        var gql = new GraphQLRequest(TEAM_WITH_MATCHES_RAW, Map.of("teamId", teamId, "take", 15, // or use 'take'
-                "skip", 0    // or use 'skip'
-        ));
+        TeamQueryProfile profile = queryProfile;
+        var gql = new GraphQLRequest(profile.query(), Map.of("teamId", teamId, "take", take, "skip", skip));
 
-        Map<String, Object> resp = client.post().body(gql).retrieve().body(new ParameterizedTypeReference<>() {});
+        rateLimiter.acquire();
+        Timer.Sample sample = metrics.start();
+        Map<String, Object> resp;
+        try {
+            resp = client.post().body(gql).retrieve().body(new ParameterizedTypeReference<>() {});
+        } finally {
+            metrics.stop(sample, "fetch", "team");
+        }
+        if (resp.containsKey("errors")) metrics.graphQlErrors("team");
 
         var data = (Map<String, Object>) resp.get("data");
         var team = data != null ? (Map<String, Object>) data.get("team") : null;
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put(TeamQueryProfile.MARKER, profile.name());
+        doc.putAll(resp);
 
         long id = (team != null && team.get("id") instanceof Number n) ? n.longValue() : teamId;
         String name = team != null ? Objects.toString(team.get("name"), "") : "";
         String tag = team != null ? Objects.toString(team.get("tag"), "") : "";
-        String display = !name.isBlank() ? name : (!tag.isBlank() ? tag : "team");
 
-        String fileName = id + "_" + sanitize(display) + ".json";
+        if (team != null && team.get("matches") instanceof List<?> ms) metrics.matches("team", ms.size());
+
         Files.createDirectories(outDir);
-        Path outFile = outDir.resolve(fileName);
+        Path outFile = outDir.resolve(teamFileName(id, name, tag));
+
+        sample = metrics.start();
+        mapper.writeValue(outFile.toFile(), doc);
+        metrics.stop(sample, "write", "team");
+        return outFile;
+    }
+
+    /**
+     * Walk a team's whole match history page by page and stream it to outDir/<teamId>_<teamName>.json
+     * (same document shape as {@link #dumpTeamRawJson}). Each page is appended to the file as soon as it arrives
+     * while the next one is already being fetched, so at most two pages are held in memory.
+     * The file is written to a ".part" sibling and moved into place once complete.
+     *
+     * @param pageSize   matches per request (clamped to 1..{@value #MAX_PAGE_SIZE})
+     * @param maxMatches stop after this many matches; {@code <= 0} means the full history
+     */
+    public Path dumpTeamRawJsonPaged(int teamId, int pageSize, int maxMatches, Path outDir) {
+        return dumpTeamRawJsonPaged(teamId, pageSize, maxMatches, outDir, queryProfile);
+    }
+
+    /** As {@link #dumpTeamRawJsonPaged(int, int, int, Path)} with an explicit field projection. */
+    @SneakyThrows
+    public Path dumpTeamRawJsonPaged(int teamId, int pageSize, int maxMatches, Path outDir, TeamQueryProfile profile) {
+        int take = Math.clamp(pageSize, 1, MAX_PAGE_SIZE);
+
+        JsonNode first = fetchTeamPage(teamId, take, 0, profile);
+        JsonNode team = first.path("data").path("team");
+        if (!team.isObject()) {
+            throw new IllegalStateException("No team in response for teamId=" + teamId + " : " + first.path("errors"));
+        }
+
+        Files.createDirectories(outDir);
+        Path outFile = outDir.resolve(teamFileName(team.path("id").asLong(teamId), team.path("name").asText(""), team.path("tag").asText("")));
+        Path partFile = outFile.resolveSibling(outFile.getFileName() + ".part");
+
+        try {
+            try (JsonGenerator gen = mapper.createGenerator(Files.newOutputStream(partFile))) {
+                writeTeamHeader(gen, team, profile);
+                walkTeamPages(teamId, take, maxMatches, first, profile, gen::writeTree, gen::flush);
+                writeTeamFooter(gen);
+            }
+            Files.move(partFile, outFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            Files.deleteIfExists(partFile); // never leave a partial next to the dumps
+            throw e;
+        }
+        return outFile;
+    }
+
+    /**
+     * Same page walk as {@link #dumpTeamRawJsonPaged}, but every match is decoded into the typed model as it arrives
+     * and written to the binary columnar store outDir/<teamId>_<teamName>.bems (see {@link MatchStore}).
+     */
+    @SneakyThrows
+    public Path dumpTeamMatchStore(int teamId, int pageSize, int maxMatches, Path outDir) {
+        int take = Math.clamp(pageSize, 1, MAX_PAGE_SIZE);
+        TeamQueryProfile profile = queryProfile;
+        TeamMatchesReader reader = profile.reader();
+
+        JsonNode first = fetchTeamPage(teamId, take, 0, profile);
+        JsonNode team = first.path("data").path("team");
+        if (!team.isObject()) {
+            throw new IllegalStateException("No team in response for teamId=" + teamId + " : " + first.path("errors"));
+        }
+
+        MatchStoreWriter store = new MatchStoreWriter()
+                .team(team.path("id").asInt(teamId), team.path("name").asText(null), team.path("tag").asText(null));
+        walkTeamPages(teamId, take, maxMatches, first, profile, m -> {
+            try (JsonParser p = m.traverse()) {
+                p.nextToken();
+                store.add(reader.readMatch(p, TeamMatchesReader.ANY_LEAGUE));
+            }
+        }, () -> {});
+
+        String jsonName = teamFileName(team.path("id").asLong(teamId), team.path("name").asText(""), team.path("tag").asText(""));
+        return store.write(outDir.resolve(jsonName.replace(".json", MatchStore.EXTENSION)));
+    }
+
+    /**
+     * The STRATZ item table, fetched at most once per {@link #constantsTtl}: served from memory, else from
+     * outDir/.constants/items.json while that is fresh, else fetched and written there (.part, then moved).
+     */
+    @SneakyThrows
+    public ItemConstants itemConstants(Path outDir) {
+        long now = System.currentTimeMillis();
+        ItemConstants cached = itemConstants;
+        if (cached != null && now - cached.fetchedAtMillis() < constantsTtl.toMillis()) return cached;
+
+        constantsLock.lock();
+        try {
+            cached = itemConstants;
+            if (cached != null && now - cached.fetchedAtMillis() < constantsTtl.toMillis()) return cached;
+
+            Path file = outDir.resolve(CONSTANTS_DIR).resolve("items.json");
+            if (Files.exists(file)) {
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                if (now - modified < constantsTtl.toMillis()) {
+                    return itemConstants = ItemConstants.fromJson(mapper.readTree(file.toFile()), modified);
+                }
+            }
+
+            rateLimiter.acquire();
+            JsonNode resp = client.post().body(new GraphQLRequest(ITEM_CONSTANTS_QUERY, Map.of())).retrieve().body(JsonNode.class);
+            JsonNode constants = resp != null ? resp.path("data").path("constants") : null;
+            if (constants == null || !constants.path("items").isArray()) {
+                throw new IllegalStateException("No item constants in response: " + (resp != null ? resp.path("errors") : "empty response"));
+            }
+            Files.createDirectories(file.getParent());
+            Path partFile = file.resolveSibling("items.json.part");
+            mapper.writeValue(partFile.toFile(), constants);
+            Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return itemConstants = ItemConstants.fromJson(constants, now);
+        } finally {
+            constantsLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOConsumer<T> { void accept(T t) throws IOException; }
+
+    @FunctionalInterface
+    private interface IORunnable { void run() throws IOException; }
+
+    /**
+     * Feed every match of the team's history (starting with the already fetched {@code first} page) to {@code sink},
+     * de-duplicated by id, while the next page is prefetched on a virtual thread. {@code pageDone} runs after each page.
+     */
+    private void walkTeamPages(int teamId, int take, int maxMatches, JsonNode first, TeamQueryProfile profile,
+                               IOConsumer<JsonNode> sink, IORunnable pageDone) throws Exception {
+        try (ExecutorService prefetcher = Executors.newVirtualThreadPerTaskExecutor()) {
+            Set<Long> seen = new HashSet<>(); // skip-based paging can repeat a match when a new one lands mid-walk
+            JsonNode page = first;
+            int skip = 0, written = 0;
+            while (true) {
+                JsonNode matches = page.path("data").path("team").path("matches");
+                int n = matches.size();
+                boolean last = n < take || (maxMatches > 0 && skip + n >= maxMatches);
+
+                int nextSkip = skip + n;
+                Future<JsonNode> next = last ? null : prefetcher.submit(() -> fetchTeamPage(teamId, take, nextSkip, profile));
+
+                for (JsonNode m : matches) {
+                    if (maxMatches > 0 && written >= maxMatches) break;
+                    if (!seen.add(m.path("id").asLong())) continue;
+                    sink.accept(m);
+                    written++;
+                }
+                pageDone.run();
+
+                if (next == null) break;
+                page = next.get();
+                skip = nextSkip;
+            }
+        }
+    }
+
+    /**
+     * Incremental variant of {@link #dumpTeamRawJsonPaged}: keeps a high-water mark per team in outDir/.sync/<teamId>.json,
+     * probes the newest match ids first and downloads full match data only for matches newer than the mark.
+     * New matches are merged (newest first, de-duplicated by id) in front of the existing team file, which is
+     * streamed match by match, never loaded whole. Without a stored mark this falls back to a full paged dump.
+     *
+     * @param probePageSize ids fetched per probe request; a tournament day usually needs exactly one probe
+     */
+    public Path syncTeamRawJson(int teamId, int probePageSize, Path outDir) {
+        return syncTeamRawJson(teamId, probePageSize, outDir, queryProfile);
+    }
+
+    /**
+     * As {@link #syncTeamRawJson(int, int, Path)} with an explicit field projection. A file synced under another
+     * profile is re-dumped in full, so one file never mixes projections.
+     */
+    @SneakyThrows
+    public Path syncTeamRawJson(int teamId, int probePageSize, Path outDir, TeamQueryProfile profile) {
+        TeamSyncState state = readSyncState(outDir, teamId);
+        Path existing = state != null ? outDir.resolve(state.fileName()) : null;
+        if (existing == null || !Files.exists(existing) || state.profile() != profile) {
+            Path file = dumpTeamRawJsonPaged(teamId, MAX_PAGE_SIZE, 0, outDir, profile);
+            writeSyncState(outDir, scanSyncState(teamId, file, profile));
+            return file;
+        }
+
+        int newCount = countNewMatches(teamId, Math.clamp(probePageSize, 1, MAX_PAGE_SIZE), state);
+        if (newCount == 0) {
+            writeSyncState(outDir, new TeamSyncState(teamId, state.fileName(), state.latestMatchId(),
+                    state.latestStartDateTime(), state.matchCount(), System.currentTimeMillis(), profile.name()));
+            return existing;
+        }
 
-        mapper.writeValue(outFile.toFile(), resp);
+        // Fetch only the new matches (API order is newest first). The probe count only sizes the first page: pages
+        // are walked until a match at or below the mark shows up, so a match landing after the probe shifts the
+        // window (repeating a match, which is de-duplicated below) but is never skipped.
+        List<JsonNode> fresh = new ArrayList<>(newCount);
+        JsonNode team = null;
+        int take = Math.min(MAX_PAGE_SIZE, newCount + 1);
+        for (int skip = 0; ; ) {
+            JsonNode page = fetchTeamPage(teamId, take, skip, profile);
+            // a null team would be written as "<teamId>_.json" in place of the existing file
+            if (!page.path("data").path("team").isObject()) {
+                throw new IllegalStateException("No team in response for teamId=" + teamId + " skip=" + skip);
+            }
+            if (team == null) team = page.path("data").path("team");
+            JsonNode matches = page.path("data").path("team").path("matches");
+            boolean reachedMark = false;
+            for (JsonNode m : matches) {
+                if (state.isNewer(m.path("id").asLong(), m.path("startDateTime").asLong())) fresh.add(m);
+                else reachedMark = true;
+            }
+            if (reachedMark || matches.size() < take) break;
+            skip += matches.size();
+            take = MAX_PAGE_SIZE;
+        }
+
+        Path outFile = outDir.resolve(teamFileName(team.path("id").asLong(teamId), team.path("name").asText(""), team.path("tag").asText("")));
+        Path partFile = outFile.resolveSibling(outFile.getFileName() + ".part");
+        long latestId = state.latestMatchId(), latestStart = state.latestStartDateTime();
+        int count = 0;
+
+        try {
+            try (JsonGenerator gen = mapper.createGenerator(Files.newOutputStream(partFile));
+                 JsonParser old = mapper.createParser(existing.toFile())) {
+                writeTeamHeader(gen, team, profile);
+                Set<Long> seen = new HashSet<>();
+                for (JsonNode m : fresh) {
+                    long id = m.path("id").asLong(), start = m.path("startDateTime").asLong();
+                    if (!seen.add(id)) continue;
+                    gen.writeTree(m);
+                    count++;
+                    if (start > latestStart || (start == latestStart && id > latestId)) { latestStart = start; latestId = id; }
+                }
+
+                // Stream the existing matches across; a legacy constants block is dropped (see #itemConstants)
+                if (old.nextToken() == JsonToken.START_OBJECT && seekField(old, "data") && old.nextToken() == JsonToken.START_OBJECT) {
+                    while (old.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = old.currentName();
+                        JsonToken t = old.nextToken();
+                        if ("team".equals(field) && t == JsonToken.START_OBJECT && seekField(old, "matches")
+                                && old.nextToken() == JsonToken.START_ARRAY) {
+                            while (old.nextToken() == JsonToken.START_OBJECT) {
+                                JsonNode m = old.readValueAsTree();
+                                if (!seen.add(m.path("id").asLong())) continue;
+                                gen.writeTree(m);
+                                count++;
+                            }
+                            old.nextToken(); // rest of the team object is re-written from the fresh header
+                            while (old.currentToken() != JsonToken.END_OBJECT) { old.skipChildren(); old.nextToken(); }
+                        } else {
+                            old.skipChildren();
+                        }
+                    }
+                }
+                writeTeamFooter(gen);
+            }
+            Files.move(partFile, outFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            Files.deleteIfExists(partFile);
+            throw e;
+        }
+        if (!outFile.equals(existing)) Files.deleteIfExists(existing); // team was renamed
+        writeSyncState(outDir, new TeamSyncState(teamId, outFile.getFileName().toString(), latestId, latestStart, count, System.currentTimeMillis(), profile.name()));
         return outFile;
     }
 
+    /**
+     * Probe id pages until a match at or below the high-water mark shows up; returns how many matches were newer at
+     * probe time (a hint for sizing the fetch, not a bound on it).
+     */
+    private int countNewMatches(int teamId, int probePageSize, TeamSyncState state) throws InterruptedException {
+        int newCount = 0;
+        for (int skip = 0; ; skip += probePageSize) {
+            var gql = new GraphQLRequest(TEAM_MATCH_IDS_QUERY, Map.of("teamId", teamId, "take", probePageSize, "skip", skip));
+            rateLimiter.acquire();
+            Timer.Sample sample = metrics.start();
+            JsonNode resp;
+            try {
+                resp = client.post().body(gql).retrieve().body(JsonNode.class);
+            } finally {
+                metrics.stop(sample, "fetch", "team.probe");
+            }
+            if (resp != null && resp.has("errors")) metrics.graphQlErrors("team.probe");
+            JsonNode matches = resp != null ? resp.path("data").path("team").path("matches") : null;
+            if (matches == null || !matches.isArray()) {
+                throw new IllegalStateException("Probe failed for teamId=" + teamId + " : " + (resp != null ? resp.path("errors") : "empty response"));
+            }
+            for (JsonNode m : matches) {
+                if (!state.isNewer(m.path("id").asLong(), m.path("startDateTime").asLong())) return newCount;
+                newCount++;
+            }
+            if (matches.size() < probePageSize) return newCount;
+        }
+    }
+
+    /** Stream a team file and compute its high-water mark without materialising matches. */
+    private TeamSyncState scanSyncState(int teamId, Path file, TeamQueryProfile profile) throws IOException {
+        long latestId = 0L, latestStart = 0L;
+        int count = 0;
+        try (JsonParser p = mapper.createParser(file.toFile())) {
+            if (p.nextToken() == JsonToken.START_OBJECT && seekField(p, "data") && p.nextToken() == JsonToken.START_OBJECT
+                    && seekField(p, "team") && p.nextToken() == JsonToken.START_OBJECT && seekField(p, "matches")
+                    && p.nextToken() == JsonToken.START_ARRAY) {
+                while (p.nextToken() == JsonToken.START_OBJECT) {
+                    long id = 0L, start = 0L;
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String f = p.currentName();
+                        p.nextToken();
+                        if ("id".equals(f)) id = p.getValueAsLong();
+                        else if ("startDateTime".equals(f)) start = p.getValueAsLong();
+                        else p.skipChildren();
+                    }
+                    count++;
+                    if (start > latestStart || (start == latestStart && id > latestId)) { latestStart = start; latestId = id; }
+                }
+            }
+        }
+        return new TeamSyncState(teamId, file.getFileName().toString(), latestId, latestStart, count, System.currentTimeMillis(), profile.name());
+    }
+
+    /** Advance within the current object to the value of {@code name}; false if the object ends first. */
+    private static boolean seekField(JsonParser p, String name) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            if (name.equals(p.currentName())) return true;
+            p.nextToken();
+            p.skipChildren();
+        }
+        return false;
+    }
+
+    private TeamSyncState readSyncState(Path outDir, int teamId) throws IOException {
+        Path f = outDir.resolve(SYNC_DIR).resolve(teamId + ".json");
+        return Files.exists(f) ? mapper.readValue(f.toFile(), TeamSyncState.class) : null;
+    }
+
+    private void writeSyncState(Path outDir, TeamSyncState state) throws IOException {
+        Path dir = Files.createDirectories(outDir.resolve(SYNC_DIR));
+        mapper.writeValue(dir.resolve(state.teamId() + ".json").toFile(), state);
+    }
+
+    private JsonNode fetchTeamPage(int teamId, int take, int skip, TeamQueryProfile profile) throws InterruptedException {
+        var gql = new GraphQLRequest(profile.query(), Map.of("teamId", teamId, "take", take, "skip", skip));
+        rateLimiter.acquire();
+        Timer.Sample sample = metrics.start();
+        JsonNode resp;
+        try {
+            resp = client.post().body(gql).retrieve().body(JsonNode.class);
+        } finally {
+            metrics.stop(sample, "fetch", "team"); // every page of a paged dump or sync
+        }
+        if (resp == null) throw new IllegalStateException("Empty response for teamId=" + teamId + " skip=" + skip);
+        if (resp.has("errors")) metrics.graphQlErrors("team");
+        metrics.matches("team", resp.path("data").path("team").path("matches").size());
+        if (resp.has("errors") && !resp.path("data").path("team").isObject()) {
+            throw new IllegalStateException("GraphQL errors for teamId=" + teamId + " skip=" + skip + " -> " + resp.get("errors"));
+        }
+        return resp;
+    }
+
+    /**
+     * Opens {"queryProfile":...,"data":{"team":{id,name,tag,"matches":[ ; matches are then written one by one.
+     * The profile leads so readers learn what was fetched before the matches (see {@link TeamMatchesReader#profileOf}).
+     */
+    private static void writeTeamHeader(JsonGenerator gen, JsonNode team, TeamQueryProfile profile) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField(TeamQueryProfile.MARKER, profile.name());
+        gen.writeObjectFieldStart("data");
+        gen.writeObjectFieldStart("team");
+        for (String f : List.of("id", "name", "tag")) {
+            if (!team.has(f)) continue;
+            gen.writeFieldName(f);
+            gen.writeTree(team.get(f));
+        }
+        gen.writeArrayFieldStart("matches");
+    }
+
+    /** Closes what {@link #writeTeamHeader} opened. */
+    private static void writeTeamFooter(JsonGenerator gen) throws IOException {
+        gen.writeEndArray();   // matches
+        gen.writeEndObject();  // team
+        gen.writeEndObject();  // data
+        gen.writeEndObject();  // root
+    }
+
+    static String teamFileName(long id, String name, String tag) {
+        String display = !name.isBlank() ? name : (!tag.isBlank() ? tag : "team");
+        return id + "_" + sanitize(display) + ".json";
+    }
+
+    /**
+     * Fan the team dumps out on virtual threads. At most {@code maxInFlight} requests run at once and all of them
+     * share {@link #rateLimiter}, so wall time is bounded by the slowest call (or the rate limit), not the sum.
+     * An interrupt cancels the bulk dump: no further teams are submitted, and teams cut short are reported neither
+     * as written nor as failures; the interrupt flag is left set.
+     */
+    @Override
+    public BulkDumpResult dumpTeamsRawJson(Collection<Integer> teamIds, int take, int skip, Path outDir, DumpProgressListener listener) {
+        List<Integer> ids = teamIds.stream().filter(Objects::nonNull).distinct().toList();
+        DumpProgressListener progress = listener != null ? listener : DumpProgressListener.NONE;
+        long started = System.nanoTime();
+
+        Semaphore inFlight = new Semaphore(Math.max(1, maxInFlight));
+        AtomicInteger completed = new AtomicInteger();
+        Map<Integer, Path> written = new ConcurrentHashMap<>();
+        Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int teamId : ids) {
+                if (cancelled.get() || Thread.currentThread().isInterrupted()) break;
+                executor.submit(() -> {
+                    if (cancelled.get()) return;
+                    Path file = null;
+                    Exception error = null;
+                    try {
+                        inFlight.acquire();
+                        try {
+                            file = dumpTeamRawJson(teamId, take, skip, outDir);
+                            written.put(teamId, file);
+                        } finally {
+                            inFlight.release();
+                        }
+                    } catch (Exception e) {
+                        if (e instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
+                            cancelled.set(true);
+                            Thread.currentThread().interrupt();
+                            return; // cancelled, not a failure of this team
+                        }
+                        error = e;
+                        failures.put(teamId, e);
+                    }
+                    progress.onTeamDone(teamId, file, error, completed.incrementAndGet(), ids.size());
+                });
+            }
+        } // close() waits for every task; if this thread is interrupted meanwhile it interrupts them and re-sets the flag
+
+        // Re-key in input order so results are deterministic
+        Map<Integer, Path> orderedWritten = new LinkedHashMap<>();
+        Map<Integer, Throwable> orderedFailures = new LinkedHashMap<>();
+        for (int teamId : ids) {
+            if (written.containsKey(teamId)) orderedWritten.put(teamId, written.get(teamId));
+            if (failures.containsKey(teamId)) orderedFailures.put(teamId, failures.get(teamId));
+        }
+        return new BulkDumpResult(orderedWritten, orderedFailures, Duration.ofNanos(System.nanoTime() - started));
+    }
+
     private static String sanitize(String s) {
         String n = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
         n = n.replaceAll("[^a-zA-Z0-9._-]+", "_").replaceAll("_+", "_").replaceAll("^_|_$", "");
@@ -0,0 +1,5 @@
+package org.bettingengine.bettingengine;
+
+/** match.towerDeaths entry; npcId covers towers, barracks, ancients and Roshan (see TeamJsonAnalyzer). */
+public record TowerDeath(int time, int npcId, boolean isRadiant) {
+}
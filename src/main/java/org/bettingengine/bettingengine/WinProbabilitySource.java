@@ -0,0 +1,25 @@
+package org.bettingengine.bettingengine;
+
+import java.util.Map;
+
+/** Probability that {@code teamA} wins a single game against {@code teamB}; e.g. {@code Glicko2RatingEngine::winProbability}. */
+@FunctionalInterface
+public interface WinProbabilitySource {
+
+    double winProbability(int teamA, int teamB);
+
+    /**
+     * Log5 over per-team win rates (e.g. wins / matchesCount from the analyzed aggregates).
+     * Unknown teams count as 0.5; rates are clamped so no pairing is ever certain.
+     */
+    static WinProbabilitySource fromWinRates(Map<Integer, Double> winRates) {
+        return (a, b) -> {
+            double pa = clamp(winRates.getOrDefault(a, 0.5)), pb = clamp(winRates.getOrDefault(b, 0.5));
+            return pa * (1 - pb) / (pa * (1 - pb) + pb * (1 - pa));
+        };
+    }
+
+    private static double clamp(double p) {
+        return Math.max(0.01, Math.min(0.99, p));
+    }
+}
@@ -0,0 +1,388 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embeddable stand-in for {@code https://api.stratz.com/graphql} on a loopback port. Answers the parser's operations
+ * ({@code GetTeamWithMatches}, {@code GetTeamMatchIds}, {@code PlayersProAllTime}, {@code GetItemConstants}) from
+ * {@link SyntheticTeamData} or from recorded bodies, honouring take/skip paging and dropping the heavy subtrees a
+ * {@link TeamQueryProfile} does not select. Latency, 429s and 5xx can be injected at random or queued
+ * deterministically, and per-operation / per-status counters plus peak concurrency are kept for assertions.
+ * Requests are served on virtual threads so injected latency never caps concurrency.
+ */
+final class FakeStratzServer implements AutoCloseable {
+
+    static final String GET_TEAM_WITH_MATCHES = "GetTeamWithMatches";
+    static final String GET_TEAM_MATCH_IDS = "GetTeamMatchIds";
+    static final String PLAYERS_PRO_ALL_TIME = "PlayersProAllTime";
+    static final String GET_ITEM_CONSTANTS = "GetItemConstants";
+
+    /** Subtrees of a synthetic match that are only returned when the query selects them. */
+    private static final String[] PROJECTED_FIELDS = {"towerDeaths", "playbackData", "stats", "constants"};
+
+    private static final Pattern OPERATION = Pattern.compile("\\b(?:query|mutation)\\s+(\\w+)");
+
+    /** Produces a response body from the request's {@code variables}. */
+    @FunctionalInterface
+    interface Responder {
+        void respond(JsonNode variables, OutputStream out) throws IOException;
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<Integer, SyntheticTeamData> teams = new ConcurrentHashMap<>();
+    private final Map<String, Responder> recorded = new ConcurrentHashMap<>();
+    private volatile int defaultMatches = 100;
+
+    private volatile Duration latency = Duration.ZERO, jitter = Duration.ZERO;
+    private volatile double throttleRate, errorRate;
+    private volatile int retryAfterSeconds = 1;
+    private final Deque<Integer> queuedFailures = new ArrayDeque<>();
+    private final Deque<Duration> queuedDelays = new ArrayDeque<>();
+    private final SplittableRandom random;
+
+    private final AtomicInteger inFlight = new AtomicInteger(), peakInFlight = new AtomicInteger();
+    private final Map<String, LongAdder> byOperation = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> bytesByOperation = new ConcurrentHashMap<>();
+
+    private FakeStratzServer(long seed) throws IOException {
+        this.random = new SplittableRandom(seed);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/graphql", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    static FakeStratzServer start() throws IOException {
+        return new FakeStratzServer(1L);
+    }
+
+    URI uri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/graphql");
+    }
+
+    /**
+     * A bare client with the production headers, pointed at this server. It uses the JDK transport, which (unlike
+     * httpclient5's defaults) never retries, so injected faults reach the caller; see StratzClientConfig for the
+     * resilient stack.
+     */
+    RestClient restClient() {
+        return RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .baseUrl(uri().toString())
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer offline")
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    // ---------- data ----------
+
+    /** Serve {@code data} for its team id; unknown teams get {@link SyntheticTeamData#summary} with {@link #defaultMatches}. */
+    FakeStratzServer team(SyntheticTeamData data) {
+        teams.put(data.teamId, data);
+        return this;
+    }
+
+    SyntheticTeamData team(int teamId) {
+        return teams.computeIfAbsent(teamId, id -> SyntheticTeamData.summary(id, defaultMatches));
+    }
+
+    FakeStratzServer defaultMatches(int matches) {
+        this.defaultMatches = matches;
+        return this;
+    }
+
+    /** Replay a fixed (e.g. recorded) body for an operation regardless of variables. */
+    FakeStratzServer replay(String operation, byte[] body) {
+        return respond(operation, (variables, out) -> out.write(body));
+    }
+
+    FakeStratzServer respond(String operation, Responder responder) {
+        recorded.put(operation, responder);
+        return this;
+    }
+
+    // ---------- faults ----------
+
+    FakeStratzServer latency(Duration fixed, Duration jitter) {
+        this.latency = fixed;
+        this.jitter = jitter;
+        return this;
+    }
+
+    /** Fraction of requests answered with 429 (+ Retry-After). */
+    FakeStratzServer throttleRate(double rate) {
+        this.throttleRate = rate;
+        return this;
+    }
+
+    /** Fraction of requests answered with 503. */
+    FakeStratzServer errorRate(double rate) {
+        this.errorRate = rate;
+        return this;
+    }
+
+    FakeStratzServer retryAfterSeconds(int seconds) {
+        this.retryAfterSeconds = seconds;
+        return this;
+    }
+
+    /** The next {@code times} requests fail with {@code status}, before any random fault is rolled. */
+    FakeStratzServer failNext(int status, int times) {
+        synchronized (queuedFailures) {
+            for (int i = 0; i < times; i++) queuedFailures.add(status);
+        }
+        return this;
+    }
+
+    /** The next {@code times} requests take an extra {@code delay} (a slow tail, e.g. for hedging). */
+    FakeStratzServer slowNext(Duration delay, int times) {
+        synchronized (queuedDelays) {
+            for (int i = 0; i < times; i++) queuedDelays.add(delay);
+        }
+        return this;
+    }
+
+    // ---------- stats ----------
+
+    long requests() {
+        return byOperation.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    long requests(String operation) {
+        LongAdder a = byOperation.get(operation);
+        return a != null ? a.sum() : 0L;
+    }
+
+    /** Bytes of 200 bodies served for {@code operation}. */
+    long bytesServed(String operation) {
+        LongAdder a = bytesByOperation.get(operation);
+        return a != null ? a.sum() : 0L;
+    }
+
+    long responses(int status) {
+        LongAdder a = byStatus.get(status);
+        return a != null ? a.sum() : 0L;
+    }
+
+    int peakConcurrency() { return peakInFlight.get(); }
+
+    void resetStats() {
+        byOperation.clear();
+        byStatus.clear();
+        bytesByOperation.clear();
+        peakInFlight.set(inFlight.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    // ---------- helpers ----------
+
+    private void handle(HttpExchange ex) throws IOException {
+        int now = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(now, Math::max);
+        try (ex) {
+            JsonNode req = mapper.readTree(ex.getRequestBody());
+            String query = req.path("query").asText("");
+            Matcher m = OPERATION.matcher(query);
+            String operation = m.find() ? m.group(1) : "<anonymous>";
+            byOperation.computeIfAbsent(operation, k -> new LongAdder()).increment();
+
+            sleep();
+            int fault = nextFault();
+            if (fault == 429) {
+                ex.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                send(ex, 429, "{\"message\":\"Too Many Requests\"}".getBytes());
+                return;
+            }
+            if (fault != 0) {
+                send(ex, fault, ("{\"message\":\"injected " + fault + "\"}").getBytes());
+                return;
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            JsonNode vars = req.path("variables");
+            Responder responder = recorded.get(operation);
+            if (responder != null) {
+                responder.respond(vars, body);
+            } else {
+                switch (operation) {
+                    case GET_TEAM_WITH_MATCHES -> {
+                        team(vars.path("teamId").asInt()).writePage(body, vars.path("skip").asInt(0), vars.path("take").asInt(100));
+                        body = project(body, query);
+                    }
+                    case GET_TEAM_MATCH_IDS -> team(vars.path("teamId").asInt()).writeIdPage(body, vars.path("skip").asInt(0), vars.path("take").asInt(100));
+                    case PLAYERS_PRO_ALL_TIME -> writePlayers(body, vars.path("ids"), vars.path("takeHeroes").asInt(10));
+                    case GET_ITEM_CONSTANTS -> writeItemConstants(body);
+                    default -> {
+                        send(ex, 400, ("{\"errors\":[{\"message\":\"unknown operation " + operation + "\"}]}").getBytes());
+                        return;
+                    }
+                }
+            }
+            bytesByOperation.computeIfAbsent(operation, k -> new LongAdder()).add(body.size());
+            send(ex, 200, body.toByteArray());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void sleep() {
+        long nanos = latency.toNanos();
+        synchronized (queuedDelays) {
+            Duration extra = queuedDelays.poll();
+            if (extra != null) nanos += extra.toNanos();
+        }
+        long j = jitter.toNanos();
+        if (j > 0) {
+            synchronized (random) { nanos += random.nextLong(j + 1); }
+        }
+        if (nanos <= 0) return;
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** 0 for success, else the status to fail with. */
+    private int nextFault() {
+        synchronized (queuedFailures) {
+            Integer queued = queuedFailures.poll();
+            if (queued != null) return queued;
+        }
+        double roll;
+        synchronized (random) { roll = random.nextDouble(); }
+        if (roll < throttleRate) return 429;
+        if (roll < throttleRate + errorRate) return 503;
+        return 0;
+    }
+
+    private void send(HttpExchange ex, int status, byte[] body) throws IOException {
+        byStatus.computeIfAbsent(status, k -> new LongAdder()).increment();
+        ex.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        ex.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /** Drops the {@link #PROJECTED_FIELDS} the query does not select, like the real API would never send them. */
+    private ByteArrayOutputStream project(ByteArrayOutputStream body, String query) throws IOException {
+        List<String> dropped = Arrays.stream(PROJECTED_FIELDS).filter(f -> !query.contains(f)).toList();
+        if (dropped.isEmpty()) return body;
+        JsonNode root = mapper.readTree(body.toByteArray());
+        ((ObjectNode) root.path("data")).remove(dropped);
+        for (JsonNode m : root.path("data").path("team").path("matches")) {
+            ((ObjectNode) m).remove(dropped);
+            for (JsonNode p : m.path("players")) ((ObjectNode) p).remove(dropped);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapper.writeValue(out, root);
+        return out;
+    }
+
+    /** {data:{constants:{items:[...]}}} for {@link SyntheticTeamData#ITEMS}. */
+    private void writeItemConstants(OutputStream out) throws IOException {
+        try (JsonGenerator g = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            g.writeStartObject();
+            g.writeObjectFieldStart("data");
+            g.writeObjectFieldStart("constants");
+            g.writeArrayFieldStart("items");
+            for (int id : SyntheticTeamData.ITEMS) {
+                g.writeStartObject();
+                g.writeNumberField("id", id);
+                g.writeStringField("displayName", "Item " + id);
+                g.writeStringField("name", "item_" + id);
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+            g.writeEndObject();
+            g.writeEndObject();
+            g.writeEndObject();
+        }
+    }
+
+    /** {data:{players:[{steamAccount:{id, proSteamAccount}, heroesPerformance:[...]}]}} for every requested id. */
+    private void writePlayers(OutputStream out, JsonNode ids, int takeHeroes) throws IOException {
+        try (JsonGenerator g = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            g.writeStartObject();
+            g.writeObjectFieldStart("data");
+            g.writeArrayFieldStart("players");
+            for (JsonNode idNode : ids) {
+                long id = idNode.asLong();
+                SplittableRandom rnd = new SplittableRandom(id);
+                g.writeStartObject();
+                g.writeObjectFieldStart("steamAccount");
+                g.writeNumberField("id", id);
+                g.writeObjectFieldStart("proSteamAccount");
+                g.writeNumberField("id", id);
+                g.writeStringField("name", "Pro" + id);
+                g.writeEndObject();
+                g.writeEndObject();
+                g.writeArrayFieldStart("heroesPerformance");
+                for (int h = 0; h < takeHeroes; h++) {
+                    int matches = rnd.nextInt(5, 400);
+                    g.writeStartObject();
+                    g.writeObjectFieldStart("hero");
+                    g.writeNumberField("id", h + 1);
+                    g.writeStringField("displayName", "Hero " + (h + 1));
+                    g.writeEndObject();
+                    g.writeNumberField("matchCount", matches);
+                    g.writeNumberField("winCount", rnd.nextInt(matches + 1));
+                    g.writeNumberField("avgKills", rnd.nextDouble(1, 12));
+                    g.writeNumberField("avgDeaths", rnd.nextDouble(1, 9));
+                    g.writeNumberField("avgAssists", rnd.nextDouble(3, 20));
+                    g.writeNumberField("goldPerMinute", rnd.nextInt(250, 800));
+                    g.writeNumberField("experiencePerMinute", rnd.nextInt(300, 900));
+                    g.writeNumberField("lastPlayedDateTime", 1_700_000_000L + rnd.nextInt(10_000_000));
+                    g.writeEndObject();
+                }
+                g.writeEndArray();
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+            g.writeEndObject();
+            g.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.bettingengine.bettingengine;
+
+import org.bettingengine.bettingengine.Glicko2RatingEngine.Rating;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Glicko2RatingEngineTest {
+
+    private static Match match(long id, long start, int radiant, int dire, boolean radiantWin) {
+        var rad = new PlayerPerformance(true, radiantWin, 5, 3, 7, 500, 550, 18000, 1, "Anti-Mage", radiant * 10L, null,
+                KillEvents.EMPTY, DeathEvents.EMPTY, ItemPurchases.EMPTY);
+        var dir = new PlayerPerformance(false, !radiantWin, 3, 5, 6, 450, 500, 16000, 5, "Crystal Maiden", dire * 10L, null,
+                KillEvents.EMPTY, DeathEvents.EMPTY, ItemPurchases.EMPTY);
+        return new Match(id, start, 2400, radiantWin, radiant, "T" + radiant, dire, "T" + dire, 1,
+                0, 0, 0, 0, List.of(), List.of(rad, dir));
+    }
+
+    @Test
+    void matchesGlickmansWorkedExample() {
+        Rating player = new Rating(1500, 200, 0.06);
+        Rating[] opponents = { new Rating(1400, 30, 0.06), new Rating(1550, 100, 0.06), new Rating(1700, 300, 0.06) };
+        Rating r = Glicko2RatingEngine.update(player, opponents, new double[]{1, 0, 0}, 0.5);
+
+        assertEquals(1464.06, r.rating(), 0.01);
+        assertEquals(151.52, r.rd(), 0.01);
+        assertEquals(0.05999, r.volatility(), 0.00001);
+    }
+
+    @Test
+    void appliesOnlyMatchesAfterEachTeamsLastMatch() {
+        var engine = new Glicko2RatingEngine();
+        List<Match> history = new ArrayList<>();
+        for (int i = 0; i < 20; i++) history.add(match(100 + i, 1_700_000_000L + i * 3600L, 36, 2163, i % 4 != 0));
+
+        assertEquals(20, engine.applyAll(history.reversed()));
+        assertEquals(0, engine.applyAll(history));
+        Rating before = engine.teamRating(36);
+
+        double p = engine.winProbability(36, 2163);
+        assertTrue(p > 0.6, "p=" + p);
+        assertEquals(1.0, p + engine.winProbability(2163, 36), 1e-12);
+        assertTrue(engine.winProbabilityByPlayers(new long[]{360}, new long[]{21630}) > 0.5);
+        assertEquals(0.5, engine.winProbability(1, 2), 1e-12);
+
+        // a late, older result of these teams is ignored; a newer one moves the rating
+        assertFalse(engine.apply(match(1, 1_600_000_000L, 2163, 36, true)));
+        assertEquals(before, engine.teamRating(36));
+        assertTrue(engine.apply(match(500, 1_800_000_000L, 2163, 36, true)));
+        assertTrue(engine.teamRating(36).rating() < before.rating());
+        assertEquals(21, engine.appliedMatches());
+
+        // marks are per team: an older match between two other teams still counts, once
+        assertTrue(engine.apply(match(2, 1_600_000_000L, 15, 39, true)));
+        assertEquals(0, engine.applyAll(List.of(match(2, 1_600_000_000L, 15, 39, true))));
+        assertTrue(engine.winProbability(15, 39) > 0.5);
+        assertFalse(engine.apply(match(3, 1_600_000_100L, 15, 36, false)), "older than team 36's last match");
+
+        Match noResult = new Match(501, 1_900_000_000L, 2400, false, 15, "T15", 39, "T39", 1,
+                0, 0, 0, 0, List.of(), List.of(), false);
+        assertFalse(engine.apply(noResult));
+        assertEquals(22, engine.appliedMatches());
+    }
+
+    @Test
+    void playersWithoutASideAreNeitherRatedNorAveraged() {
+        Match m = match(100, 1_700_000_000L, 36, 2163, true);
+        var sideless = new PlayerPerformance(false, false, 9, 0, 9, 900, 900, 30000, 2, "Axe", 777L, null,
+                KillEvents.EMPTY, DeathEvents.EMPTY, ItemPurchases.EMPTY, false);
+        List<PlayerPerformance> players = new ArrayList<>(m.players());
+        players.add(sideless);
+        Match withSideless = new Match(100, 1_700_000_000L, 2400, true, 36, "T36", 2163, "T2163", 1,
+                0, 0, 0, 0, List.of(), players, true);
+
+        var plain = new Glicko2RatingEngine();
+        plain.apply(m);
+        var engine = new Glicko2RatingEngine();
+        engine.apply(withSideless);
+
+        assertEquals(new Rating(Glicko2RatingEngine.DEFAULT_RATING, Glicko2RatingEngine.DEFAULT_RD,
+                Glicko2RatingEngine.DEFAULT_VOLATILITY), engine.playerRating(777L));
+        assertEquals(2, engine.playerCount());
+        assertEquals(plain.playerRating(360L), engine.playerRating(360L));
+        assertEquals(plain.playerRating(21630L), engine.playerRating(21630L));
+    }
+}
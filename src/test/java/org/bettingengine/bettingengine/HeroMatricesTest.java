@@ -0,0 +1,75 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeroMatricesTest {
+
+    private static Match match(long id, boolean radiantWin, int[] radiantHeroes, int[] direHeroes) {
+        List<PlayerPerformance> players = new ArrayList<>();
+        for (int h : radiantHeroes) players.add(player(true, radiantWin, h));
+        for (int h : direHeroes) players.add(player(false, !radiantWin, h));
+        return new Match(id, id, 2000, radiantWin, 1, "A", 2, "B", 1, 0, 0, 0, 0, List.of(), players);
+    }
+
+    private static PlayerPerformance player(boolean radiant, boolean won, int heroId) {
+        return new PlayerPerformance(radiant, won, 0, 0, 0, 0, 0, 0, heroId, "h" + heroId, 0L, null, KillEvents.EMPTY, DeathEvents.EMPTY, ItemPurchases.EMPTY);
+    }
+
+    @Test
+    void countsPairsFromBothSides() {
+        HeroMatrices h = new HeroMatrices(8);
+        assertTrue(h.accept(match(1, true, new int[]{1, 2}, new int[]{3, 4})));
+        assertTrue(h.accept(match(2, false, new int[]{1, 3}, new int[]{2, 200}))); // 200 grows the matrices
+        assertFalse(h.accept(match(1, true, new int[]{1, 2}, new int[]{3, 4})));  // already counted
+
+        assertEquals(2, h.matchCount());
+        assertTrue(h.capacity() > 200);
+        assertEquals(2, h.picks(1));
+        assertEquals(0.5, h.winRate(1), 1e-9);
+        assertEquals(1, h.gamesAgainst(1, 3));
+        assertEquals(1, h.winsAgainst(1, 3));
+        assertEquals(0, h.winsAgainst(3, 1));
+        assertEquals(2, h.gamesAgainst(1, 2) + h.gamesWith(1, 2));
+        assertEquals(1.0, h.winRateWith(1, 2), 1e-9);
+        assertEquals(1.0, h.winRateAgainst(200, 1), 1e-9);
+        assertEquals(0.0, h.winRateWith(3, 4), 1e-9);
+        assertTrue(Double.isNaN(h.winRateWith(4, 5)));
+        assertEquals(0, h.picks(9999));
+    }
+
+    @Test
+    void parallelBuildMatchesSequentialAndUpdatesIncrementally() {
+        SplittableRandom rnd = new SplittableRandom(3L);
+        List<Match> all = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            int[] heroes = rnd.ints(1, 130).distinct().limit(10).toArray();
+            all.add(match(i, rnd.nextBoolean(), Arrays.copyOf(heroes, 5), Arrays.copyOfRange(heroes, 5, 10)));
+        }
+
+        HeroMatrices sequential = new HeroMatrices();
+        all.forEach(sequential::accept);
+        HeroMatrices parallel = new HeroMatrices();
+        assertEquals(2000, parallel.acceptAll(all.subList(0, 2000), new ForkJoinPool(4)));
+        assertEquals(1000, parallel.acceptAll(all));  // only the new ones
+
+        assertEquals(3000, parallel.matchCount());
+        for (int a = 1; a < 130; a++) {
+            assertEquals(sequential.picks(a), parallel.picks(a));
+            assertEquals(sequential.wins(a), parallel.wins(a));
+            for (int b = 1; b < 130; b++) {
+                assertEquals(sequential.winsAgainst(a, b), parallel.winsAgainst(a, b));
+                assertEquals(sequential.gamesWith(a, b), parallel.gamesWith(a, b));
+                assertEquals(parallel.gamesWith(a, b), parallel.gamesWith(b, a));
+                assertEquals(parallel.gamesAgainst(a, b), parallel.gamesAgainst(b, a));
+            }
+        }
+    }
+}
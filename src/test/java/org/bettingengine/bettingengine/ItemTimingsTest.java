@@ -0,0 +1,81 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemTimingsTest {
+
+    @TempDir
+    Path tmp;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private ItemConstants constants() {
+        return ItemConstants.fromJson(mapper.valueToTree(Map.of("items", List.of(
+                Map.of("id", 1, "name", "item_blink", "displayName", "Blink Dagger"),
+                Map.of("id", 116, "name", "item_black_king_bar", "displayName", "Black King Bar"),
+                Map.of("id", 44, "name", "item_tango", "displayName", "Tango")))), 0L);
+    }
+
+    /** {@code purchases} are (time, itemId) pairs. */
+    private static PlayerPerformance player(boolean radiant, int heroId, long steamId, int... purchases) {
+        ItemPurchases.Builder b = new ItemPurchases.Builder();
+        for (int i = 0; i < purchases.length; i += 2) b.add(purchases[i], purchases[i + 1]);
+        return new PlayerPerformance(radiant, radiant, 0, 0, 0, 0, 0, 0, heroId, "h" + heroId, steamId, null,
+                KillEvents.EMPTY, DeathEvents.EMPTY, b.build());
+    }
+
+    private static Match match(long id, PlayerPerformance... players) {
+        return new Match(id, id, 2000, true, 36, "R", 15, "D", 1, 0, 0, 0, 0, List.of(), List.of(players));
+    }
+
+    @Test
+    void firstPurchasePerPlayerMatchAndTimeToCore() {
+        ItemTimings t = new ItemTimings(constants());
+        t.accept(match(1,
+                player(true, 5, 100, -80, 44, 300, 44, 900, 1, 1500, 116),
+                player(false, 6, 200, -60, 44)));
+        t.accept(match(2, player(true, 5, 100, 1200, 116, 700, 1)));
+        assertFalse(t.accept(match(2, player(true, 5, 100, 1, 1))));
+
+        assertEquals(2, t.matchCount());
+        assertEquals(7, t.purchaseCount());
+        assertArrayEquals(new int[]{-80}, t.times(5, 44));            // rebuy at 300 is not a first purchase
+        assertArrayEquals(new int[]{900, 700}, t.times(5, 1));
+        assertEquals(800.0, t.timing(5, 1).median(), 1e-9);
+        assertNull(t.timing(6, 1));
+
+        List<Map<String, Object>> timings = t.heroItemTimings(5, 1);
+        assertEquals(List.of("Tango", "Blink Dagger", "Black King Bar"), timings.stream().map(r -> r.get("itemName")).toList());
+
+        assertEquals(800.0, t.playerTimeToCore(100).median(), 1e-9);  // 900 and 700: blink both times
+        assertEquals(2L, t.teamCoreSummary(36).get("withCore"));
+        assertEquals(1, t.teamCoreSummary(15).get("withoutCore"));
+        assertNull(t.teamCoreSummary(999));
+    }
+
+    @Test
+    void countsEveryPurchaseOfASyntheticHistory() throws Exception {
+        Path file = tmp.resolve("36_Team.json");
+        new SyntheticTeamData(36, 200, 0, 0, 12, 5L).write(file);
+        List<Match> matches = new TeamMatchesReader(true).read(file, TeamMatchesReader.ANY_LEAGUE).matches();
+
+        ItemTimings t = new ItemTimings(ItemConstants.fromJson(mapper.readTree(file.toFile()).path("data").path("constants"), 0L),
+                List.of("item_116"));
+        assertEquals(200, t.acceptAll(matches));
+        assertEquals(200L * 10 * 12, t.purchaseCount());
+        long columns = 0;
+        for (int hero = 1; hero <= 130; hero++) {
+            for (int item : SyntheticTeamData.ITEMS) columns += t.times(hero, item).length;
+        }
+        assertTrue(columns > 0 && columns <= t.purchaseCount());
+        assertNotNull(t.teamTimeToCore(36));
+    }
+}
@@ -0,0 +1,73 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchIndexTest {
+
+    @TempDir
+    Path tmp;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static Map<String, Object> match(long id, long start, int rad, int dire, boolean radiantWin) {
+        return Map.of("id", id, "startDateTime", start, "durationSeconds", 2000, "didRadiantWin", radiantWin,
+                "radiantTeam", Map.of("id", rad, "name", "T" + rad), "direTeam", Map.of("id", dire, "name", "T" + dire),
+                "league", Map.of("id", 18324, "displayName", "TI"),
+                "players", List.of(Map.of("isRadiant", true, "isVictory", radiantWin, "kills", 5, "deaths", 1,
+                        "hero", Map.of("id", 1, "displayName", "Anti-Mage"))));
+    }
+
+    private void writeTeam(int teamId, List<Map<String, Object>> matches) throws Exception {
+        mapper.writeValue(tmp.resolve(teamId + "_T" + teamId + ".json").toFile(),
+                Map.of("data", Map.of("team", Map.of("id", teamId, "name", "T" + teamId, "matches", matches))));
+    }
+
+    @Test
+    void storesSharedMatchesOnceAndResolvesHeadToHead() throws Exception {
+        var shared1 = match(101, 1000, 36, 2163, true);
+        var shared2 = match(102, 2000, 2163, 36, true);
+        writeTeam(36, List.of(shared2, match(103, 3000, 36, 15, false), shared1));
+        writeTeam(2163, List.of(shared2, shared1));
+
+        MatchIndex index = MatchIndex.build(tmp, false);
+
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[]{15, 36, 2163}, index.teamIds());
+        assertEquals(3, index.matchIdsOf(36).length);
+        assertEquals(2, index.matchIdsOf(2163).length);
+        assertEquals(2163, index.get(102).radiantTeamId());
+        assertNull(index.get(999));
+
+        HeadToHead h2h = index.headToHead(36, 2163);
+        assertEquals(2, h2h.matches());
+        assertEquals(1, h2h.winsA());
+        assertEquals(1, h2h.winsB());
+        assertEquals(2000, h2h.lastStartDateTime());
+
+        assertEquals(List.of(101L, 102L, 103L), index.chronological().stream().map(Match::id).toList());
+        assertFalse(index.add(index.get(101)));
+    }
+
+    @Test
+    void headToHeadWinRateIgnoresMatchesWithoutAResult() throws Exception {
+        Map<String, Object> noResult = new HashMap<>(match(103, 3000, 36, 2163, false));
+        noResult.remove("didRadiantWin");
+        writeTeam(36, List.of(noResult, match(102, 2000, 2163, 36, false), match(101, 1000, 36, 2163, true)));
+
+        HeadToHead h2h = MatchIndex.build(tmp, false).headToHead(36, 2163);
+        assertEquals(3, h2h.matches());
+        assertEquals(2, h2h.winsA());
+        assertEquals(0, h2h.winsB());
+        assertEquals(1.0, h2h.winRateA(), 1e-12);
+        assertEquals(0.0, new HeadToHead(36, 2163, 1, 0, 0, 0L).winRateA());
+    }
+}
@@ -0,0 +1,75 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchStoreTest {
+
+    @TempDir
+    Path tmp;
+
+    private static Match match(long id, int league, boolean radiantWin) {
+        var p1 = new PlayerPerformance(true, radiantWin, 7, 2, 11, 640, 710, 24000, 1, "Anti-Mage", 111L, "Yatoro",
+                new KillEvents(new int[]{312, 901}, new int[]{44, 5}),
+                new DeathEvents.Builder().add(1200, 5, 310, 420, 150, false, 6500, 7000).build(),
+                new ItemPurchases(new int[]{-85, 840}, new int[]{44, 116}));
+        var p2 = new PlayerPerformance(false, !radiantWin, 3, 6, 9, 420, 500, 15000, 5, "Crystal Maiden", 222L, null,
+                KillEvents.EMPTY, DeathEvents.EMPTY, ItemPurchases.EMPTY);
+        return new Match(id, 1_700_000_000L + id, 2400, radiantWin, 36, "Natus Vincere", 2163, "Team Liquid", league,
+                1974, 6, 63, 0, List.of(new TowerDeath(610, 26, false), new TowerDeath(1500, 133, true)), List.of(p1, p2));
+    }
+
+    @Test
+    void roundTripsMatchesThroughMappedColumns() throws Exception {
+        List<Match> matches = List.of(match(1, 18324, true), match(2, 1, false), match(3, 18324, false));
+        Path file = new MatchStoreWriter().team(36, "Natus Vincere", "NaVi").write(tmp.resolve("36.bems"));
+        // empty store is valid
+        try (var r = MatchStoreReader.open(file)) {
+            assertEquals(0, r.matchCount());
+            assertEquals("NaVi", r.teamTag());
+        }
+
+        var writer = new MatchStoreWriter().team(36, "Natus Vincere", "NaVi");
+        writer.addAll(matches);
+        writer.write(file);
+
+        try (var r = MatchStoreReader.open(file)) {
+            assertEquals(3, r.matchCount());
+            assertEquals(36, r.teamId());
+            assertEquals("Natus Vincere", r.teamName());
+            for (int i = 0; i < matches.size(); i++) {
+                assertEquals(matches.get(i), r.match(i, true));
+            }
+            assertEquals(List.of(1L, 3L), r.matches(18324, false).stream().map(Match::id).toList());
+            assertTrue(r.match(0, false).players().get(0).killEvents().isEmpty());
+
+            IntBuffer kills = r.intColumn(MatchStore.Column.P_KILLS);
+            assertEquals(6, kills.limit());
+            assertEquals(7, kills.get(0));
+            assertEquals(3, kills.get(1));
+        }
+    }
+
+    @Test
+    void rejectsForeignFiles() throws Exception {
+        Path junk = java.nio.file.Files.writeString(tmp.resolve("junk.bems"), "{\"data\":{}}                 ");
+        assertThrows(java.io.IOException.class, () -> MatchStoreReader.open(junk));
+    }
+
+    @Test
+    void failedWriteLeavesNoPartialFile() throws Exception {
+        Path occupied = java.nio.file.Files.createDirectories(tmp.resolve("36.bems"));
+        java.nio.file.Files.writeString(occupied.resolve("keep"), "x");  // the final move cannot replace it
+
+        var writer = new MatchStoreWriter().team(36, "Natus Vincere", "NaVi");
+        writer.addAll(List.of(match(1, 18324, true)));
+        assertThrows(java.io.IOException.class, () -> writer.write(occupied));
+        assertFalse(java.nio.file.Files.exists(tmp.resolve("36.bems.part")));
+    }
+}
@@ -0,0 +1,75 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.bettingengine.bettingengine.MatchTimelineIndex.Kind;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchTimelineIndexTest {
+
+    private static PlayerPerformance player(boolean radiant, int heroId, DeathEvents deaths) {
+        return new PlayerPerformance(radiant, false, 0, deaths.size(), 0, 0, 0, 0, heroId, "h" + heroId, heroId, null,
+                KillEvents.EMPTY, deaths, ItemPurchases.EMPTY);
+    }
+
+    /** {@code timesAndGold} are (time, goldFed) pairs. */
+    private static DeathEvents deaths(int... timesAndGold) {
+        DeathEvents.Builder b = new DeathEvents.Builder();
+        for (int i = 0; i < timesAndGold.length; i += 2) b.add(timesAndGold[i], 0, timesAndGold[i + 1], 0, 0, false, 0, 0);
+        return b.build();
+    }
+
+    private static Match match(long id, int radiant, int dire, List<TowerDeath> objectives, List<PlayerPerformance> players) {
+        return new Match(id, id * 1000, 2400, true, radiant, "R", dire, "D", 1, 0, 0, 0, 0, objectives, players);
+    }
+
+    @Test
+    void answersFirstsAndGoldFedFromSortedSlices() {
+        Match m1 = match(10, 36, 15, List.of(
+                new TowerDeath(900, 133, false),   // Roshan taken by dire
+                new TowerDeath(1500, 134, true),   // second Roshan taken by radiant
+                new TowerDeath(700, 18, true),     // radiant T1 bot falls: dire's first tower
+                new TowerDeath(400, 28, false)),   // dire T1 bot falls earlier: radiant's first tower
+                List.of(
+                        player(true, 1, deaths(300, 200, -30, 100)),  // pre-horn death is first blood
+                        player(false, 2, deaths(120, 250, 650, 400)),
+                        new PlayerPerformance(false, false, 0, 1, 0, 0, 0, 0, 4, "h4", 4, null,    // side unknown: skipped
+                                KillEvents.EMPTY, deaths(-60, 500), ItemPurchases.EMPTY, false)));
+        Match m2 = match(5, 15, 36, List.of(), List.of(player(true, 3, deaths(200, 150))));
+        Match m3 = match(7, 36, 99, List.of(), List.of()); // no timeline fetched
+
+        MatchTimelineIndex idx = MatchTimelineIndex.build(List.of(m1, m2, m3, m1));
+
+        assertEquals(3, idx.matchCount());
+        assertEquals(-30, idx.firstBloodTime(10));
+        assertEquals(15, idx.firstBloodTeam(10));          // radiant hero died, so dire drew it
+        assertEquals(1, idx.firstActor(10, Kind.KILL));
+        assertEquals(400, idx.firstTowerTime(10));
+        assertEquals(36, idx.firstTowerTeam(10));
+        assertEquals(2, idx.eventCount(10, Kind.TOWER));
+        assertEquals(900, idx.firstRoshanTime(10));
+        assertEquals(15, idx.firstRoshanTeam(10));
+        assertEquals(1, idx.countBefore(10, Kind.ROSHAN, 36, 1800));
+        assertEquals(MatchTimelineIndex.NONE, idx.firstRoshanTime(5));
+        assertEquals(MatchTimelineIndex.NONE, idx.firstBloodTime(7));
+        assertEquals(MatchTimelineIndex.NONE, idx.firstBloodTime(12345));
+
+        assertEquals(4, idx.eventCount(10, Kind.KILL));
+        assertEquals(2, idx.countBefore(10, Kind.KILL, MatchTimelineIndex.ANY_TEAM, 300)); // -30 and 120; 300 is not before
+        assertEquals(1, idx.countBefore(10, Kind.KILL, 36, 300));
+        assertEquals(550, idx.goldFedBeforeMinute(10, 10));            // 100 + 250 + 200
+        assertEquals(300, idx.goldFedBeforeMinute(10, 36, 10));        // radiant deaths only
+        assertEquals(250, idx.goldFedBeforeMinute(10, 15, 10));
+        assertEquals(950, idx.goldFedBeforeMinute(10, 60));
+        assertEquals(100, idx.goldFedBeforeMinute(10, 0));             // the pre-horn death
+
+        assertEquals(0.5, idx.firstRate(36, Kind.KILL), 1e-9);     // first blood in match 5 only; match 7 has no kills
+        assertEquals(1.0, idx.firstRate(36, Kind.TOWER), 1e-9);
+        assertEquals(0.0, idx.firstRate(36, Kind.ROSHAN), 1e-9);
+        assertTrue(Double.isNaN(idx.firstRate(99, Kind.KILL)));
+        assertArrayEquals(new long[]{5, 7, 10}, idx.matchIdsOf(36));
+        assertEquals(2, idx.firstTimes(MatchTimelineIndex.ANY_TEAM, Kind.KILL).count());
+    }
+}
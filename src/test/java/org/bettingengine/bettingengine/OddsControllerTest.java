@@ -0,0 +1,127 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OddsControllerTest {
+
+    @TempDir
+    Path tmp;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private OddsIndexService service;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        OddsProperties props = new OddsProperties();
+        props.setDataDir(tmp.toString());
+        props.setLeagueId(18324);
+        props.setAdminToken("s3cret");
+        service = new OddsIndexService(props, mapper, PipelineMetrics.NOOP);
+        mvc = MockMvcBuilders.standaloneSetup(new OddsController(service, props)).build();
+    }
+
+    private static Map<String, Object> match(long id, long start, int rad, int dire, boolean radiantWin) {
+        return Map.of("id", id, "startDateTime", start, "durationSeconds", 2000, "didRadiantWin", radiantWin,
+                "radiantTeam", Map.of("id", rad, "name", "T" + rad), "direTeam", Map.of("id", dire, "name", "T" + dire),
+                "league", Map.of("id", 18324, "displayName", "TI"),
+                "players", List.of(Map.of("isRadiant", true, "isVictory", radiantWin, "kills", 5, "deaths", 1,
+                        "hero", Map.of("id", 1, "displayName", "Anti-Mage"),
+                        "steamAccount", Map.of("id", 1, "proSteamAccount", Map.of("name", "carry" + rad)))));
+    }
+
+    private void writeTeam(int teamId, List<Map<String, Object>> matches) throws Exception {
+        mapper.writeValue(tmp.resolve(teamId + "_T" + teamId + ".json").toFile(),
+                Map.of("data", Map.of("team", Map.of("id", teamId, "name", "T" + teamId, "matches", matches))));
+    }
+
+    private JsonNode getJson(String path) throws Exception {
+        return mapper.readTree(mvc.perform(get(path)).andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void servesPrecomputedBodiesAndSwapsOnRefresh() throws Exception {
+        List<Map<String, Object>> ms = new ArrayList<>();
+        for (int i = 0; i < 6; i++) ms.add(match(100 + i, 1000L * (i + 1), 36, 2163, i != 2)); // 36 wins 5 of 6
+        writeTeam(36, ms);
+        writeTeam(2163, ms);
+
+        mvc.perform(get("/api/teams/36")).andExpect(status().isNotFound()); // nothing loaded yet
+        mvc.perform(post("/api/admin/refresh")).andExpect(status().isForbidden());
+        mvc.perform(post("/api/admin/refresh").header("X-Admin-Token", "wrong")).andExpect(status().isForbidden());
+        mvc.perform(post("/api/admin/refresh").header("X-Admin-Token", "s3cret")).andExpect(status().isOk());
+
+        assertEquals(36, getJson("/api/teams").path("teams").get(0).path("id").asInt());
+        assertEquals(5, getJson("/api/teams/36").path("aggregates").path("wins").asInt());
+        assertEquals("carry36", getJson("/api/teams/36/players").path("players").get(0).path("playerName").asText());
+        assertEquals(5, getJson("/api/head-to-head/36/2163").path("winsA").asInt());
+
+        JsonNode matchup = getJson("/api/matchups/36/2163");
+        double p = matchup.path("winProbabilityA").asDouble();
+        assertTrue(p > 0.5 && p < 1.0, "p=" + p);
+        assertTrue(matchup.path("bo3WinProbabilityA").asDouble() > p);
+        assertEquals(1.0 - p, getJson("/api/matchups/2163/36").path("winProbabilityA").asDouble(), 1e-9);
+        mvc.perform(get("/api/matchups/36/999")).andExpect(status().isNotFound());
+        assertEquals(6, getJson("/api/heroes/1/1").path("picksA").asInt());
+        mvc.perform(get("/api/heroes/1/999")).andExpect(status().isNotFound());
+
+        OddsSnapshot before = service.snapshot();
+        ms.add(match(200, 9000, 2163, 36, true));
+        writeTeam(36, ms);
+        service.refresh();
+        assertNotSame(before, service.snapshot());
+        assertEquals(2, getJson("/api/head-to-head/2163/36").path("winsA").asInt());
+        assertEquals(1, mapper.readTree(before.headToHeadBody(2163, 36)).path("winsA").asInt()); // old snapshot untouched
+    }
+
+    @Test
+    void extendRebuildsOnlyTheTeamsOfNewMatches() throws Exception {
+        List<Map<String, Object>> top = new ArrayList<>(), other = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            top.add(match(100 + i, 1000L * (i + 1), 36, 2163, i != 1));
+            other.add(match(300 + i, 1000L * (i + 1), 15, 39, i == 0));
+        }
+        writeTeam(36, top);
+        writeTeam(15, other);
+        OddsSnapshot before = service.refresh();
+        byte[] matchup = before.matchupBody(15, 39);
+        before.matchupBody(36, 2163);
+
+        top.add(match(104, 9000, 2163, 36, true));
+        writeTeam(36, top);
+        OddsSnapshot after = service.refresh(List.of(tmp.resolve("36_T36.json")));
+
+        assertEquals(9, after.matchCount());
+        assertSame(before.teamBody(15), after.teamBody(15));
+        assertSame(before.playersBody(39), after.playersBody(39));
+        assertSame(matchup, after.matchupBody(15, 39));
+        assertNotSame(before.matchupBody(36, 2163), after.matchupBody(36, 2163));
+        assertEquals(9, mapper.readTree(after.heroPairBody(1, 1)).path("picksA").asInt());
+        OddsSnapshot rebuilt = OddsSnapshot.build(tmp, 18324, mapper);
+        assertArrayEquals(rebuilt.teamBody(36), after.teamBody(36));
+        assertArrayEquals(rebuilt.teamsBody(), after.teamsBody());
+    }
+
+    @Test
+    void adminRefreshIsOffWithoutAConfiguredToken() throws Exception {
+        MockMvc unconfigured = MockMvcBuilders.standaloneSetup(new OddsController(service, new OddsProperties())).build();
+        unconfigured.perform(post("/api/admin/refresh")).andExpect(status().isNotFound());
+        unconfigured.perform(post("/api/admin/refresh").header("X-Admin-Token", "")).andExpect(status().isNotFound());
+    }
+}
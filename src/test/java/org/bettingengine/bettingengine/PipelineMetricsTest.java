@@ -0,0 +1,108 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Fetch → analyze against {@link FakeStratzServer}, read back from a {@link SimpleMeterRegistry}. */
+class PipelineMetricsTest {
+
+    @TempDir
+    Path tmp;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(registry);
+    private FakeStratzServer stratz;
+    private TournamentTeamPlaysParserImpl parser;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stratz = FakeStratzServer.start();
+        parser = new TournamentTeamPlaysParserImpl(stratz.restClient().mutate().requestInterceptor(metrics.httpInterceptor()).build());
+        parser.setRateLimiter(new TokenBucketRateLimiter(1000, 1000, Duration.ofSeconds(1)));
+        parser.setMetrics(metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stratz.close();
+    }
+
+    @Test
+    void recordsEveryStageOfOneTeam() throws Exception {
+        stratz.defaultMatches(20);
+        Path file = parser.dumpTeamRawJson(36, 20, 0, tmp);
+
+        TeamJsonAnalyzer analyzer = new TeamJsonAnalyzer();
+        analyzer.setMetrics(metrics);
+        analyzer.analyzeTeamFile(file, SyntheticTeamData.LEAGUE_ID);
+
+        assertEquals(1, registry.get("stratz.requests")
+                .tag("operation", FakeStratzServer.GET_TEAM_WITH_MATCHES).tag("status", "200").timer().count());
+        assertTrue(registry.get("stratz.response.bytes").summary().totalAmount() > 1000);
+        assertEquals(1.0, registry.get("stratz.ratelimit.acquired").functionCounter().count());
+        for (String stage : new String[]{"fetch", "write", "parse", "analyze"}) {
+            assertEquals(1, registry.get("pipeline.stage").tag("stage", stage).tag("kind", "team").timer().count(), stage);
+        }
+        assertEquals(20.0, registry.get("pipeline.matches").tag("kind", "team").counter().count());
+        double analyzed = registry.get("pipeline.matches").tag("kind", "analyzed").counter().count();
+        assertTrue(analyzed > 0 && analyzed < 20, "only the league's matches are analyzed: " + analyzed);
+        assertNull(registry.find("stratz.graphql.errors").counter());
+        if (metrics.threadAllocatedBytes() >= 0) {
+            assertTrue(registry.get("pipeline.allocated").summary().totalAmount() > 0);
+        }
+    }
+
+    @Test
+    void timesEveryPageOfPagedDumpsAndSyncs() {
+        stratz.defaultMatches(25);
+        parser.dumpTeamRawJsonPaged(36, 10, 0, tmp);
+
+        assertEquals(3, registry.get("pipeline.stage").tag("stage", "fetch").tag("kind", "team").timer().count());
+        assertEquals(25.0, registry.get("pipeline.matches").tag("kind", "team").counter().count());
+
+        parser.syncTeamRawJson(15, 20, tmp); // no mark yet: a full paged dump, one page of 25
+        parser.syncTeamRawJson(15, 20, tmp); // nothing new: the probe only
+        assertEquals(4, registry.get("pipeline.stage").tag("stage", "fetch").tag("kind", "team").timer().count());
+        assertEquals(1, registry.get("pipeline.stage").tag("stage", "fetch").tag("kind", "team.probe").timer().count());
+    }
+
+    @Test
+    void timesCareerDumpsWhosePlayersAreMissing() throws Exception {
+        stratz.failNext(400, 1);
+
+        Path file = parser.dumpPlayersCareerJson(List.of(1L), 5, tmp.resolve("careers.json"));
+
+        assertEquals(0, new ObjectMapper().readTree(file.toFile()).path("data").path("players").size());
+        assertEquals(1, registry.get("pipeline.stage").tag("stage", "fetch").tag("kind", "career").timer().count());
+    }
+
+    @Test
+    void countsGraphQlErrorsByOperation() {
+        stratz.replay(FakeStratzServer.GET_TEAM_WITH_MATCHES,
+                "{\"errors\":[{\"message\":\"boom\"}],\"data\":{\"team\":null}}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalStateException.class, () -> parser.dumpTeamRawJsonPaged(36, 20, 0, tmp));
+        parser.dumpTeamRawJson(36, 20, 0, tmp);
+
+        assertEquals(2.0, registry.get("stratz.graphql.errors").tag("operation", "team").counter().count());
+    }
+
+    @Test
+    void operationIsReadFromTheQueryHead() {
+        assertEquals("GetTeamWithMatches", PipelineMetrics.operationOf(
+                "{\"query\":\"query GetTeamWithMatches($teamId: Int!) {".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("unknown", PipelineMetrics.operationOf(new byte[0]));
+    }
+}
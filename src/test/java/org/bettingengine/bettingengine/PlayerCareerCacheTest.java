@@ -0,0 +1,87 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerCareerCacheTest {
+
+    @TempDir
+    Path tmp;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Clock the test can move forward. */
+    private static final class MutableClock extends Clock {
+        Instant now = Instant.parse("2025-09-01T00:00:00Z");
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    private JsonNode player(long id) {
+        return mapper.createObjectNode().set("steamAccount", mapper.createObjectNode().put("id", id));
+    }
+
+    private static long idOf(JsonNode player) {
+        assertNotNull(player);
+        return player.path("steamAccount").path("id").asLong();
+    }
+
+    @Test
+    void servesFreshEntriesFromMemoryThenDiskAndExpiresThem() {
+        MutableClock clock = new MutableClock();
+        var cache = new PlayerCareerCache(tmp, Duration.ofHours(12), 2, clock);
+        cache.put(1L, 10, player(1));
+        cache.put(2L, 10, player(2));
+        cache.put(3L, 10, player(3));  // evicts 1 from memory, it stays on disk
+
+        assertEquals(3L, idOf(cache.get(3L, 10)));
+        assertEquals(1L, idOf(cache.get(1L, 10)));
+        assertNull(cache.get(4L, 10));
+        var stats = cache.stats();
+        assertEquals(1, stats.memoryHits());
+        assertEquals(1, stats.diskHits());
+        assertEquals(1, stats.misses());
+        assertEquals(2, stats.evictions());  // 1 on put(3), 2 on promoting 1
+        assertEquals(2, stats.inMemory());
+
+        // survives a restart
+        var reopened = new PlayerCareerCache(tmp, Duration.ofHours(12), 2, clock);
+        assertEquals(2L, idOf(reopened.get(2L, 10)));
+        assertEquals(1, reopened.stats().diskHits());
+
+        clock.now = clock.now.plus(Duration.ofHours(13));
+        assertNull(cache.get(3L, 10));
+        assertNull(reopened.get(2L, 10));
+        assertEquals(1, cache.stats().expired());
+    }
+
+    @Test
+    void servesOnlyEntriesFetchedWithAtLeastTheRequestedHeroes() {
+        var cache = new PlayerCareerCache(tmp, Duration.ofHours(12), 10);
+        ObjectNode p = (ObjectNode) player(7);
+        ArrayNode heroes = p.putArray("heroesPerformance");
+        for (int h = 1; h <= 5; h++) heroes.addObject().put("matchCount", 100 - h);
+        cache.put(7L, 5, p);
+
+        assertEquals(3, cache.get(7L, 3).path("heroesPerformance").size());
+        assertEquals(5, cache.get(7L, 5).path("heroesPerformance").size());
+        assertNull(cache.get(7L, 10), "a 5-hero entry cannot answer a 10-hero request");
+        assertEquals(4, new PlayerCareerCache(tmp, Duration.ofHours(12), 10).get(7L, 4).path("heroesPerformance").size(), "from disk");
+        assertEquals(2, cache.stats().memoryHits());
+        assertEquals(1, cache.stats().misses());
+    }
+}
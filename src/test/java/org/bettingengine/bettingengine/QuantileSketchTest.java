@@ -0,0 +1,91 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void smallDomainIsExactAndMatchesTheSortedMedian() {
+        SplittableRandom rnd = new SplittableRandom(7L);
+        for (int n : new int[]{1, 2, 7, 100, 1001}) {
+            IntArray values = new IntArray();
+            QuantileSketch sketch = new QuantileSketch();
+            for (int i = 0; i < n; i++) {
+                int v = rnd.nextInt(0, 40);
+                values.add(v);
+                sketch.add(v);
+            }
+            assertEquals(values.median(), sketch.median(), "n=" + n);
+            assertEquals(values.average(), sketch.average(), 1e-9);
+
+            int[] sorted = values.toArray();
+            Arrays.sort(sorted);
+            double h = (n - 1) * 0.9;
+            int lo = (int) h;
+            double p90 = lo + 1 < n ? sorted[lo] + (h - lo) * (sorted[lo + 1] - sorted[lo]) : sorted[lo];
+            assertEquals(p90, sketch.quantile(0.9), 1e-9);
+        }
+        assertEquals(0.0, new QuantileSketch().median());
+    }
+
+    @Test
+    void largeValuesStayWithinRelativeError() {
+        SplittableRandom rnd = new SplittableRandom(3L);
+        int[] values = new int[50_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rnd.nextInt(0, 2_000_000);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.25, 0.5, 0.75, 0.9}) {
+            double exact = values[(int) Math.round(q * (values.length - 1))];
+            assertEquals(exact, sketch.quantile(q), exact * 0.02, "q=" + q);
+        }
+        assertEquals(values[values.length - 1], sketch.max());
+    }
+
+    @Test
+    void mergedShardsAnswerLikeOneSketch() {
+        SplittableRandom rnd = new SplittableRandom(11L);
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch[] shards = {new QuantileSketch(), new QuantileSketch(), new QuantileSketch()};
+        for (int i = 0; i < 10_000; i++) {
+            int v = rnd.nextInt(10) == 0 ? rnd.nextInt(10_000, 100_000) : rnd.nextInt(0, 5000);
+            whole.add(v);
+            shards[i % 3].add(v);
+        }
+        QuantileSketch merged = new QuantileSketch().merge(shards[2]).merge(shards[0]).merge(shards[1]);
+        assertEquals(whole.count(), merged.count());
+        for (double q : new double[]{0.0, 0.25, 0.5, 0.75, 0.9, 1.0}) {
+            assertEquals(whole.quantile(q), merged.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void teamAggregatorsMergeToTheSameResult() throws Exception {
+        Path file = new SyntheticTeamData(36, 90, 0, 0, 0, 5L).write(tmp.resolve("team.json"));
+        List<Match> matches = new TeamMatchesReader(false).read(file, SyntheticTeamData.LEAGUE_ID).matches();
+
+        TeamAggregator whole = new TeamAggregator(36);
+        whole.acceptAll(matches);
+        TeamAggregator first = new TeamAggregator(36), second = new TeamAggregator(36);
+        first.acceptAll(matches.subList(0, 25));
+        second.acceptAll(matches.subList(25, matches.size()));
+        first.merge(second);
+
+        assertEquals(whole.teamAggregates(), first.teamAggregates());
+        assertEquals(whole.playerAggregates(), first.playerAggregates());
+    }
+}
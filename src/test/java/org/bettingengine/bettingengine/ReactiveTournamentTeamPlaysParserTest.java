@@ -0,0 +1,118 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The WebClient fetch path against {@link FakeStratzServer}. */
+class ReactiveTournamentTeamPlaysParserTest {
+
+    @TempDir
+    Path tmp;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private FakeStratzServer stratz;
+    private ReactiveTournamentTeamPlaysParser parser;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stratz = FakeStratzServer.start();
+        StratzClientProperties props = new StratzClientProperties();
+        props.setBaseUrl(stratz.uri().toString());
+        props.setToken("offline");
+        props.getRetry().setBaseBackoff(Duration.ofMillis(5));
+        props.getReactive().setEventLoopThreads(2);
+        parser = new ReactiveTournamentTeamPlaysParser(props, new CircuitBreaker(50, Duration.ofSeconds(30)),
+                new TokenBucketRateLimiter(1000, 1000, Duration.ofSeconds(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        parser.close();
+        stratz.close();
+    }
+
+    @Test
+    void hundredsOfTeamsInFlightOnTwoThreads() throws Exception {
+        List<Integer> ids = IntStream.rangeClosed(1, 200).boxed().toList();
+        stratz.defaultMatches(30).latency(Duration.ofMillis(300), Duration.ZERO).retryAfterSeconds(0)
+                .failNext(503, 1).failNext(500, 1).failNext(429, 1);
+
+        BulkDumpResult result = parser.dumpTeamsRawJson(ids, 20, 0, tmp, DumpProgressListener.NONE);
+
+        assertFalse(result.hasFailures(), () -> result.failures().toString());
+        assertEquals(ids, List.copyOf(result.written().keySet()));
+        assertTrue(stratz.peakConcurrency() > 50, "peak=" + stratz.peakConcurrency());
+        assertEquals(203, stratz.requests(FakeStratzServer.GET_TEAM_WITH_MATCHES));
+
+        Path file = result.written().get(7);
+        assertTrue(file.getFileName().toString().startsWith("7_"), file.toString());
+        JsonNode root = mapper.readTree(file.toFile());
+        assertEquals("FULL_TIMELINE", root.path("queryProfile").asText());   // also on the retried ones
+        JsonNode team = root.path("data").path("team");
+        assertEquals(7, team.path("id").asInt());
+        assertEquals(20, team.path("matches").size());
+        try (var files = Files.list(tmp)) {
+            assertTrue(files.noneMatch(f -> f.toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    void graphQlErrorWithoutTeamFailsOnlyThatTeam() {
+        stratz.respond(FakeStratzServer.GET_TEAM_WITH_MATCHES, (vars, out) -> {
+            int teamId = vars.path("teamId").asInt();
+            String body = teamId == 2
+                    ? "{\"errors\":[{\"message\":\"team not found\"}],\"data\":{\"team\":null}}"
+                    : "{\"data\":{\"team\":{\"id\":" + teamId + ",\"name\":\"Team " + teamId + "\",\"matches\":[]}}}";
+            out.write(body.getBytes());
+        });
+
+        BulkDumpResult result = parser.dumpTeamsRawJson(List.of(1, 2, 3), 10, 0, tmp, DumpProgressListener.NONE);
+
+        assertEquals(Set.of(1, 3), result.written().keySet());
+        assertTrue(result.failures().get(2).getMessage().contains("team not found"));
+        assertEquals("1_Team_1.json", result.written().get(1).getFileName().toString());
+    }
+
+    @Test
+    void careerDumpRetriesAndIsolatesBadIds() throws Exception {
+        stratz.retryAfterSeconds(0).failNext(429, 2).failNext(503, 1).respond(FakeStratzServer.PLAYERS_PRO_ALL_TIME, (vars, out) -> {
+            ObjectNode root = mapper.createObjectNode();
+            ArrayNode players = root.putObject("data").putArray("players");
+            boolean poisoned = false;
+            for (JsonNode id : vars.path("ids")) {
+                if (id.asLong() == 13L) { poisoned = true; continue; }
+                players.addObject().putObject("steamAccount").put("id", id.asLong());
+            }
+            if (poisoned) root.putArray("errors").addObject().put("message", "boom");
+            mapper.writeValue(out, root);
+        });
+
+        Path out = parser.dumpPlayersCareerJson(LongStream.rangeClosed(1, 40).boxed().toList(), 3, tmp.resolve("career.json"));
+
+        Set<Long> written = new HashSet<>();
+        for (JsonNode p : mapper.readTree(out.toFile()).path("data").path("players")) {
+            assertTrue(written.add(p.path("steamAccount").path("id").asLong()), "duplicate " + p);
+        }
+        assertEquals(39, written.size());
+        assertFalse(written.contains(13L));
+        assertEquals(2, stratz.responses(429));
+        assertEquals(1, stratz.responses(503));
+    }
+}
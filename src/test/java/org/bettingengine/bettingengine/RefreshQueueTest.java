@@ -0,0 +1,83 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.bettingengine.bettingengine.RefreshQueue.Priority;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshQueueTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final AtomicLong now = new AtomicLong();
+    private final RefreshQueue<Integer> queue = new RefreshQueue<>(Map.of(
+            Priority.LIVE, Duration.ofMinutes(1), Priority.SOON, Duration.ofMinutes(1), Priority.IDLE, Duration.ofDays(1)),
+            now::get);
+
+    @Test
+    void dueLiveJobsGoBeforeOverdueIdleOnes() {
+        queue.track(1, Priority.IDLE);
+        queue.track(2, Priority.IDLE);
+        now.addAndGet(10);
+        queue.track(3, Priority.LIVE);
+        queue.track(4, Priority.SOON);
+
+        assertEquals(3, queue.poll());
+        assertEquals(4, queue.poll());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.poll());
+        assertNull(queue.poll());
+
+        queue.complete(3);
+        queue.complete(1);
+        assertEquals(MINUTE, queue.nanosUntilDue());
+        now.addAndGet(MINUTE);
+        assertEquals(3, queue.poll());
+        assertNull(queue.poll(), "idle team is due a day later");
+    }
+
+    @Test
+    void requestsCoalesceAndRunningJobsRerunOnce() {
+        queue.track(1, Priority.IDLE);
+        assertEquals(1, queue.poll());
+
+        queue.requestNow(1);
+        queue.requestNow(1);
+        queue.requestNow(1);
+        assertNull(queue.poll(), "never handed out twice while running");
+        queue.complete(1);
+        assertEquals(0, queue.nanosUntilDue());
+        assertEquals(1, queue.poll());
+        queue.complete(1);
+        assertNull(queue.poll());
+
+        queue.requestNow(1);
+        queue.requestNow(1);
+        assertEquals(1, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(3, queue.stats().coalesced()); // two while running beyond the first, one while already due
+    }
+
+    @Test
+    void promotionShortensTheWaitAndUntrackStopsReruns() {
+        queue.track(7, Priority.IDLE);
+        assertEquals(7, queue.poll());
+        queue.complete(7);
+        now.addAndGet(2 * MINUTE);
+        assertNull(queue.poll());
+
+        queue.track(7, Priority.LIVE); // series starts: one minute after the last run, which has passed
+        assertEquals(Priority.LIVE, queue.priorityOf(7));
+        assertEquals(7, queue.poll());
+
+        queue.untrack(7);
+        queue.complete(7);
+        now.addAndGet(Duration.ofDays(2).toNanos());
+        assertNull(queue.poll());
+        assertEquals(new RefreshQueue.Stats(2, 0, 0, 0), queue.stats());
+    }
+}
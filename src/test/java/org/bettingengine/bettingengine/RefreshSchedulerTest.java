@@ -0,0 +1,82 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.bettingengine.bettingengine.RefreshQueue.Priority;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Background sync → odds index against {@link FakeStratzServer}. */
+class RefreshSchedulerTest {
+
+    @TempDir
+    Path tmp;
+
+    private FakeStratzServer stratz;
+    private OddsIndexService odds;
+    private RefreshScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stratz = FakeStratzServer.start();
+        TournamentTeamPlaysParserImpl parser = new TournamentTeamPlaysParserImpl(stratz.restClient());
+        parser.setRateLimiter(new TokenBucketRateLimiter(1000, 1000, Duration.ofSeconds(1)));
+
+        OddsProperties oddsProps = new OddsProperties();
+        oddsProps.setDataDir(tmp.toString());
+        odds = new OddsIndexService(oddsProps, new ObjectMapper(), PipelineMetrics.NOOP);
+
+        RefreshProperties props = new RefreshProperties();
+        props.setLiveInterval(Duration.ofMillis(200));
+        props.setIndexDelay(Duration.ofMillis(20));
+        props.setBudgetPerMinute(6000);
+        scheduler = new RefreshScheduler(parser, odds, oddsProps, props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+        stratz.close();
+    }
+
+    @Test
+    void liveTeamsKeepTheOddsIndexFreshWhileIdleTeamsRunOnce() throws Exception {
+        SyntheticTeamData live = SyntheticTeamData.summary(36, 30);
+        stratz.team(live).team(SyntheticTeamData.summary(15, 10));
+        scheduler.track(36, Priority.LIVE);
+        scheduler.track(15, Priority.IDLE);
+        scheduler.start();
+
+        // synthetic match ids start at the same value for every team, so 36's 30 matches include all 10 of 15's
+        await(() -> odds.snapshot().matchCount() == 30 && scheduler.stats().teamRuns() >= 2);
+        int before = odds.snapshot().matchCount();
+
+        live.matches = 33; // a series is being played
+        await(() -> odds.snapshot().matchCount() == before + 3);
+
+        long teamRuns = scheduler.stats().teamRuns();
+        await(() -> scheduler.stats().teamRuns() >= teamRuns + 2);
+        RefreshScheduler.Stats stats = scheduler.stats();
+        assertEquals(0, stats.failures());
+        assertTrue(stats.indexRefreshes() >= 2);
+        assertEquals(before + 3, odds.snapshot().matchCount(), "unchanged syncs leave the index alone");
+        // only the live team keeps probing; its later runs fetch match data only when new matches appear
+        assertTrue(stratz.requests(FakeStratzServer.GET_TEAM_MATCH_IDS) >= 3);
+        assertEquals(Priority.IDLE, scheduler.priorityOf(15));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The StratzClientConfig stack against {@link FakeStratzServer}. */
+class ResilientHttpInterceptorTest {
+
+    private FakeStratzServer stratz;
+    private StratzClientProperties props;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stratz = FakeStratzServer.start();
+        props = new StratzClientProperties();
+        props.setBaseUrl(stratz.uri().toString());
+        props.getRetry().setBaseBackoff(Duration.ofMillis(5));
+        props.getRetry().setMaxAttempts(3);
+        props.getCircuitBreaker().setFailureThreshold(2);
+        props.getCircuitBreaker().setOpenDuration(Duration.ofMillis(300));
+        stratz.retryAfterSeconds(0);
+        httpClient = StratzClientConfig.httpClient(props);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        stratz.close();
+    }
+
+    private ResilientHttpInterceptor interceptor() {
+        return new ResilientHttpInterceptor(props.getRetry(), props.getHedge(),
+                new CircuitBreaker(props.getCircuitBreaker().getFailureThreshold(), props.getCircuitBreaker().getOpenDuration()));
+    }
+
+    private static JsonNode fetchTeam(RestClient client, int teamId) {
+        return client.post().body(new GraphQLRequest("query GetTeamMatchIds($teamId: Int!) { x }",
+                Map.of("teamId", teamId, "take", 5, "skip", 0))).retrieve().body(JsonNode.class);
+    }
+
+    @Test
+    void retriesThrottlingAndServerErrors() {
+        var interceptor = interceptor();
+        RestClient client = StratzClientConfig.restClient(RestClient.builder(), props, httpClient, interceptor);
+        stratz.failNext(429, 1).failNext(503, 1);
+
+        assertEquals(5, fetchTeam(client, 36).path("data").path("team").path("matches").size());
+        assertEquals(3, stratz.requests());
+        assertEquals(2, interceptor.stats().retries());
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.circuitBreaker().state());
+    }
+
+    @Test
+    void internalServerErrorsAreRetriedAndOpenTheCircuit() {
+        var interceptor = interceptor();
+        RestClient client = StratzClientConfig.restClient(RestClient.builder(), props, httpClient, interceptor);
+        stratz.failNext(500, 1);
+
+        assertNotNull(fetchTeam(client, 36));
+        assertEquals(2, stratz.requests());
+        assertEquals(1, interceptor.stats().retries());
+
+        stratz.failNext(500, 6);
+        assertThrows(HttpServerErrorException.InternalServerError.class, () -> fetchTeam(client, 36));
+        assertThrows(HttpServerErrorException.InternalServerError.class, () -> fetchTeam(client, 36));
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.circuitBreaker().state());
+    }
+
+    @Test
+    void singleAttemptViewLeavesRetriesToTheCallerButSharesTheBreaker() {
+        var interceptor = interceptor();
+        RestClient client = ResilientHttpInterceptor.withoutRetries(
+                StratzClientConfig.restClient(RestClient.builder(), props, httpClient, interceptor));
+        stratz.failNext(429, 2);
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> fetchTeam(client, 36));
+        assertEquals(1, stratz.requests());
+        assertEquals(0, interceptor.stats().retries());
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> fetchTeam(client, 36));
+        assertEquals(2, interceptor.stats().calls());
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.circuitBreaker().state());
+    }
+
+    @Test
+    void opensTheCircuitAfterRepeatedFailuresAndRecovers() throws Exception {
+        var interceptor = interceptor();
+        RestClient client = StratzClientConfig.restClient(RestClient.builder(), props, httpClient, interceptor);
+        stratz.failNext(503, 6);
+
+        assertThrows(HttpServerErrorException.class, () -> fetchTeam(client, 36));
+        assertThrows(HttpServerErrorException.class, () -> fetchTeam(client, 36));
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.circuitBreaker().state());
+        long before = stratz.requests();
+        assertThrows(ResourceAccessException.class, () -> fetchTeam(client, 36));
+        assertEquals(before, stratz.requests()); // failed fast
+        assertEquals(1, interceptor.stats().shortCircuited());
+
+        Thread.sleep(350);
+        assertNotNull(fetchTeam(client, 36));  // half-open trial succeeds
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.circuitBreaker().state());
+    }
+
+    @Test
+    void hedgesASlowAttempt() {
+        props.getHedge().setEnabled(true);
+        props.getHedge().setDelay(Duration.ofMillis(50));
+        var interceptor = interceptor();
+        RestClient client = StratzClientConfig.restClient(RestClient.builder(), props, httpClient, interceptor);
+        stratz.slowNext(Duration.ofSeconds(3), 1);
+
+        long t0 = System.nanoTime();
+        assertNotNull(fetchTeam(client, 36));
+        assertTrue(System.nanoTime() - t0 < Duration.ofSeconds(2).toNanos());
+        assertEquals(1, interceptor.stats().hedges());
+        assertEquals(1, interceptor.stats().hedgeWins());
+    }
+
+    @Test
+    void interruptedHalfOpenTrialIsHandedBack() throws Exception {
+        props.getRetry().setMaxBackoff(Duration.ofSeconds(10));
+        var interceptor = halfOpen();
+        ClientHttpRequestExecution throttled = (request, body) -> {
+            var response = new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().add("Retry-After", "5");
+            return response;
+        };
+
+        Thread.currentThread().interrupt(); // the caller gives up while the trial backs off
+        assertThrows(InterruptedIOException.class, () -> interceptor.intercept(request(), new byte[0], throttled));
+        assertTrue(Thread.interrupted());
+
+        assertEquals(HttpStatus.OK, interceptor.intercept(request(), new byte[0], ok()).getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.circuitBreaker().state());
+    }
+
+    @Test
+    void halfOpenTrialThatThrowsIsHandedBack() throws Exception {
+        var interceptor = halfOpen();
+        ClientHttpRequestExecution broken = (request, body) -> { throw new IllegalStateException("boom"); };
+
+        assertThrows(IllegalStateException.class, () -> interceptor.intercept(request(), new byte[0], broken));
+
+        assertEquals(HttpStatus.OK, interceptor.intercept(request(), new byte[0], ok()).getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.circuitBreaker().state());
+    }
+
+    /** An interceptor whose breaker has just opened with no open duration, so the next call is the half-open trial. */
+    private ResilientHttpInterceptor halfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ZERO);
+        breaker.onFailure();
+        return new ResilientHttpInterceptor(props.getRetry(), props.getHedge(), breaker);
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.POST, URI.create("http://stratz.invalid/graphql"));
+    }
+
+    private static ClientHttpRequestExecution ok() {
+        return (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+    }
+}
@@ -0,0 +1,248 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic raw team JSON shaped like the full-timeline GetTeamWithMatches response ({@code data.team.matches[]}
+ * plus the legacy {@code data.constants.items} block older dumps carried). Sizes are configurable so tests and benchmarks can scale matches and timeline events.
+ */
+final class SyntheticTeamData {
+
+    static final int LEAGUE_ID = 18324;
+    static final int[] OPPONENTS = {2163, 15, 39, 726, 1838315, 2586976, 7119388, 8255888};
+    static final int[] ITEMS = {1, 29, 36, 48, 63, 108, 116, 147, 168, 235};
+    private static final int[] OBJECTIVE_NPCS = {16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 133};
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    final int teamId, killEvents, deathEvents, itemPurchases;
+    /** Mutable so a test can "play" new matches between fetches; new matches are appended as the newest. */
+    int matches;
+    final long seed;
+    /** Every {@code leagueEvery}-th match is outside {@link #LEAGUE_ID}. */
+    int leagueEvery = 3;
+    long firstMatchId = 7_000_000_000L, firstStart = 1_700_000_000L;
+
+    SyntheticTeamData(int teamId, int matches, int killEvents, int deathEvents, int itemPurchases, long seed) {
+        this.teamId = teamId;
+        this.matches = matches;
+        this.killEvents = killEvents;
+        this.deathEvents = deathEvents;
+        this.itemPurchases = itemPurchases;
+        this.seed = seed;
+    }
+
+    /** Matches only, no timeline events. */
+    static SyntheticTeamData summary(int teamId, int matches) {
+        return new SyntheticTeamData(teamId, matches, 0, 0, 0, 1L);
+    }
+
+    Path write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(out);
+        }
+        return file;
+    }
+
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out);
+        return out.toByteArray();
+    }
+
+    void write(OutputStream out) throws IOException {
+        writePage(out, 0, matches);
+    }
+
+    /** Full GetTeamWithMatches response holding {@code take} matches after skipping the {@code skip} newest. */
+    void writePage(OutputStream out, int skip, int take) throws IOException {
+        try (JsonGenerator g = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            g.writeStartObject();
+            g.writeObjectFieldStart("data");
+            g.writeObjectFieldStart("team");
+            g.writeNumberField("id", teamId);
+            g.writeStringField("name", teamName(teamId));
+            g.writeStringField("tag", "T" + teamId);
+            writeMatches(g, skip, skip + take);
+            g.writeEndObject();
+            g.writeObjectFieldStart("constants");
+            g.writeArrayFieldStart("items");
+            for (int id : ITEMS) {
+                g.writeStartObject();
+                g.writeNumberField("id", id);
+                g.writeStringField("displayName", "Item " + id);
+                g.writeStringField("name", "item_" + id);
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+            g.writeEndObject();
+            g.writeEndObject();
+            g.writeEndObject();
+        }
+    }
+
+    /** The {@code matches} array for matches [from, to), newest first (STRATZ order; index 0 is the newest). */
+    void writeMatches(JsonGenerator g, int from, int to) throws IOException {
+        g.writeArrayFieldStart("matches");
+        for (int i = Math.max(0, from); i < Math.min(to, matches); i++) writeMatch(g, matches - 1 - i);
+        g.writeEndArray();
+    }
+
+    /** GetTeamMatchIds response: ids and start times only, same paging as {@link #writePage}. */
+    void writeIdPage(OutputStream out, int skip, int take) throws IOException {
+        try (JsonGenerator g = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            g.writeStartObject();
+            g.writeObjectFieldStart("data");
+            g.writeObjectFieldStart("team");
+            g.writeNumberField("id", teamId);
+            g.writeArrayFieldStart("matches");
+            for (int i = Math.max(0, skip); i < Math.min(skip + take, matches); i++) {
+                int ordinal = matches - 1 - i;
+                g.writeStartObject();
+                g.writeNumberField("id", matchId(ordinal));
+                g.writeNumberField("startDateTime", startDateTime(ordinal));
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+            g.writeEndObject();
+            g.writeEndObject();
+            g.writeEndObject();
+        }
+    }
+
+    static String teamName(int teamId) { return "Team " + teamId; }
+
+    long matchId(int ordinal) { return firstMatchId + ordinal; }
+
+    long startDateTime(int ordinal) { return firstStart + ordinal * 3600L; }
+
+    // ---------- helpers ----------
+
+    /** {@code ordinal} 0 is the oldest match; every value derives from (seed, ordinal) so pages are reproducible. */
+    private void writeMatch(JsonGenerator g, int ordinal) throws IOException {
+        SplittableRandom rnd = new SplittableRandom(seed * 31 + ordinal);
+        int opponent = OPPONENTS[ordinal % OPPONENTS.length];
+        boolean weAreRadiant = (ordinal & 1) == 0;
+        boolean radiantWin = rnd.nextBoolean();
+        int radiant = weAreRadiant ? teamId : opponent, dire = weAreRadiant ? opponent : teamId;
+        int league = ordinal % leagueEvery == 0 ? 1 : LEAGUE_ID;
+
+        g.writeStartObject();
+        g.writeNumberField("id", matchId(ordinal));
+        g.writeNumberField("startDateTime", startDateTime(ordinal));
+        g.writeNumberField("durationSeconds", rnd.nextInt(1500, 3600));
+        g.writeBooleanField("didRadiantWin", radiantWin);
+        writeTeam(g, "radiantTeam", radiant);
+        writeTeam(g, "direTeam", dire);
+        g.writeObjectFieldStart("league");
+        g.writeNumberField("id", league);
+        g.writeStringField("displayName", "League " + league);
+        g.writeEndObject();
+        g.writeNumberField("towerStatusRadiant", rnd.nextInt(2048));
+        g.writeNumberField("towerStatusDire", rnd.nextInt(2048));
+        g.writeNumberField("barracksStatusRadiant", rnd.nextInt(64));
+        g.writeNumberField("barracksStatusDire", rnd.nextInt(64));
+
+        g.writeArrayFieldStart("towerDeaths");
+        for (int t = 0, n = rnd.nextInt(4, 12); t < n; t++) {
+            g.writeStartObject();
+            g.writeNumberField("time", rnd.nextInt(300, 3000));
+            g.writeNumberField("npcId", OBJECTIVE_NPCS[rnd.nextInt(OBJECTIVE_NPCS.length)]);
+            g.writeBooleanField("isRadiant", rnd.nextBoolean());
+            g.writeEndObject();
+        }
+        g.writeEndArray();
+
+        g.writeArrayFieldStart("players");
+        for (int slot = 0; slot < 10; slot++) {
+            boolean isRadiant = slot < 5;
+            int side = isRadiant ? radiant : dire;
+            writePlayer(g, rnd, side, slot % 5, isRadiant, isRadiant == radiantWin);
+        }
+        g.writeEndArray();
+        g.writeEndObject();
+    }
+
+    private static void writeTeam(JsonGenerator g, String field, int id) throws IOException {
+        g.writeObjectFieldStart(field);
+        g.writeNumberField("id", id);
+        g.writeStringField("name", teamName(id));
+        g.writeStringField("tag", "T" + id);
+        g.writeEndObject();
+    }
+
+    private void writePlayer(JsonGenerator g, SplittableRandom rnd, int teamOfPlayer, int position, boolean isRadiant, boolean victory) throws IOException {
+        long steamId = teamOfPlayer * 10L + position;
+        g.writeStartObject();
+        g.writeBooleanField("isRadiant", isRadiant);
+        g.writeBooleanField("isVictory", victory);
+        g.writeNumberField("kills", rnd.nextInt(16));
+        g.writeNumberField("deaths", rnd.nextInt(13));
+        g.writeNumberField("assists", rnd.nextInt(25));
+        g.writeNumberField("goldPerMinute", rnd.nextInt(250, 900));
+        g.writeNumberField("experiencePerMinute", rnd.nextInt(300, 1000));
+        g.writeNumberField("networth", rnd.nextInt(5000, 40000));
+
+        g.writeObjectFieldStart("playbackData");
+        g.writeArrayFieldStart("killEvents");
+        for (int k = 0; k < killEvents; k++) {
+            g.writeStartObject();
+            g.writeNumberField("time", rnd.nextInt(0, 3600));
+            g.writeNumberField("target", rnd.nextInt(1, 130));
+            g.writeEndObject();
+        }
+        g.writeEndArray();
+        g.writeArrayFieldStart("deathEvents");
+        for (int d = 0; d < deathEvents; d++) {
+            g.writeStartObject();
+            g.writeNumberField("time", rnd.nextInt(0, 3600));
+            g.writeNumberField("attacker", rnd.nextInt(1, 130));
+            g.writeNumberField("goldFed", rnd.nextInt(50, 600));
+            g.writeNumberField("xpFed", rnd.nextInt(50, 900));
+            g.writeNumberField("goldLost", rnd.nextInt(0, 400));
+            g.writeBooleanField("isFeed", rnd.nextInt(10) == 0);
+            g.writeNumberField("positionX", rnd.nextInt(8000, 24000));
+            g.writeNumberField("positionY", rnd.nextInt(8000, 24000));
+            g.writeEndObject();
+        }
+        g.writeEndArray();
+        g.writeEndObject();
+
+        g.writeObjectFieldStart("stats");
+        g.writeArrayFieldStart("itemPurchases");
+        for (int i = 0; i < itemPurchases; i++) {
+            g.writeStartObject();
+            g.writeNumberField("time", rnd.nextInt(-90, 3600));
+            g.writeNumberField("itemId", ITEMS[rnd.nextInt(ITEMS.length)]);
+            g.writeEndObject();
+        }
+        g.writeEndArray();
+        g.writeEndObject();
+
+        g.writeObjectFieldStart("hero");
+        int heroId = 1 + (position * 7 + rnd.nextInt(6)) % 130;
+        g.writeNumberField("id", heroId);
+        g.writeStringField("displayName", "Hero " + heroId);
+        g.writeEndObject();
+
+        g.writeObjectFieldStart("steamAccount");
+        g.writeNumberField("id", steamId);
+        g.writeStringField("name", "player" + steamId);
+        g.writeObjectFieldStart("proSteamAccount");
+        g.writeNumberField("id", steamId);
+        g.writeStringField("name", "Pro" + steamId);
+        g.writeNumberField("teamId", teamOfPlayer);
+        g.writeEndObject();
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+}
@@ -0,0 +1,38 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticTeamDataTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void generatedFilesParseLikeStratzResponses() throws Exception {
+        Path file = new SyntheticTeamData(36, 30, 3, 2, 5, 1L).write(tmp.resolve("36_Team_36.json"));
+
+        TeamMatches all = new TeamMatchesReader(true).read(file, TeamMatchesReader.ANY_LEAGUE);
+        assertEquals(30, all.matches().size());
+        assertEquals("Team 36", all.name());
+        Match newest = all.matches().get(0);
+        assertTrue(newest.startDateTime() > all.matches().get(29).startDateTime());
+        assertEquals(10, newest.players().size());
+        assertEquals(3, newest.players().get(0).killEvents().size());
+        assertEquals(2, newest.players().get(0).deathEvents().size());
+        assertEquals(5, newest.players().get(0).itemPurchases().size());
+
+        // every third match is outside the league
+        assertEquals(20, new TeamMatchesReader(false).read(file, SyntheticTeamData.LEAGUE_ID).matches().size());
+        Map<String, Object> analyzed = new TeamJsonAnalyzer().analyzeTeamFile(file, SyntheticTeamData.LEAGUE_ID);
+        assertNotNull(analyzed.get("data"));
+
+        assertArrayEquals(new SyntheticTeamData(36, 30, 3, 2, 5, 1L).toBytes(), Files.readAllBytes(file));
+    }
+}
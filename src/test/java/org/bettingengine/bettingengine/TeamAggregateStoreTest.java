@@ -0,0 +1,88 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamAggregateStoreTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void absorbsOnlyNewMatchesAndSkipsUntouchedFiles() throws Exception {
+        SyntheticTeamData team = SyntheticTeamData.summary(36, 80);
+        Path file = team.write(tmp.resolve("36_T36.json"));
+        Path stateDir = tmp.resolve(".aggregates");
+
+        TeamAggregateStore store = new TeamAggregateStore(stateDir);
+        TeamAggregateStore.Refresh first = store.refresh(file, SyntheticTeamData.LEAGUE_ID);
+        assertFalse(first.unchanged());
+        assertEquals(full(file).matchesCount(), first.newMatches());
+
+        assertTrue(store.refresh(file, SyntheticTeamData.LEAGUE_ID).unchanged());
+
+        long oldHead = new TeamMatchesReader(false).read(file, TeamMatchesReader.ANY_LEAGUE).matches().get(0).id();
+        team.matches = 86; // a sync prepended six matches, four of them in the league
+        team.write(file);
+        assertEquals(6, new TeamMatchesReader(false)
+                .read(file, TeamMatchesReader.ANY_LEAGUE, id -> false, id -> id == oldHead).matches().size());
+        TeamAggregateStore reopened = new TeamAggregateStore(stateDir);
+        TeamAggregateStore.Refresh delta = reopened.refresh(file, SyntheticTeamData.LEAGUE_ID);
+
+        assertFalse(delta.unchanged());
+        assertEquals(4, delta.newMatches());
+        assertEquals(new TeamAggregateStore.Stats(0, 1, 0, 4), reopened.stats());
+
+        TeamAggregator expected = full(file);
+        assertEquals(expected.teamAggregates(), delta.aggregator().teamAggregates());
+        assertEquals(byName(expected.playerAggregates()), byName(delta.aggregator().playerAggregates()));
+    }
+
+    @Test
+    void rebuildsWhenAReDumpDropsMatches() throws Exception {
+        SyntheticTeamData team = SyntheticTeamData.summary(36, 80);
+        Path file = team.write(tmp.resolve("36_T36.json"));
+        TeamAggregateStore store = new TeamAggregateStore(tmp.resolve(".aggregates"));
+        store.refresh(file, SyntheticTeamData.LEAGUE_ID);
+
+        team.matches = 82; // two new matches, but re-dumped with take=50: the 32 oldest leave the file
+        try (OutputStream out = Files.newOutputStream(file)) {
+            team.writePage(out, 0, 50);
+        }
+        TeamAggregateStore.Refresh shrunk = store.refresh(file, SyntheticTeamData.LEAGUE_ID);
+
+        TeamAggregator expected = full(file);
+        assertEquals(expected.matchesCount(), shrunk.newMatches());
+        assertEquals(expected.teamAggregates(), shrunk.aggregator().teamAggregates());
+        assertEquals(2, store.stats().rebuilt());
+        assertEquals(0, store.stats().updated());
+    }
+
+    @Test
+    void newPrefixRequiresTheOldIdsAsTheTail() {
+        assertEquals(2, TeamAggregateStore.newPrefix(new long[]{9, 8, 7, 6}, new long[]{7, 6}));
+        assertEquals(0, TeamAggregateStore.newPrefix(new long[]{7, 6}, new long[]{7, 6}));
+        assertEquals(-1, TeamAggregateStore.newPrefix(new long[]{9, 8, 7}, new long[]{7, 6}));   // 6 dropped
+        assertEquals(-1, TeamAggregateStore.newPrefix(new long[]{9, 6, 7}, new long[]{7, 6}));   // reordered
+        assertEquals(-1, TeamAggregateStore.newPrefix(new long[]{9}, null));                     // old state
+    }
+
+    private static TeamAggregator full(Path file) throws Exception {
+        TeamAggregator agg = new TeamAggregator(36);
+        agg.acceptAll(new TeamMatchesReader(false).read(file, SyntheticTeamData.LEAGUE_ID).matches());
+        return agg;
+    }
+
+    private static List<Map<String, Object>> byName(List<Map<String, Object>> players) {
+        return players.stream().sorted(Comparator.comparing(p -> (String) p.get("playerName"))).toList();
+    }
+}
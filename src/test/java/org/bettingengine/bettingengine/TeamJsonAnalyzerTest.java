@@ -0,0 +1,76 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression against the original map-based analyzer: {@code team_36_edge_cases-baseline.json} is its output for
+ * the fixture (matches without a result, side or duration, a zero duration, another league, a missing team).
+ */
+class TeamJsonAnalyzerTest {
+
+    private static final int LEAGUE_ID = 18324;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TeamJsonAnalyzer analyzer = new TeamJsonAnalyzer();
+
+    @Test
+    void analyzeTeamFileMatchesBaselineOutput() throws Exception {
+        JsonNode baseline = mapper.readTree(fixture("team_36_edge_cases-baseline.json").toFile());
+        JsonNode analyzed = mapper.valueToTree(analyzer.analyzeTeamFile(fixture("team_36_edge_cases.json"), LEAGUE_ID));
+
+        assertCovers(baseline, analyzed, "");
+        assertEquals(12, analyzed.path("extensions").path("cost").asInt());
+    }
+
+    @Test
+    void streamingAnalysisMatchesBaselineAggregates() throws Exception {
+        JsonNode baseline = mapper.readTree(fixture("team_36_edge_cases-baseline.json").toFile()).path("data").path("team");
+        JsonNode streamed = mapper.valueToTree(analyzer.analyzeTeamFileStreaming(fixture("team_36_edge_cases.json"), LEAGUE_ID))
+                .path("data").path("team");
+
+        assertCovers(baseline.path("aggregates"), streamed.path("aggregates"), "aggregates");
+        assertCovers(baseline.path("playerAggregates"), streamed.path("playerAggregates"), "playerAggregates");
+    }
+
+    @Test
+    void matchStoreAnalysisMatchesStreamingAnalysis(@TempDir Path tmp) throws Exception {
+        TeamMatches team = new TeamMatchesReader(false).read(fixture("team_36_edge_cases.json"), TeamMatchesReader.ANY_LEAGUE);
+        MatchStoreWriter writer = new MatchStoreWriter().team(team.teamId(), team.name(), team.tag());
+        writer.addAll(team.matches());
+        Path store = writer.write(tmp.resolve("36.bems"));
+
+        JsonNode streamed = mapper.valueToTree(analyzer.analyzeTeamFileStreaming(fixture("team_36_edge_cases.json"), LEAGUE_ID))
+                .path("data").path("team");
+        JsonNode fromStore = mapper.valueToTree(analyzer.analyzeMatchStore(store, LEAGUE_ID)).path("data").path("team");
+
+        assertEquals(streamed.path("aggregates"), fromStore.path("aggregates"));
+        assertEquals(streamed.path("playerAggregates"), fromStore.path("playerAggregates"));
+    }
+
+    private static Path fixture(String name) throws Exception {
+        return Path.of(TeamJsonAnalyzerTest.class.getResource("/fixtures/" + name).toURI());
+    }
+
+    /** Every value of {@code expected} is in {@code actual}; stats may carry extra quantiles next to average/median. */
+    private static void assertCovers(JsonNode expected, JsonNode actual, String path) {
+        assertFalse(actual.isMissingNode(), path + " missing");
+        if (expected.isObject()) {
+            assertTrue(actual.isObject(), path);
+            expected.properties().forEach(e -> assertCovers(e.getValue(), actual.path(e.getKey()), path + "." + e.getKey()));
+        } else if (expected.isArray()) {
+            assertEquals(expected.size(), actual.size(), path);
+            for (int i = 0; i < expected.size(); i++) assertCovers(expected.get(i), actual.get(i), path + "[" + i + "]");
+        } else if (expected.isNumber()) {
+            assertEquals(expected.doubleValue(), actual.doubleValue(), 1e-9, path);
+        } else {
+            assertEquals(expected, actual, path);
+        }
+    }
+}
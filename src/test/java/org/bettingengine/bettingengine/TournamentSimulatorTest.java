@@ -0,0 +1,70 @@
+package org.bettingengine.bettingengine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentSimulatorTest {
+
+    @Test
+    void seriesAndBracketHelpers() {
+        assertEquals(0.648, TournamentSimulator.seriesWinProbability(0.6, 3), 1e-12);
+        assertEquals(0.6, TournamentSimulator.seriesWinProbability(0.6, 1), 1e-12);
+        assertArrayEquals(new int[]{0, 7, 3, 4, 1, 6, 2, 5}, TournamentSimulator.bracketOrder(8));
+    }
+
+    @Test
+    void roundOneNeverPairsTeamsFromTheSameGroup() {
+        int[][] layouts = {{2, 1}, {2, 2}, {2, 4}, {4, 2}, {4, 4}, {8, 2}};
+        for (int[] layout : layouts) {
+            int groups = layout[0], advance = layout[1], size = groups * advance;
+            int[] groupOfSeed = new int[size];
+            for (int r = 0; r < advance; r++) {
+                for (int g = 0; g < groups; g++) groupOfSeed[TournamentSimulator.seed(r, g, groups)] = g;
+            }
+            int[] order = TournamentSimulator.bracketOrder(size);
+            for (int m = 0; m < size / 2; m++) {
+                int a = order[2 * m], b = order[2 * m + 1];
+                assertNotEquals(groupOfSeed[a], groupOfSeed[b], () -> Arrays.toString(layout) + " seeds " + a + " v " + b);
+            }
+        }
+    }
+
+    @Test
+    void headToHeadFinalConvergesToSeriesProbability() {
+        var format = TournamentFormat.singleElimination(new int[]{36, 2163}, 1, 3);
+        var odds = new TournamentSimulator(format, (a, b) -> a == 36 ? 0.7 : 0.3).simulate(200_000, 4, 42L);
+        assertEquals(TournamentSimulator.seriesWinProbability(0.7, 3), odds.outright(36), 0.01);
+        assertEquals(1.0, odds.outright(36) + odds.outright(2163), 1e-12);
+    }
+
+    @Test
+    void groupsIntoPlayoffsIsConsistentAndReproducible() {
+        int[] a = {36, 2163, 15, 39, 726, 1838315, 2586976, 7119388};
+        int[] b = {8255888, 8291895, 8599101, 9247354, 9303484, 9338413, 9467224, 9572001};
+        Map<Integer, Double> rates = new HashMap<>();
+        for (int i = 0; i < 8; i++) { rates.put(a[i], 0.8 - i * 0.05); rates.put(b[i], 0.75 - i * 0.05); }
+        var format = new TournamentFormat(new int[][]{a, b}, 2, 4, 3, 5);
+        var sim = new TournamentSimulator(format, WinProbabilitySource.fromWinRates(rates));
+
+        TournamentOdds odds = sim.simulate(50_000, 4, 7L);
+        double top8 = 0, top4 = 0, champion = 0;
+        for (int id : odds.teamIds()) {
+            top8 += odds.topN(id, 8);
+            top4 += odds.topN(id, 4);
+            champion += odds.outright(id);
+        }
+        assertEquals(8.0, top8, 1e-9);
+        assertEquals(4.0, top4, 1e-9);
+        assertEquals(1.0, champion, 1e-9);
+        assertTrue(odds.outright(36) > odds.outright(7119388));
+        assertEquals(4, odds.toMap().get(36).size());
+
+        assertArrayEquals(odds.counts(), sim.simulate(50_000, 4, 7L).counts());
+        assertFalse(Arrays.equals(odds.counts(), sim.simulate(50_000, 4, 8L).counts()));
+    }
+}
@@ -62,14 +62,12 @@ class TournamentTeamPlaysParserImplTest {
         Path outDir = Path.of("out/ti25_raw");
         Files.createDirectories(outDir);
 
-        for (Long teamId : teamIds) {
-            try {
-                var file = parser.dumpTeamRawJson(teamId.intValue(), /*take*/ 100, /*skip*/ 0, outDir);
-                System.out.println("Wrote " + file.toAbsolutePath());
-            } catch (Exception e) {
-                System.err.println("Failed to dump raw for teamId=" + teamId + " : " + e.getMessage());
-            }
-        }
+        var ids = teamIds.stream().map(Long::intValue).toList();
+        var result = parser.dumpTeamsRawJson(ids, /*take*/ 100, /*skip*/ 0, outDir, (teamId, file, error, done, total) -> {
+            if (error == null) System.out.println("[" + done + "/" + total + "] Wrote " + file.toAbsolutePath());
+            else System.err.println("[" + done + "/" + total + "] Failed to dump raw for teamId=" + teamId + " : " + error.getMessage());
+        });
+        System.out.println("Dumped " + result.written().size() + "/" + ids.size() + " teams in " + result.elapsed().toMillis() + " ms");
     }
 
     /** STEP 2 — Read raw files and write analyzed files to a separate directory. */
@@ -80,21 +78,9 @@ class TournamentTeamPlaysParserImplTest {
         Files.createDirectories(outDir);
 
         TeamJsonAnalyzer analyzer = new TeamJsonAnalyzer();
-        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
-
-        try (Stream<Path> files = Files.list(inDir)) {
-            files.filter(p -> p.getFileName().toString().endsWith(".json")).forEach(p -> {
-                try {
-                    var analyzed = analyzer.analyzeTeamFile(p, INT_25_ID);
-                    String outName = p.getFileName().toString().replace(".json", "-analyzed.json");
-                    Path outFile = outDir.resolve(outName);
-                    mapper.writeValue(outFile.toFile(), analyzed);
-                    System.out.println("Wrote " + outFile.toAbsolutePath());
-                } catch (Exception e) {
-                    System.err.println("Failed to analyze " + p + " : " + e.getMessage());
-                }
-            });
-        }
+        var report = analyzer.analyzeDirectory(inDir, outDir, INT_25_ID, Runtime.getRuntime().availableProcessors());
+        System.out.println("Analyzed " + report.written().size() + " files, " + report.failures().size()
+                + " failures in " + report.elapsed().toMillis() + " ms");
     }
 
     @Test
@@ -0,0 +1,252 @@
+package org.bettingengine.bettingengine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The fetch layer against {@link FakeStratzServer}: no network, no quota. */
+class TournamentTeamPlaysParserOfflineTest {
+
+    @TempDir
+    Path tmp;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private FakeStratzServer stratz;
+    private TournamentTeamPlaysParserImpl parser;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stratz = FakeStratzServer.start();
+        parser = new TournamentTeamPlaysParserImpl(stratz.restClient());
+        parser.setRateLimiter(new TokenBucketRateLimiter(1000, 1000, Duration.ofSeconds(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stratz.close();
+    }
+
+    @Test
+    void bulkDumpStaysWithinConcurrencyLimitAndReportsFailures() throws Exception {
+        List<Integer> ids = IntStream.rangeClosed(1, 16).boxed().toList();
+        stratz.defaultMatches(120).latency(Duration.ofMillis(30), Duration.ofMillis(20)).failNext(503, 1).failNext(429, 1);
+        parser.setMaxInFlight(4);
+
+        BulkDumpResult result = parser.dumpTeamsRawJson(ids, 50, 0, tmp, DumpProgressListener.NONE);
+
+        assertEquals(14, result.written().size());
+        assertEquals(2, result.failures().size());
+        assertEquals(16, stratz.requests(FakeStratzServer.GET_TEAM_WITH_MATCHES));
+        assertEquals(1, stratz.responses(503));
+        assertEquals(1, stratz.responses(429));
+        assertTrue(stratz.peakConcurrency() <= 4, "peak=" + stratz.peakConcurrency());
+
+        Path any = result.written().values().iterator().next();
+        assertEquals(50, mapper.readTree(any.toFile()).path("data").path("team").path("matches").size());
+    }
+
+    @Test
+    void interruptedBulkDumpStopsWithoutReportingFailures() {
+        stratz.defaultMatches(20);
+
+        Thread.currentThread().interrupt(); // the caller cancels before the dump starts
+        BulkDumpResult result = parser.dumpTeamsRawJson(List.of(1, 2, 3), 10, 0, tmp, DumpProgressListener.NONE);
+
+        assertTrue(Thread.interrupted());
+        assertTrue(result.written().isEmpty());
+        assertTrue(result.failures().isEmpty());
+        assertEquals(0, stratz.requests());
+    }
+
+    @Test
+    void pagedDumpWalksEveryPageAndSyncFetchesOnlyNewMatches() throws Exception {
+        SyntheticTeamData team = SyntheticTeamData.summary(36, 130);
+        stratz.team(team);
+
+        Path file = parser.dumpTeamRawJsonPaged(36, 40, 0, tmp);
+        assertEquals(130, matchIds(file).size());
+        assertEquals(4, stratz.requests(FakeStratzServer.GET_TEAM_WITH_MATCHES)); // a short page ends the walk
+
+        parser.syncTeamRawJson(36, 20, tmp);  // first sync: establishes the high-water mark
+        stratz.resetStats();
+        team.matches = 137;
+        Path synced = parser.syncTeamRawJson(36, 20, tmp);
+
+        List<Long> ids = matchIds(synced);
+        assertEquals(137, ids.size());
+        assertEquals(team.matchId(136), ids.get(0));
+        assertEquals(1, stratz.requests(FakeStratzServer.GET_TEAM_MATCH_IDS));
+        assertEquals(1, stratz.requests(FakeStratzServer.GET_TEAM_WITH_MATCHES));
+    }
+
+    @Test
+    void matchLandingBetweenProbeAndFetchIsNotSkipped() throws Exception {
+        SyntheticTeamData team = SyntheticTeamData.summary(36, 50);
+        stratz.team(team);
+        parser.syncTeamRawJson(36, 20, tmp);
+
+        team.matches = 55;
+        stratz.respond(FakeStratzServer.GET_TEAM_MATCH_IDS, (vars, out) -> {
+            team.writeIdPage(out, vars.path("skip").asInt(), vars.path("take").asInt());
+            team.matches = 56; // lands right after the probe answered
+        });
+        Path synced = parser.syncTeamRawJson(36, 20, tmp);
+
+        List<Long> ids = matchIds(synced);
+        assertEquals(56, ids.size());
+        assertEquals(56, new HashSet<>(ids).size());
+        assertEquals(team.matchId(55), ids.get(0));
+
+        stratz.resetStats();
+        parser.syncTeamRawJson(36, 20, tmp); // the mark covers everything written: nothing left to fetch
+        assertEquals(0, stratz.requests(FakeStratzServer.GET_TEAM_WITH_MATCHES));
+    }
+
+    @Test
+    void syncKeepsTheFileWhenThePageHasNoTeam() throws Exception {
+        SyntheticTeamData team = SyntheticTeamData.summary(36, 50);
+        stratz.team(team);
+        Path file = parser.syncTeamRawJson(36, 20, tmp);
+
+        team.matches = 55;
+        stratz.replay(FakeStratzServer.GET_TEAM_WITH_MATCHES, "{\"data\":{\"team\":null}}".getBytes());
+
+        assertThrows(IllegalStateException.class, () -> parser.syncTeamRawJson(36, 20, tmp));
+        assertEquals(50, matchIds(file).size());
+        assertFalse(Files.exists(tmp.resolve("36_.json")));
+    }
+
+    @Test
+    void failedPagedDumpLeavesNoPartialFile() throws Exception {
+        SyntheticTeamData team = SyntheticTeamData.summary(36, 130);
+        stratz.respond(FakeStratzServer.GET_TEAM_WITH_MATCHES, (vars, out) -> {
+            if (vars.path("skip").asInt() == 0) team.writePage(out, 0, vars.path("take").asInt());
+            else out.write("{\"data\":".getBytes()); // truncated second page
+        });
+
+        assertThrows(Exception.class, () -> parser.dumpTeamRawJsonPaged(36, 40, 0, tmp));
+        try (var files = Files.list(tmp)) {
+            assertEquals(List.of(), files.filter(f -> f.toString().endsWith(".part")).toList());
+        }
+    }
+
+    @Test
+    void lighterProfilesShrinkThePayloadAndConstantsAreFetchedOnce() throws Exception {
+        stratz.team(new SyntheticTeamData(7, 60, 20, 20, 30, 3L));
+
+        Path full = parser.dumpTeamRawJsonPaged(7, 100, 0, tmp.resolve("full"), TeamQueryProfile.FULL_TIMELINE);
+        long fullBytes = stratz.bytesServed(FakeStratzServer.GET_TEAM_WITH_MATCHES);
+        stratz.resetStats();
+        Path summary = parser.dumpTeamRawJsonPaged(7, 100, 0, tmp.resolve("summary"), TeamQueryProfile.SUMMARY);
+        long summaryBytes = stratz.bytesServed(FakeStratzServer.GET_TEAM_WITH_MATCHES);
+
+        assertTrue(summaryBytes * 4 < fullBytes, "summary=" + summaryBytes + " full=" + fullBytes);
+        assertEquals("SUMMARY", mapper.readTree(summary.toFile()).path("queryProfile").asText());
+        TeamMatches a = TeamQueryProfile.FULL_TIMELINE.reader().read(full, SyntheticTeamData.LEAGUE_ID);
+        TeamMatches b = TeamQueryProfile.SUMMARY.reader().read(summary, SyntheticTeamData.LEAGUE_ID);
+        assertEquals(a.matches().size(), b.matches().size());
+        assertEquals(TeamQueryProfile.FULL_TIMELINE, a.profile());
+        assertEquals(TeamQueryProfile.SUMMARY, b.profile());
+        assertThrows(IllegalArgumentException.class, () -> new ItemTimings(parser.itemConstants(tmp)).acceptAll(b));
+        assertEquals(0, MatchTimelineIndex.build(tmp.resolve("summary")).matchCount());   // no timeline to index
+        assertEquals(60, MatchTimelineIndex.build(tmp.resolve("full")).matchCount());                // every league
+        assertFalse(a.matches().get(0).players().get(0).itemPurchases().isEmpty());
+        assertTrue(b.matches().get(0).players().get(0).itemPurchases().isEmpty());
+
+        assertEquals(SyntheticTeamData.ITEMS.length, parser.itemConstants(tmp).size());
+        parser.itemConstants(tmp);
+        var fresh = new TournamentTeamPlaysParserImpl(stratz.restClient());
+        assertEquals("Item 29", fresh.itemConstants(tmp).displayName(29));  // from outDir/.constants
+        assertEquals(1, stratz.requests(FakeStratzServer.GET_ITEM_CONSTANTS));
+    }
+
+    @Test
+    void syncUnderAnotherProfileRedumpsTheFile() throws Exception {
+        stratz.team(SyntheticTeamData.summary(36, 50));
+        parser.syncTeamRawJson(36, 20, tmp, TeamQueryProfile.FULL_TIMELINE);
+        stratz.resetStats();
+
+        Path file = parser.syncTeamRawJson(36, 20, tmp, TeamQueryProfile.SUMMARY);
+
+        assertEquals(0, stratz.requests(FakeStratzServer.GET_TEAM_MATCH_IDS));
+        assertEquals(1, stratz.requests(FakeStratzServer.GET_TEAM_WITH_MATCHES));
+        assertEquals(50, matchIds(file).size());
+        assertEquals(TeamQueryProfile.SUMMARY, TeamQueryProfile.SUMMARY.reader().profileOf(file));
+    }
+
+    @Test
+    void careerDumpBatchesIdsAndMergesPlayers() throws Exception {
+        List<Long> steamIds = LongStream.rangeClosed(1, 12).boxed().toList();
+
+        Path out = parser.dumpPlayersCareerJson(steamIds, 3, tmp.resolve("career.json"));
+
+        JsonNode players = mapper.readTree(out.toFile()).path("data").path("players");
+        assertEquals(12, players.size());
+        assertEquals(3, players.get(0).path("heroesPerformance").size());
+        assertEquals(3, stratz.requests(FakeStratzServer.PLAYERS_PRO_ALL_TIME));
+    }
+
+    @Test
+    void careerDumpRetriesThrottledSlicesAndIsolatesBadIds() throws Exception {
+        List<Long> steamIds = LongStream.rangeClosed(1, 40).boxed().toList();
+        parser.setRetryBackoff(Duration.ofMillis(5));
+        stratz.retryAfterSeconds(0).failNext(429, 3).failNext(503, 2).respond(FakeStratzServer.PLAYERS_PRO_ALL_TIME, (vars, out) -> {
+            // id 13 poisons its request: GraphQL errors plus the other players
+            ObjectNode root = mapper.createObjectNode();
+            ArrayNode players = root.putObject("data").putArray("players");
+            boolean poisoned = false;
+            for (JsonNode id : vars.path("ids")) {
+                if (id.asLong() == 13L) { poisoned = true; continue; }
+                players.addObject().putObject("steamAccount").put("id", id.asLong());
+            }
+            if (poisoned) root.putArray("errors").addObject().put("message", "boom");
+            mapper.writeValue(out, root);
+        });
+
+        Path out = parser.dumpPlayersCareerJson(steamIds, 3, tmp.resolve("career.json"));
+
+        JsonNode players = mapper.readTree(out.toFile()).path("data").path("players");
+        Set<Long> written = new HashSet<>();
+        for (JsonNode p : players) assertTrue(written.add(p.path("steamAccount").path("id").asLong()), "duplicate " + p);
+        assertEquals(39, written.size());
+        assertFalse(written.contains(13L));
+        assertEquals(3, stratz.responses(429));
+        assertEquals(2, stratz.responses(503));
+    }
+
+    @Test
+    void careerDumpOnlyFetchesIdsMissingFromTheCache() throws Exception {
+        var cache = new PlayerCareerCache(tmp.resolve("career-cache"), Duration.ofDays(1), 100);
+        parser.setCareerCache(cache);
+        parser.dumpPlayersCareerJson(LongStream.rangeClosed(1, 10).boxed().toList(), 3, tmp.resolve("a.json"));
+        assertEquals(2, stratz.requests(FakeStratzServer.PLAYERS_PRO_ALL_TIME));
+
+        stratz.resetStats();
+        Path out = parser.dumpPlayersCareerJson(LongStream.rangeClosed(1, 12).boxed().toList(), 3, tmp.resolve("b.json"));
+        assertEquals(1, stratz.requests(FakeStratzServer.PLAYERS_PRO_ALL_TIME));  // ids 11 and 12 only
+        assertEquals(12, mapper.readTree(out.toFile()).path("data").path("players").size());
+        assertEquals(10, cache.stats().hits());
+    }
+
+    private List<Long> matchIds(Path file) throws Exception {
+        JsonNode matches = mapper.readTree(file.toFile()).path("data").path("team").path("matches");
+        return StreamSupport.stream(matches.spliterator(), false).map(m -> m.path("id").asLong()).toList();
+    }
+}